@@ -0,0 +1,34 @@
+package com.aim.benchmarks;
+
+import java.util.Random;
+
+import com.aim.heuristics.DavissBitHillClimbing;
+import com.aim.heuristics.ProbSATHeuristic;
+import com.aim.heuristics.ScoreBucketSteepestDescentHillClimbing;
+import com.aim.heuristics.SteepestDescentHillClimbing;
+import com.aim.heuristics.WalkSATHeuristic;
+import com.aim.pseudorandom.RandomBitFlipHeuristic;
+import uk.ac.nott.cs.aim.satheuristics.SATHeuristic;
+
+/**
+ * Creates the heuristics under test from the names used in {@code @Param} annotations.
+ */
+final class BenchmarkHeuristics {
+
+	private BenchmarkHeuristics() {
+
+	}
+
+	static SATHeuristic create(String strName, Random oRandom) {
+
+		return switch (strName) {
+			case "RBF" -> new RandomBitFlipHeuristic(oRandom);
+			case "DBHC" -> new DavissBitHillClimbing(oRandom);
+			case "SDHC" -> new SteepestDescentHillClimbing(oRandom);
+			case "SDHC_BUCKETS" -> new ScoreBucketSteepestDescentHillClimbing(oRandom);
+			case "WALKSAT" -> new WalkSATHeuristic(oRandom);
+			case "PROBSAT" -> new ProbSATHeuristic(oRandom);
+			default -> throw new IllegalArgumentException("Unknown heuristic " + strName);
+		};
+	}
+}
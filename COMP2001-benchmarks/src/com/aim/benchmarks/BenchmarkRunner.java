@@ -0,0 +1,29 @@
+package com.aim.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmark suites with the GC profiler, which reports the allocation per operation
+ * ({@code gc.alloc.rate.norm}) alongside each score.
+ * <p>
+ * By default all suites are run; a regular expression matching the suites or benchmark methods to
+ * run, e.g. {@code HeuristicBenchmark}, can be passed as the first argument.
+ */
+public class BenchmarkRunner {
+
+	public static void main(String[] args) throws RunnerException {
+
+		String strInclude = args.length > 0 ? args[0] : BenchmarkRunner.class.getPackageName() + ".*Benchmark";
+
+		Options oOptions = new OptionsBuilder()
+				.include(strInclude)
+				.addProfiler(GCProfiler.class)
+				.build();
+
+		new Runner(oOptions).run();
+	}
+}
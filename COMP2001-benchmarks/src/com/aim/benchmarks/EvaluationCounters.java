@@ -0,0 +1,24 @@
+package com.aim.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Secondary results reported alongside the primary score, normalised by JMH to a rate, e.g. the
+ * number of evaluations counted towards the termination criterion per second.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class EvaluationCounters {
+
+	public long evaluations;
+
+	@Setup(Level.Iteration)
+	public void reset() {
+
+		evaluations = 0;
+	}
+}
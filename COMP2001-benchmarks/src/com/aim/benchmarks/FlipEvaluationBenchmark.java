@@ -0,0 +1,67 @@
+package com.aim.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.aim.sat.IncrementalSAT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.ac.nott.cs.aim.domains.chesc2014_SAT.SAT;
+
+/**
+ * Compares the cost of a bit flip followed by an evaluation in the framework's {@code SAT} with the
+ * incremental engine, on the sat07 and sat09 instances that {@code SAT} can load by ID. The primary
+ * score is the number of flips (and evaluations) per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class FlipEvaluationBenchmark {
+
+	/**
+	 * A day's worth of nominal seconds, so that the termination criterion is never reached.
+	 */
+	private static final int UNLIMITED_SECONDS = 24 * 60 * 60;
+
+	/**
+	 * sat07 (1, 10) and sat09 (3, 5) instance IDs.
+	 */
+	@Param({ "1", "10", "3", "5" })
+	public int instanceId;
+
+	@Param({ "SAT", "INCREMENTAL" })
+	public String engine;
+
+	private SAT m_oProblem;
+
+	private Random m_oRandom;
+
+	@Setup(Level.Trial)
+	public void setup() {
+
+		m_oRandom = new Random(42L);
+		m_oProblem = engine.equals("SAT")
+				? new SAT(instanceId, UNLIMITED_SECONDS, m_oRandom)
+				: new IncrementalSAT(instanceId, UNLIMITED_SECONDS, m_oRandom);
+	}
+
+	@Benchmark
+	public int flipAndEvaluate() {
+
+		m_oProblem.bitFlip(m_oRandom.nextInt(m_oProblem.getNumberOfVariables()), 0);
+		return m_oProblem.getObjectiveFunctionValue(0);
+	}
+}
@@ -0,0 +1,64 @@
+package com.aim.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.aim.sat.ClauseDatabase;
+import com.aim.sat.IncrementalSAT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import uk.ac.nott.cs.aim.satheuristics.SATHeuristic;
+
+/**
+ * Measures a single application of each heuristic, followed by the evaluation of the solution as
+ * the runners do, on one instance from each family. For the random bit flip heuristic the primary
+ * score is the number of flips per second.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HeuristicBenchmark {
+
+	@Param({ InstanceFamilies.UF250, InstanceFamilies.BLOCKSWORLD, InstanceFamilies.GRAPH_COLOURING, InstanceFamilies.SAT07, InstanceFamilies.SAT09 })
+	public String instance;
+
+	@Param({ "RBF", "DBHC", "SDHC", "SDHC_BUCKETS", "WALKSAT", "PROBSAT" })
+	public String heuristic;
+
+	private IncrementalSAT m_oProblem;
+
+	private SATHeuristic m_oHeuristic;
+
+	@Setup(Level.Trial)
+	public void setup() {
+
+		Random oRandom = new Random(42L);
+		m_oProblem = IncrementalSAT.create(ClauseDatabase.load(instance), Long.MAX_VALUE, oRandom, 1);
+		m_oHeuristic = BenchmarkHeuristics.create(heuristic, oRandom);
+	}
+
+	@Benchmark
+	public int applyHeuristic(EvaluationCounters oCounters) {
+
+		long lEvaluations = m_oProblem.getNumberOfEvaluationsUsed();
+
+		m_oHeuristic.applyHeuristic(m_oProblem);
+		int iFitness = m_oProblem.getObjectiveFunctionValue(SATHeuristic.CURRENT_SOLUTION_INDEX);
+
+		oCounters.evaluations += m_oProblem.getNumberOfEvaluationsUsed() - lEvaluations;
+		return iFitness;
+	}
+}
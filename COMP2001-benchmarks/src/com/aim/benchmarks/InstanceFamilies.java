@@ -0,0 +1,22 @@
+package com.aim.benchmarks;
+
+/**
+ * One representative DIMACS file from each of the instance families bundled with the framework,
+ * for use in {@code @Param} annotations.
+ */
+public final class InstanceFamilies {
+
+	public static final String UF250 = "/data/sat/250/uf250-01.txt";
+
+	public static final String BLOCKSWORLD = "/data/sat/blocksworld/huge.txt";
+
+	public static final String GRAPH_COLOURING = "/data/sat/graphcolouring/flat/flat200-1.txt";
+
+	public static final String SAT07 = "/data/sat/sat07/crafted/Hard/contest03/looksrandom/hidden-k3-s0-r5-n700-01-S2069048075.sat05-488.reshuffled-07.txt";
+
+	public static final String SAT09 = "/data/sat/sat09/random/3sat/unif-k3-r4.25-v560-c2380-S1879859331-044.txt";
+
+	private InstanceFamilies() {
+
+	}
+}
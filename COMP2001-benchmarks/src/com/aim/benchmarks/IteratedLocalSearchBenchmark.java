@@ -0,0 +1,69 @@
+package com.aim.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.aim.metaheuristics.singlepoint.iteratedlocalsearch.IteratedLocalSearch;
+import com.aim.pseudorandom.RandomBitFlipHeuristic;
+import com.aim.sat.ClauseDatabase;
+import com.aim.sat.IncrementalSAT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures one iteration of the main loop of iterated local search, i.e. mutation, local search,
+ * and the accept/reject copy between the current and backup solutions.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class IteratedLocalSearchBenchmark {
+
+	@Param({ InstanceFamilies.UF250, InstanceFamilies.BLOCKSWORLD, InstanceFamilies.GRAPH_COLOURING, InstanceFamilies.SAT07, InstanceFamilies.SAT09 })
+	public String instance;
+
+	@Param({ "DBHC", "SDHC", "SDHC_BUCKETS" })
+	public String localSearch;
+
+	@Param({ "1" })
+	public int intensityOfMutation;
+
+	@Param({ "1" })
+	public int depthOfSearch;
+
+	private IncrementalSAT m_oProblem;
+
+	private IteratedLocalSearch m_oSearchMethod;
+
+	@Setup(Level.Trial)
+	public void setup() {
+
+		Random oRandom = new Random(42L);
+		m_oProblem = IncrementalSAT.create(ClauseDatabase.load(instance), Long.MAX_VALUE, oRandom, 1);
+		m_oSearchMethod = new IteratedLocalSearch(m_oProblem, oRandom, new RandomBitFlipHeuristic(oRandom),
+				BenchmarkHeuristics.create(localSearch, oRandom), intensityOfMutation, depthOfSearch);
+	}
+
+	@Benchmark
+	public int runMainLoop(EvaluationCounters oCounters) {
+
+		long lEvaluations = m_oProblem.getNumberOfEvaluationsUsed();
+		int iFitness = m_oSearchMethod.run();
+
+		oCounters.evaluations += m_oProblem.getNumberOfEvaluationsUsed() - lEvaluations;
+		return iFitness;
+	}
+}
@@ -0,0 +1,63 @@
+package com.aim.benchmarks;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import com.aim.pseudorandom.RandomWalk;
+import com.aim.sat.ClauseDatabase;
+import com.aim.sat.IncrementalSAT;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures a complete random walk with a fixed evaluation budget, including the creation of the
+ * random initial solution, taking its steps with a random bit flip or a focused random walk heuristic.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RandomWalkBenchmark {
+
+	@Param({ InstanceFamilies.UF250, InstanceFamilies.BLOCKSWORLD, InstanceFamilies.GRAPH_COLOURING, InstanceFamilies.SAT07, InstanceFamilies.SAT09 })
+	public String instance;
+
+	@Param({ "RBF", "WALKSAT", "PROBSAT" })
+	public String heuristic;
+
+	@Param({ "100000" })
+	public long evaluations;
+
+	private ClauseDatabase m_oClauses;
+
+	private Random m_oRandom;
+
+	@Setup(Level.Trial)
+	public void setup() {
+
+		m_oClauses = ClauseDatabase.load(instance);
+		m_oRandom = new Random(42L);
+	}
+
+	@Benchmark
+	public int run(EvaluationCounters oCounters) {
+
+		IncrementalSAT oProblem = IncrementalSAT.create(m_oClauses, evaluations, m_oRandom, 1);
+		new RandomWalk(oProblem, BenchmarkHeuristics.create(heuristic, m_oRandom)).run();
+
+		oCounters.evaluations += oProblem.getNumberOfEvaluationsUsed();
+		return oProblem.getBestSolutionValue();
+	}
+}
@@ -0,0 +1,151 @@
+package com.aim;
+
+import java.io.IOException;
+import java.net.URISyntaxException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileSystem;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.stream.Stream;
+
+import uk.ac.nott.cs.aim.domains.chesc2014_SAT.SAT;
+
+/**
+ * SHA-256 fingerprints of the compiled code which determines the outcome of a trial, used to tell
+ * whether a stored result could have been produced by the code now running. Each fingerprint is
+ * computed once per JVM.
+ */
+final class CodeFingerprint {
+
+	private static final String RUNNERS_PACKAGE = "com/aim/runners/";
+
+	private static String s_strAlgorithms, s_strAll;
+
+	private static boolean s_bAlgorithmsComputed = false, s_bAllComputed = false;
+
+	private CodeFingerprint() {
+
+	}
+
+	/**
+	 * @return The fingerprint of the class files of the {@code com.aim} packages other than
+	 *         {@code com.aim.runners}, and those of the framework, or null if they could not be read.
+	 */
+	static synchronized String getAlgorithms() {
+
+		if (!s_bAlgorithmsComputed) {
+
+			s_bAlgorithmsComputed = true;
+			s_strAlgorithms = compute(RUNNERS_PACKAGE);
+		}
+
+		return s_strAlgorithms;
+	}
+
+	/**
+	 * @return The fingerprint of the class files of every {@code com.aim} package, including the
+	 *         runners, and those of the framework, or null if they could not be read.
+	 */
+	static synchronized String getAll() {
+
+		if (!s_bAllComputed) {
+
+			s_bAllComputed = true;
+			s_strAll = compute(null);
+		}
+
+		return s_strAll;
+	}
+
+	private static String compute(String strExcludedPackage) {
+
+		try {
+
+			MessageDigest oDigest = sha256();
+			digestClassFiles(oDigest, CodeFingerprint.class, "com/aim/", strExcludedPackage);
+			digestClassFiles(oDigest, SAT.class, "uk/ac/nott/cs/aim/", null);
+			return HexFormat.of().formatHex(oDigest.digest());
+
+		} catch (IOException | URISyntaxException | RuntimeException e) {
+
+			System.err.println("The class files could not be read: " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * Adds the path and contents of every class file of a package and its subpackages to a digest,
+	 * from the directory or JAR file the given class was loaded from.
+	 */
+	private static void digestClassFiles(MessageDigest oDigest, Class<?> oClass, String strPackage, String strExcludedPackage)
+			throws IOException, URISyntaxException {
+
+		Path oLocation = Paths.get(oClass.getProtectionDomain().getCodeSource().getLocation().toURI());
+		if (Files.isDirectory(oLocation)) {
+
+			digestClassFiles(oDigest, oLocation, strPackage, strExcludedPackage);
+
+		} else {
+
+			try (FileSystem oJar = FileSystems.newFileSystem(oLocation)) {
+				digestClassFiles(oDigest, oJar.getPath("/"), strPackage, strExcludedPackage);
+			}
+		}
+	}
+
+	private static void digestClassFiles(MessageDigest oDigest, Path oRoot, String strPackage, String strExcludedPackage) throws IOException {
+
+		Path oPackage = oRoot.resolve(strPackage);
+		if (!Files.isDirectory(oPackage)) {
+			return;
+		}
+
+		List<Path> oClassFiles;
+		try (Stream<Path> oFiles = Files.walk(oPackage)) {
+
+			// sorted so that the fingerprint does not depend on the order the files are listed in
+			oClassFiles = oFiles.filter(p -> p.toString().endsWith(".class"))
+					.filter(p -> strExcludedPackage == null || !getRelativeName(oRoot, p).startsWith(strExcludedPackage))
+					.sorted((a, b) -> getRelativeName(oRoot, a).compareTo(getRelativeName(oRoot, b)))
+					.toList();
+		}
+
+		for (Path oClassFile : oClassFiles) {
+			oDigest.update(getRelativeName(oRoot, oClassFile).getBytes(StandardCharsets.UTF_8));
+			oDigest.update(Files.readAllBytes(oClassFile));
+		}
+	}
+
+	private static String getRelativeName(Path oRoot, Path oFile) {
+
+		return oRoot.relativize(oFile).toString().replace('\\', '/');
+	}
+
+	/**
+	 * @param strText The text to hash.
+	 * @return The SHA-256 hash of the UTF-8 encoding of the text in hexadecimal.
+	 */
+	static String sha256(String strText) {
+
+		return HexFormat.of().formatHex(sha256().digest(strText.getBytes(StandardCharsets.UTF_8)));
+	}
+
+	private static MessageDigest sha256() {
+
+		try {
+
+			return MessageDigest.getInstance("SHA-256");
+
+		} catch (NoSuchAlgorithmException e) {
+
+			// every Java platform is required to support SHA-256
+			throw new AssertionError(e);
+		}
+	}
+}
@@ -0,0 +1,251 @@
+package com.aim;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A compact record of the objective value of the solution-in-hand at every iteration of a trial.
+ * <p>
+ * Only the iterations at which the objective value changes are stored, as the number of iterations
+ * since the previous change and the difference from the previous value, each as a variable-length
+ * integer (zig-zag encoded for the difference) in a growing {@code byte[]}. Runs of equal values
+ * therefore cost nothing, and a typical change costs two or three bytes compared with an
+ * {@code Integer} and a reference per iteration in an {@code ArrayList<Integer>}.
+ * <p>
+ * The trace expands to the {@code List<Integer>} expected by {@code PlotData} with {@link #asList()}.
+ */
+public class FitnessTrace {
+
+	/**
+	 * Approximate size of an object header, and of an array header, with compressed references.
+	 */
+	private static final int OBJECT_HEADER_BYTES = 12, ARRAY_HEADER_BYTES = 16;
+
+	private byte[] m_abChanges = new byte[64];
+
+	private int m_iLength;
+
+	private int m_iSize;
+
+	private int m_iNumberOfChanges;
+
+	private int m_iLastValue;
+
+	private int m_iLastChangeIndex;
+
+	/**
+	 * Records the objective value of the next iteration.
+	 *
+	 * @param iObjectiveValue The objective value.
+	 */
+	public void add(int iObjectiveValue) {
+
+		if (m_iSize == 0 || iObjectiveValue != m_iLastValue) {
+
+			ensureCapacity(10);
+			writeVarInt(m_iSize - m_iLastChangeIndex);
+			writeVarInt(zigZag(iObjectiveValue - m_iLastValue));
+
+			m_iLastValue = iObjectiveValue;
+			m_iLastChangeIndex = m_iSize;
+			m_iNumberOfChanges++;
+		}
+
+		m_iSize++;
+	}
+
+	/**
+	 * @return The number of iterations recorded.
+	 */
+	public int size() {
+
+		return m_iSize;
+	}
+
+	/**
+	 * @return The number of iterations at which the objective value changed, including the first.
+	 */
+	public int getNumberOfChanges() {
+
+		return m_iNumberOfChanges;
+	}
+
+	/**
+	 * Gets the approximate number of bytes used by this trace.
+	 *
+	 * @return The memory footprint of the trace in bytes.
+	 */
+	public long getMemoryFootprint() {
+
+		return align(OBJECT_HEADER_BYTES + 4 + 5 * 4) + align(ARRAY_HEADER_BYTES + m_abChanges.length);
+	}
+
+	/**
+	 * Calls the consumer with the iteration index and new objective value of every change, in order.
+	 *
+	 * @param oConsumer The consumer of the changes.
+	 */
+	public void forEachChange(ChangeConsumer oConsumer) {
+
+		int iPosition = 0, iIndex = 0, iValue = 0;
+		for (int c = 0; c < m_iNumberOfChanges; c++) {
+
+			int iGap = 0, iShift = 0;
+			byte b;
+			do {
+				b = m_abChanges[iPosition++];
+				iGap |= (b & 0x7F) << iShift;
+				iShift += 7;
+			} while (b < 0);
+
+			int iDelta = 0;
+			iShift = 0;
+			do {
+				b = m_abChanges[iPosition++];
+				iDelta |= (b & 0x7F) << iShift;
+				iShift += 7;
+			} while (b < 0);
+
+			iIndex += iGap;
+			iValue += (iDelta >>> 1) ^ -(iDelta & 1);
+			oConsumer.accept(iIndex, iValue);
+		}
+	}
+
+	/**
+	 * Expands the trace into the objective value of every iteration.
+	 *
+	 * @return A new array with one element per iteration.
+	 */
+	public int[] toArray() {
+
+		int[] aiValues = new int[m_iSize];
+		int[] aiPrevious = { 0, 0 };
+		forEachChange((iIndex, iValue) -> {
+			Arrays.fill(aiValues, aiPrevious[0], iIndex, aiPrevious[1]);
+			aiPrevious[0] = iIndex;
+			aiPrevious[1] = iValue;
+		});
+
+		Arrays.fill(aiValues, aiPrevious[0], m_iSize, aiPrevious[1]);
+		return aiValues;
+	}
+
+	/**
+	 * Expands the trace into an unmodifiable list of the objective value of every iteration, e.g. for
+	 * {@code PlotData}. The values are boxed as they are read.
+	 *
+	 * @return A list with one element per iteration.
+	 */
+	public List<Integer> asList() {
+
+		int[] aiValues = toArray();
+		return new AbstractList<>() {
+
+			@Override
+			public Integer get(int iIndex) {
+
+				return aiValues[iIndex];
+			}
+
+			@Override
+			public int size() {
+
+				return aiValues.length;
+			}
+		};
+	}
+
+	/**
+	 * Creates a trace from a list of objective values, one per iteration.
+	 *
+	 * @param liValues The objective values.
+	 * @return The trace.
+	 */
+	public static FitnessTrace of(List<Integer> liValues) {
+
+		FitnessTrace oTrace = new FitnessTrace();
+		liValues.forEach(oTrace::add);
+		return oTrace;
+	}
+
+	/**
+	 * Writes the encoded changes of this trace, e.g. for the {@link ResultCache}.
+	 *
+	 * @param oOutput The output to write to.
+	 * @throws IOException If the trace could not be written.
+	 */
+	void writeTo(DataOutput oOutput) throws IOException {
+
+		oOutput.writeInt(m_iSize);
+		oOutput.writeInt(m_iNumberOfChanges);
+		oOutput.writeInt(m_iLastValue);
+		oOutput.writeInt(m_iLastChangeIndex);
+		oOutput.writeInt(m_iLength);
+		oOutput.write(m_abChanges, 0, m_iLength);
+	}
+
+	/**
+	 * Reads a trace written by {@link #writeTo(DataOutput)}.
+	 *
+	 * @param oInput The input to read from.
+	 * @return The trace.
+	 * @throws IOException If the trace could not be read.
+	 */
+	static FitnessTrace readFrom(DataInput oInput) throws IOException {
+
+		FitnessTrace oTrace = new FitnessTrace();
+		oTrace.m_iSize = oInput.readInt();
+		oTrace.m_iNumberOfChanges = oInput.readInt();
+		oTrace.m_iLastValue = oInput.readInt();
+		oTrace.m_iLastChangeIndex = oInput.readInt();
+		oTrace.m_iLength = oInput.readInt();
+		if (oTrace.m_iLength < 0 || oTrace.m_iSize < 0 || oTrace.m_iNumberOfChanges < 0) {
+			throw new IOException("Corrupt fitness trace");
+		}
+
+		oTrace.m_abChanges = new byte[Math.max(64, oTrace.m_iLength)];
+		oInput.readFully(oTrace.m_abChanges, 0, oTrace.m_iLength);
+		return oTrace;
+	}
+
+	private void ensureCapacity(int iBytes) {
+
+		if (m_iLength + iBytes > m_abChanges.length) {
+			m_abChanges = Arrays.copyOf(m_abChanges, Math.max(m_abChanges.length << 1, m_iLength + iBytes));
+		}
+	}
+
+	private void writeVarInt(int iValue) {
+
+		while ((iValue & ~0x7F) != 0) {
+			m_abChanges[m_iLength++] = (byte) ((iValue & 0x7F) | 0x80);
+			iValue >>>= 7;
+		}
+
+		m_abChanges[m_iLength++] = (byte) iValue;
+	}
+
+	private static int zigZag(int iValue) {
+
+		return (iValue << 1) ^ (iValue >> 31);
+	}
+
+	private static long align(long lBytes) {
+
+		return (lBytes + 7) & ~7L;
+	}
+
+	/**
+	 * Receives the changes of a trace.
+	 */
+	@FunctionalInterface
+	public interface ChangeConsumer {
+
+		void accept(int iIteration, int iObjectiveValue);
+	}
+}
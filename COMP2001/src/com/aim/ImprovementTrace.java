@@ -0,0 +1,302 @@
+package com.aim;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * A sparse record of the events at which a trial made progress, each stamped with the number of
+ * evaluations used and the nanoseconds elapsed since the trial started. Unlike a
+ * {@link FitnessTrace}, whose x-axis is the iteration of the runner, the evaluation stamps make the
+ * anytime behaviour of heuristics comparable even when they spend different numbers of
+ * evaluations per iteration.
+ * <p>
+ * Two kinds of event are recorded: an {@link #IMPROVEMENT} whenever the solution-in-hand is better
+ * than at the previous iteration, reported by the runner with {@link #recordCurrent(long, int)},
+ * and a {@link #NEW_BEST} whenever the best-ever solution improves, reported by the problem with
+ * {@link #recordNewBest(long, int)} at the evaluation which found it. Nothing is stored otherwise,
+ * so the cost of an iteration is a comparison, and each event is encoded as in a
+ * {@code FitnessTrace}: as the differences from the previous event in evaluations, nanoseconds and
+ * objective value, as variable-length integers in a growing {@code byte[]}.
+ */
+public class ImprovementTrace {
+
+	/**
+	 * The kind of an event at which the solution-in-hand improved.
+	 */
+	public static final int IMPROVEMENT = 0;
+
+	/**
+	 * The kind of an event at which the best-ever solution improved.
+	 */
+	public static final int NEW_BEST = 1;
+
+	/**
+	 * Approximate size of an object header, and of an array header, with compressed references.
+	 */
+	private static final int OBJECT_HEADER_BYTES = 12, ARRAY_HEADER_BYTES = 16;
+
+	private final long m_lStartTime;
+
+	private byte[] m_abEvents = new byte[64];
+
+	private int m_iLength;
+
+	private int m_iNumberOfEvents;
+
+	private long m_lLastEvaluations;
+
+	private long m_lLastTime;
+
+	private int m_iLastValue;
+
+	private int m_iLastCurrentValue = Integer.MAX_VALUE;
+
+	private int m_iBestValue = Integer.MAX_VALUE;
+
+	/**
+	 * Creates an empty trace whose events are timed from now.
+	 */
+	public ImprovementTrace() {
+
+		this.m_lStartTime = System.nanoTime();
+	}
+
+	/**
+	 * Reports the objective value of the solution-in-hand at the end of an iteration, recording an
+	 * {@link #IMPROVEMENT} if it is better than at the previous iteration. The first value reported
+	 * is recorded as the initial solution.
+	 *
+	 * @param lEvaluations The number of evaluations used so far.
+	 * @param iObjectiveValue The objective value of the solution-in-hand.
+	 */
+	public void recordCurrent(long lEvaluations, int iObjectiveValue) {
+
+		if (iObjectiveValue < m_iLastCurrentValue) {
+			addEvent(IMPROVEMENT, lEvaluations, iObjectiveValue);
+		}
+
+		m_iLastCurrentValue = iObjectiveValue;
+	}
+
+	/**
+	 * Records a {@link #NEW_BEST} event if the objective value is better than the best-ever recorded so far.
+	 *
+	 * @param lEvaluations The number of evaluations used, including the one which found the solution.
+	 * @param iObjectiveValue The objective value of the new best-ever solution.
+	 */
+	public void recordNewBest(long lEvaluations, int iObjectiveValue) {
+
+		if (iObjectiveValue < m_iBestValue) {
+
+			m_iBestValue = iObjectiveValue;
+			addEvent(NEW_BEST, lEvaluations, iObjectiveValue);
+		}
+	}
+
+	private void addEvent(int iKind, long lEvaluations, int iObjectiveValue) {
+
+		long lTime = System.nanoTime() - m_lStartTime;
+
+		ensureCapacity(30);
+		writeVarLong(Math.max(0L, lEvaluations - m_lLastEvaluations));
+		writeVarLong(Math.max(0L, lTime - m_lLastTime));
+		writeVarLong(Integer.toUnsignedLong(zigZag(iObjectiveValue - m_iLastValue)) << 1 | iKind);
+
+		m_lLastEvaluations = Math.max(m_lLastEvaluations, lEvaluations);
+		m_lLastTime = Math.max(m_lLastTime, lTime);
+		m_iLastValue = iObjectiveValue;
+		m_iNumberOfEvents++;
+	}
+
+	/**
+	 * @return The number of events recorded.
+	 */
+	public int size() {
+
+		return m_iNumberOfEvents;
+	}
+
+	/**
+	 * Gets the approximate number of bytes used by this trace.
+	 *
+	 * @return The memory footprint of the trace in bytes.
+	 */
+	public long getMemoryFootprint() {
+
+		return align(OBJECT_HEADER_BYTES + 4 + 4 * 4 + 3 * 8) + align(ARRAY_HEADER_BYTES + m_abEvents.length);
+	}
+
+	/**
+	 * Calls the consumer with every event, in order.
+	 *
+	 * @param oConsumer The consumer of the events.
+	 */
+	public void forEachEvent(EventConsumer oConsumer) {
+
+		int[] aiPosition = { 0 };
+		long lEvaluations = 0L, lTime = 0L;
+		int iValue = 0;
+		for (int e = 0; e < m_iNumberOfEvents; e++) {
+
+			lEvaluations += readVarLong(aiPosition);
+			lTime += readVarLong(aiPosition);
+			long lValueAndKind = readVarLong(aiPosition);
+			int iDelta = (int) (lValueAndKind >>> 1);
+			iValue += (iDelta >>> 1) ^ -(iDelta & 1);
+			oConsumer.accept((int) (lValueAndKind & 1), lEvaluations, lTime, iValue);
+		}
+	}
+
+	/**
+	 * Samples the objective value of the best-ever solution after each of a number of equally spaced
+	 * numbers of evaluations, giving an anytime curve which can be compared with those of other
+	 * trials and heuristics given the same budget, e.g. in {@code PlotData}. Points before the first
+	 * solution was evaluated take the value of the first solution.
+	 *
+	 * @param lMaxEvaluations The number of evaluations at the last point.
+	 * @param iNumberOfPoints The number of points, at {@code lMaxEvaluations * (i + 1) / iNumberOfPoints} evaluations.
+	 * @return An unmodifiable list of the best-ever objective value at each point.
+	 */
+	public List<Integer> sampleBestByEvaluations(long lMaxEvaluations, int iNumberOfPoints) {
+
+		int[] aiValues = new int[iNumberOfPoints];
+		int[] aiState = { 0, Integer.MAX_VALUE };
+		forEachEvent((iKind, lEvaluations, lTime, iObjectiveValue) -> {
+
+			if (iKind != NEW_BEST) {
+				return;
+			}
+
+			if (aiState[1] == Integer.MAX_VALUE) {
+				aiState[1] = iObjectiveValue;
+			}
+
+			// the points reached before this event take the best value found before it
+			while (aiState[0] < iNumberOfPoints && lMaxEvaluations * (aiState[0] + 1) / iNumberOfPoints < lEvaluations) {
+				aiValues[aiState[0]++] = aiState[1];
+			}
+
+			aiState[1] = iObjectiveValue;
+		});
+
+		Arrays.fill(aiValues, aiState[0], iNumberOfPoints, aiState[1]);
+		return new AbstractList<>() {
+
+			@Override
+			public Integer get(int iIndex) {
+
+				return aiValues[iIndex];
+			}
+
+			@Override
+			public int size() {
+
+				return aiValues.length;
+			}
+		};
+	}
+
+	/**
+	 * Writes the encoded events of this trace, e.g. for the {@link ResultCache}.
+	 *
+	 * @param oOutput The output to write to.
+	 * @throws IOException If the trace could not be written.
+	 */
+	void writeTo(DataOutput oOutput) throws IOException {
+
+		oOutput.writeInt(m_iNumberOfEvents);
+		oOutput.writeLong(m_lLastEvaluations);
+		oOutput.writeLong(m_lLastTime);
+		oOutput.writeInt(m_iLastValue);
+		oOutput.writeInt(m_iLastCurrentValue);
+		oOutput.writeInt(m_iBestValue);
+		oOutput.writeInt(m_iLength);
+		oOutput.write(m_abEvents, 0, m_iLength);
+	}
+
+	/**
+	 * Reads a trace written by {@link #writeTo(DataOutput)}.
+	 *
+	 * @param oInput The input to read from.
+	 * @return The trace.
+	 * @throws IOException If the trace could not be read.
+	 */
+	static ImprovementTrace readFrom(DataInput oInput) throws IOException {
+
+		ImprovementTrace oTrace = new ImprovementTrace();
+		oTrace.m_iNumberOfEvents = oInput.readInt();
+		oTrace.m_lLastEvaluations = oInput.readLong();
+		oTrace.m_lLastTime = oInput.readLong();
+		oTrace.m_iLastValue = oInput.readInt();
+		oTrace.m_iLastCurrentValue = oInput.readInt();
+		oTrace.m_iBestValue = oInput.readInt();
+		oTrace.m_iLength = oInput.readInt();
+		if (oTrace.m_iLength < 0 || oTrace.m_iNumberOfEvents < 0) {
+			throw new IOException("Corrupt improvement trace");
+		}
+
+		oTrace.m_abEvents = new byte[Math.max(64, oTrace.m_iLength)];
+		oInput.readFully(oTrace.m_abEvents, 0, oTrace.m_iLength);
+		return oTrace;
+	}
+
+	private void ensureCapacity(int iBytes) {
+
+		if (m_iLength + iBytes > m_abEvents.length) {
+			m_abEvents = Arrays.copyOf(m_abEvents, Math.max(m_abEvents.length << 1, m_iLength + iBytes));
+		}
+	}
+
+	private void writeVarLong(long lValue) {
+
+		while ((lValue & ~0x7FL) != 0L) {
+			m_abEvents[m_iLength++] = (byte) ((lValue & 0x7F) | 0x80);
+			lValue >>>= 7;
+		}
+
+		m_abEvents[m_iLength++] = (byte) lValue;
+	}
+
+	private long readVarLong(int[] aiPosition) {
+
+		long lValue = 0L;
+		int iShift = 0;
+		byte b;
+		do {
+			b = m_abEvents[aiPosition[0]++];
+			lValue |= (long) (b & 0x7F) << iShift;
+			iShift += 7;
+		} while (b < 0);
+
+		return lValue;
+	}
+
+	private static int zigZag(int iValue) {
+
+		return (iValue << 1) ^ (iValue >> 31);
+	}
+
+	private static long align(long lBytes) {
+
+		return (lBytes + 7) & ~7L;
+	}
+
+	/**
+	 * Receives the events of a trace.
+	 */
+	@FunctionalInterface
+	public interface EventConsumer {
+
+		/**
+		 * @param iKind {@link #IMPROVEMENT} or {@link #NEW_BEST}.
+		 * @param lEvaluations The number of evaluations used at the event.
+		 * @param lElapsedTime The nanoseconds elapsed from the start of the trial to the event.
+		 * @param iObjectiveValue The objective value of the improved solution.
+		 */
+		void accept(int iKind, long lEvaluations, long lElapsedTime, int iObjectiveValue);
+	}
+}
@@ -0,0 +1,162 @@
+package com.aim;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.aim.sat.IncrementalSAT;
+import uk.ac.nott.cs.aim.satheuristics.SATHeuristic;
+
+/**
+ * Counts where the evaluation budget of the trials goes: the {@code bitFlip}, {@code copySolution}
+ * and {@code getObjectiveFunctionValue} calls made while each heuristic is applied, how many of the
+ * evaluations were charged, how often a new best-ever solution was copied, and the time spent in
+ * each heuristic.
+ * <p>
+ * Instrumentation is enabled by setting the system property {@value #ENABLED_PROPERTY} to
+ * {@code true}. When it is disabled, which it is by default, {@link #instrument(SATHeuristic)}
+ * returns the heuristic itself and {@link #attach(IncrementalSAT)} does nothing, so the problem
+ * only tests that it has no counters and the cost is negligible. When it is enabled, each problem
+ * counts into its own {@link OperationCounters}, which are attached to the {@link RunData} of the
+ * trial, and the counters of all completed trials are summed into {@link LongAdder}s, which are
+ * striped so that the trials of concurrent workers do not contend.
+ */
+public final class Instrumentation {
+
+	public static final String ENABLED_PROPERTY = "com.aim.instrumentation.enabled";
+
+	/**
+	 * Whether instrumentation is enabled; constant for the life of the JVM.
+	 */
+	public static final boolean ENABLED = Boolean.getBoolean(ENABLED_PROPERTY);
+
+	/**
+	 * The ID to which operations performed outside of any instrumented heuristic are attributed.
+	 */
+	public static final int SEARCH_METHOD = 0;
+
+	private static final List<String> s_oNames = new CopyOnWriteArrayList<>();
+
+	private static final Map<String, Integer> s_oIds = new ConcurrentHashMap<>();
+
+	// the counters of every completed trial summed by heuristic ID
+	private static final Map<Integer, LongAdder[]> s_oTotals = new ConcurrentHashMap<>();
+
+	static {
+		register("Search method");
+	}
+
+	private Instrumentation() {
+
+	}
+
+	/**
+	 * Gets the ID of a heuristic under which its operations are counted, registering it the first
+	 * time its name is seen. Heuristics with the same name share an ID.
+	 *
+	 * @param strHeuristicName The name of the heuristic.
+	 * @return The ID.
+	 */
+	static synchronized int register(String strHeuristicName) {
+
+		return s_oIds.computeIfAbsent(strHeuristicName, strName -> {
+			s_oNames.add(strName);
+			return s_oNames.size() - 1;
+		});
+	}
+
+	static String getHeuristicName(int iHeuristic) {
+
+		return s_oNames.get(iHeuristic);
+	}
+
+	/**
+	 * Wraps a heuristic so that its applications are timed and the operations they perform are
+	 * attributed to it, if instrumentation is enabled.
+	 *
+	 * @param oHeuristic The heuristic.
+	 * @return The instrumented heuristic, or the heuristic itself if instrumentation is disabled.
+	 */
+	public static SATHeuristic instrument(SATHeuristic oHeuristic) {
+
+		return ENABLED && !(oHeuristic instanceof InstrumentedHeuristic) ? new InstrumentedHeuristic(oHeuristic) : oHeuristic;
+	}
+
+	/**
+	 * Makes a problem count its operations into new counters, if instrumentation is enabled.
+	 *
+	 * @param oProblem The problem of a trial.
+	 */
+	public static void attach(IncrementalSAT oProblem) {
+
+		if (ENABLED) {
+			oProblem.setOperationCounters(new OperationCounters());
+		}
+	}
+
+	/**
+	 * Adds the counters of a completed trial to the totals of this JVM.
+	 *
+	 * @param oCounters The counters of the trial, or null if it was not instrumented.
+	 */
+	public static void record(OperationCounters oCounters) {
+
+		if (oCounters == null) {
+			return;
+		}
+
+		for (int h = 0; h < oCounters.getNumberOfHeuristics(); h++) {
+
+			LongAdder[] aoTotals = s_oTotals.computeIfAbsent(h, i -> {
+				LongAdder[] aoAdders = new LongAdder[OperationCounters.NUMBER_OF_COUNTERS];
+				for (int c = 0; c < aoAdders.length; c++) {
+					aoAdders[c] = new LongAdder();
+				}
+
+				return aoAdders;
+			});
+
+			for (int c = 0; c < OperationCounters.NUMBER_OF_COUNTERS; c++) {
+				aoTotals[c].add(oCounters.get(h, c));
+			}
+		}
+	}
+
+	/**
+	 * @return A summary of the counters of every trial recorded by this JVM, one line per heuristic.
+	 */
+	public static String getStatistics() {
+
+		StringBuilder oBuilder = new StringBuilder("Instrumentation:");
+		for (int h = 0; h < s_oNames.size(); h++) {
+
+			LongAdder[] aoTotals = s_oTotals.get(h);
+			if (aoTotals != null) {
+
+				long[] alCounts = new long[aoTotals.length];
+				for (int c = 0; c < alCounts.length; c++) {
+					alCounts[c] = aoTotals[c].sum();
+				}
+
+				appendCounts(oBuilder.append(System.lineSeparator()), getHeuristicName(h), alCounts);
+			}
+		}
+
+		return oBuilder.toString();
+	}
+
+	static void appendCounts(StringBuilder oBuilder, String strHeuristicName, long[] alCounts) {
+
+		oBuilder.append(strHeuristicName).append(':');
+		for (int c = 0; c < alCounts.length; c++) {
+			oBuilder.append(c == 0 ? " " : ", ").append(alCounts[c]).append(' ').append(OperationCounters.COUNTER_NAMES[c]);
+		}
+
+		long lCalls = alCounts[OperationCounters.OBJECTIVE_FUNCTION_CALLS];
+		if (lCalls > 0) {
+			oBuilder.append(String.format(" (%.1f%% of calls charged)", 100.0d * alCounts[OperationCounters.CHARGED_EVALUATIONS] / lCalls));
+		}
+	}
+}
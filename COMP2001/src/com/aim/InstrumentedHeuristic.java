@@ -0,0 +1,82 @@
+package com.aim;
+
+import com.aim.sat.IncrementalSAT;
+import uk.ac.nott.cs.aim.domains.chesc2014_SAT.SAT;
+import uk.ac.nott.cs.aim.satheuristics.SATHeuristic;
+
+/**
+ * Applies a heuristic, timing each application and attributing the operations it performs on the
+ * problem to it in the {@link OperationCounters} of the problem. Created by
+ * {@link Instrumentation#instrument(SATHeuristic)}; a problem without counters is passed straight
+ * to the heuristic.
+ */
+final class InstrumentedHeuristic extends SATHeuristic {
+
+	private final SATHeuristic m_oHeuristic;
+
+	private final int m_iId;
+
+	InstrumentedHeuristic(SATHeuristic oHeuristic) {
+
+		super(null);
+
+		this.m_oHeuristic = oHeuristic;
+		this.m_iId = Instrumentation.register(oHeuristic.getHeuristicName());
+	}
+
+	@Override
+	public void applyHeuristic(SAT oProblem) {
+
+		OperationCounters oCounters = oProblem instanceof IncrementalSAT oIncrementalProblem ? oIncrementalProblem.getOperationCounters() : null;
+		if (oCounters == null) {
+
+			m_oHeuristic.applyHeuristic(oProblem);
+			return;
+		}
+
+		int iPrevious = oCounters.enter(m_iId);
+		long lStartTime = System.nanoTime();
+		try {
+
+			m_oHeuristic.applyHeuristic(oProblem);
+
+		} finally {
+
+			oCounters.exit(m_iId, iPrevious, System.nanoTime() - lStartTime);
+		}
+	}
+
+	@Override
+	public void applyHeuristic(SAT oProblem, int iSolutionIndex) {
+
+		OperationCounters oCounters = oProblem instanceof IncrementalSAT oIncrementalProblem ? oIncrementalProblem.getOperationCounters() : null;
+		if (oCounters == null) {
+
+			m_oHeuristic.applyHeuristic(oProblem, iSolutionIndex);
+			return;
+		}
+
+		int iPrevious = oCounters.enter(m_iId);
+		long lStartTime = System.nanoTime();
+		try {
+
+			m_oHeuristic.applyHeuristic(oProblem, iSolutionIndex);
+
+		} finally {
+
+			oCounters.exit(m_iId, iPrevious, System.nanoTime() - lStartTime);
+		}
+	}
+
+	@Override
+	public String getHeuristicName() {
+
+		return m_oHeuristic.getHeuristicName();
+	}
+
+	@Override
+	public String toString() {
+
+		return m_oHeuristic.toString();
+	}
+}
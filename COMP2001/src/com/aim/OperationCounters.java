@@ -0,0 +1,234 @@
+package com.aim;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Counts the operations a trial performs on its problem, attributed to the heuristic which was
+ * being applied at the time, together with the number of applications of each heuristic and the
+ * nanoseconds spent in them. Operations performed outside of any {@link InstrumentedHeuristic},
+ * e.g. by the search method itself, are attributed to {@link Instrumentation#SEARCH_METHOD}.
+ * <p>
+ * A set of counters belongs to a single problem, and therefore to the single thread running it, so
+ * the counts are plain {@code long}s; the counters of forks running on other threads are separate
+ * and added when the forks are joined, and the counters of whole trials are summed across threads
+ * by {@link Instrumentation#record(OperationCounters)}.
+ */
+public final class OperationCounters {
+
+	/**
+	 * Calls of {@code bitFlip}.
+	 */
+	public static final int BIT_FLIPS = 0;
+
+	/**
+	 * Calls of {@code copySolution}.
+	 */
+	public static final int SOLUTION_COPIES = 1;
+
+	/**
+	 * Calls of {@code getObjectiveFunctionValue}.
+	 */
+	public static final int OBJECTIVE_FUNCTION_CALLS = 2;
+
+	/**
+	 * Calls of {@code getObjectiveFunctionValue} which were charged as an evaluation.
+	 */
+	public static final int CHARGED_EVALUATIONS = 3;
+
+	/**
+	 * Copies of a solution into the best-ever solution because it improved on it.
+	 */
+	public static final int NEW_BEST_COPIES = 4;
+
+	/**
+	 * Applications of the heuristic.
+	 */
+	public static final int APPLICATIONS = 5;
+
+	/**
+	 * Nanoseconds spent applying the heuristic, including any heuristics it applies itself.
+	 */
+	public static final int NANOSECONDS = 6;
+
+	static final String[] COUNTER_NAMES = { "bit flips", "solution copies", "objective function calls", "charged evaluations",
+			"new best copies", "applications", "nanoseconds" };
+
+	static final int NUMBER_OF_COUNTERS = COUNTER_NAMES.length;
+
+	// the counts of each heuristic by the ID given by Instrumentation.register
+	private long[][] m_aalCounts = new long[1][NUMBER_OF_COUNTERS];
+
+	private int m_iActiveHeuristic = Instrumentation.SEARCH_METHOD;
+
+	/**
+	 * Counts an operation of the heuristic being applied.
+	 *
+	 * @param iCounter One of the operation counters, e.g. {@link #BIT_FLIPS}.
+	 */
+	public void count(int iCounter) {
+
+		m_aalCounts[m_iActiveHeuristic][iCounter]++;
+	}
+
+	/**
+	 * Attributes the following operations to a heuristic until {@link #exit(int, int, long)} is called.
+	 *
+	 * @param iHeuristic The ID of the heuristic.
+	 * @return The ID of the heuristic which was being applied, to be passed to {@code exit}.
+	 */
+	int enter(int iHeuristic) {
+
+		ensureCapacity(iHeuristic);
+
+		int iPrevious = m_iActiveHeuristic;
+		m_iActiveHeuristic = iHeuristic;
+		return iPrevious;
+	}
+
+	/**
+	 * Counts an application of a heuristic and attributes the following operations to the heuristic
+	 * which was being applied before it.
+	 *
+	 * @param iHeuristic The ID of the heuristic.
+	 * @param iPrevious The ID returned by {@link #enter(int)}.
+	 * @param lNanoseconds The time taken by the application.
+	 */
+	void exit(int iHeuristic, int iPrevious, long lNanoseconds) {
+
+		m_aalCounts[iHeuristic][APPLICATIONS]++;
+		m_aalCounts[iHeuristic][NANOSECONDS] += lNanoseconds;
+		m_iActiveHeuristic = iPrevious;
+	}
+
+	/**
+	 * @param iHeuristic The ID of a heuristic.
+	 * @param iCounter One of the counters, e.g. {@link #BIT_FLIPS}.
+	 * @return The count of the heuristic.
+	 */
+	public long get(int iHeuristic, int iCounter) {
+
+		return iHeuristic < m_aalCounts.length ? m_aalCounts[iHeuristic][iCounter] : 0L;
+	}
+
+	/**
+	 * @param iCounter One of the counters, e.g. {@link #CHARGED_EVALUATIONS}.
+	 * @return The count summed over all heuristics.
+	 */
+	public long getTotal(int iCounter) {
+
+		long lTotal = 0L;
+		for (long[] alCounts : m_aalCounts) {
+			lTotal += alCounts[iCounter];
+		}
+
+		return lTotal;
+	}
+
+	/**
+	 * @return One more than the largest ID of a heuristic with counts.
+	 */
+	int getNumberOfHeuristics() {
+
+		return m_aalCounts.length;
+	}
+
+	/**
+	 * Adds the counts of another set of counters, e.g. of a fork, to these and clears them.
+	 *
+	 * @param oOther The counters to transfer.
+	 */
+	public void transferFrom(OperationCounters oOther) {
+
+		ensureCapacity(oOther.m_aalCounts.length - 1);
+		for (int h = 0; h < oOther.m_aalCounts.length; h++) {
+			for (int c = 0; c < NUMBER_OF_COUNTERS; c++) {
+				m_aalCounts[h][c] += oOther.m_aalCounts[h][c];
+			}
+
+			Arrays.fill(oOther.m_aalCounts[h], 0L);
+		}
+	}
+
+	private void ensureCapacity(int iHeuristic) {
+
+		if (iHeuristic >= m_aalCounts.length) {
+
+			int iOldLength = m_aalCounts.length;
+			m_aalCounts = Arrays.copyOf(m_aalCounts, iHeuristic + 1);
+			for (int h = iOldLength; h < m_aalCounts.length; h++) {
+				m_aalCounts[h] = new long[NUMBER_OF_COUNTERS];
+			}
+		}
+	}
+
+	/**
+	 * Writes the counts of every heuristic with any, by the name of the heuristic so that they can be
+	 * read by another JVM, e.g. for the {@link ResultCache}.
+	 *
+	 * @param oOutput The output to write to.
+	 * @throws IOException If the counters could not be written.
+	 */
+	void writeTo(DataOutput oOutput) throws IOException {
+
+		int iHeuristics = 0;
+		for (long[] alCounts : m_aalCounts) {
+			if (Arrays.stream(alCounts).anyMatch(l -> l != 0L)) {
+				iHeuristics++;
+			}
+		}
+
+		oOutput.writeInt(iHeuristics);
+		for (int h = 0; h < m_aalCounts.length; h++) {
+			if (Arrays.stream(m_aalCounts[h]).anyMatch(l -> l != 0L)) {
+
+				oOutput.writeUTF(Instrumentation.getHeuristicName(h));
+				for (long lCount : m_aalCounts[h]) {
+					oOutput.writeLong(lCount);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Reads counters written by {@link #writeTo(DataOutput)}.
+	 *
+	 * @param oInput The input to read from.
+	 * @return The counters.
+	 * @throws IOException If the counters could not be read.
+	 */
+	static OperationCounters readFrom(DataInput oInput) throws IOException {
+
+		int iHeuristics = oInput.readInt();
+		if (iHeuristics < 0) {
+			throw new IOException("Corrupt operation counters");
+		}
+
+		OperationCounters oCounters = new OperationCounters();
+		for (int i = 0; i < iHeuristics; i++) {
+
+			int iHeuristic = Instrumentation.register(oInput.readUTF());
+			oCounters.ensureCapacity(iHeuristic);
+			for (int c = 0; c < NUMBER_OF_COUNTERS; c++) {
+				oCounters.m_aalCounts[iHeuristic][c] = oInput.readLong();
+			}
+		}
+
+		return oCounters;
+	}
+
+	@Override
+	public String toString() {
+
+		StringBuilder oBuilder = new StringBuilder();
+		for (int h = 0; h < m_aalCounts.length; h++) {
+			if (Arrays.stream(m_aalCounts[h]).anyMatch(l -> l != 0L)) {
+				Instrumentation.appendCounts(oBuilder.append(oBuilder.isEmpty() ? "" : "; "), Instrumentation.getHeuristicName(h), m_aalCounts[h]);
+			}
+		}
+
+		return oBuilder.toString();
+	}
+}
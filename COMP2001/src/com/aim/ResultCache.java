@@ -0,0 +1,278 @@
+package com.aim;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import com.aim.sat.SATInstances;
+
+/**
+ * An on-disk cache of the {@link RunData} of completed trials, so that re-running an experiment,
+ * e.g. after changing how its results are plotted, does not repeat trials whose outcome cannot
+ * have changed.
+ * <p>
+ * Each result is stored in its own file named by the SHA-256 hash of its key, which is made up of
+ * the instance, the run time, the target objective value, whether {@link Instrumentation} is enabled,
+ * so that instrumented runs are never served results without operation counters, a description of
+ * the heuristic and its parameters given by the {@link TestFrame}, the heuristic ID, the seed of the trial, and a fingerprint of the code: the
+ * class files of the {@code com.aim} packages other than {@code com.aim.runners}, and those of
+ * the framework. The runners are left out so that changes to the experiments' plotting and
+ * reporting do not invalidate their results; the trial description must therefore name anything a
+ * runner decides itself, such as which heuristic it applies.
+ * <p>
+ * The cache directory is given by the system property {@value #DIRECTORY_PROPERTY}, and is
+ * {@value #DEFAULT_DIRECTORY} by default; setting {@value #ENABLED_PROPERTY} to {@code false}
+ * disables the cache. Entries are never removed automatically: they are invalidated explicitly by
+ * {@link #clear()}, or by running this class with the argument {@code clear}. An entry which cannot
+ * be read is ignored and the trial is run again.
+ */
+public final class ResultCache {
+
+	public static final String DIRECTORY_PROPERTY = "com.aim.resultCache.directory";
+
+	public static final String DEFAULT_DIRECTORY = "result-cache";
+
+	public static final String ENABLED_PROPERTY = "com.aim.resultCache.enabled";
+
+	/**
+	 * "AIMRUNDT" in ASCII, the first 8 bytes of every entry.
+	 */
+	private static final long MAGIC = 0x4149_4D52_554E_4454L;
+
+	/**
+	 * The version of the format of the entries, which is part of every key so that entries of an
+	 * older format are never read.
+	 */
+	private static final int FORMAT_VERSION = 5;
+
+	private static final String ENTRY_EXTENSION = ".run";
+
+	private static final AtomicLong s_lHits = new AtomicLong(), s_lMisses = new AtomicLong(), s_lStores = new AtomicLong();
+
+	private ResultCache() {
+
+	}
+
+	/**
+	 * @return Whether the cache is enabled and the fingerprint of the code could be computed.
+	 */
+	public static boolean isEnabled() {
+
+		return Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true")) && getCodeFingerprint() != null;
+	}
+
+	/**
+	 * @return The directory holding the cached results.
+	 */
+	public static Path getDirectory() {
+
+		return Paths.get(System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY));
+	}
+
+	/**
+	 * Creates the key of the result of a trial.
+	 *
+	 * @param oConfiguration The configuration of the experiment.
+	 * @param strTrialDescription Describes the heuristic and parameters of the trial.
+	 * @param iHeuristicId The ID of the heuristic under test.
+	 * @param lSeed The seed of the trial.
+	 * @return The key.
+	 */
+	static String getKey(TestFrameConfig oConfiguration, String strTrialDescription, int iHeuristicId, long lSeed) {
+
+		return "format " + FORMAT_VERSION
+				+ "\ninstance " + oConfiguration.getInstanceId() + " " + SATInstances.getInstancePath(oConfiguration.getInstanceId())
+				+ "\nrun time " + oConfiguration.getRunTime()
+				+ "\ntarget " + oConfiguration.getTargetObjectiveValue()
+				+ "\ninstrumented " + Instrumentation.ENABLED
+				+ "\ntrial " + strTrialDescription
+				+ "\nheuristic " + iHeuristicId
+				+ "\nseed " + lSeed
+				+ "\ncode " + getCodeFingerprint() + "\n";
+	}
+
+	/**
+	 * Loads the cached result of a trial.
+	 *
+	 * @param strKey The key of the result.
+	 * @param iHeuristicId The ID of the heuristic under test.
+	 * @param iTrialId The ID of the trial.
+	 * @return The result, or null if it is not cached or could not be read.
+	 */
+	static RunData load(String strKey, int iHeuristicId, int iTrialId) {
+
+		Path oEntry = getEntryPath(strKey);
+		if (!Files.isRegularFile(oEntry)) {
+
+			s_lMisses.incrementAndGet();
+			return null;
+		}
+
+		try {
+
+			byte[] abEntry = Files.readAllBytes(oEntry);
+			if (abEntry.length < Long.BYTES + Integer.BYTES) {
+				throw new IOException("truncated entry");
+			}
+
+			CRC32 oCrc = new CRC32();
+			oCrc.update(abEntry, 0, abEntry.length - Integer.BYTES);
+			DataInputStream oInput = new DataInputStream(new ByteArrayInputStream(abEntry));
+			if (oInput.readLong() != MAGIC) {
+				throw new IOException("not a cached result");
+			}
+
+			oInput.skipNBytes(abEntry.length - Long.BYTES - Integer.BYTES);
+			if (oInput.readInt() != (int) oCrc.getValue()) {
+				throw new IOException("checksum mismatch");
+			}
+
+			oInput = new DataInputStream(new ByteArrayInputStream(abEntry, Long.BYTES, abEntry.length - Long.BYTES - Integer.BYTES));
+			if (!oInput.readUTF().equals(strKey)) {
+				throw new IOException("key mismatch");
+			}
+
+			RunData oRunData = RunData.readFrom(oInput, iHeuristicId, iTrialId);
+			s_lHits.incrementAndGet();
+			return oRunData;
+
+		} catch (IOException e) {
+
+			System.err.println("Ignoring cached result " + oEntry + ": " + e.getMessage());
+			s_lMisses.incrementAndGet();
+			return null;
+		}
+	}
+
+	/**
+	 * Stores the result of a trial. The entry is written to a temporary file and moved into place,
+	 * so a concurrent or interrupted run never sees a partial entry. A result which cannot be stored
+	 * is reported and otherwise ignored.
+	 *
+	 * @param strKey The key of the result.
+	 * @param oRunData The result.
+	 */
+	static void store(String strKey, RunData oRunData) {
+
+		Path oEntry = getEntryPath(strKey);
+		try {
+
+			ByteArrayOutputStream oBytes = new ByteArrayOutputStream();
+			DataOutputStream oOutput = new DataOutputStream(oBytes);
+			oOutput.writeLong(MAGIC);
+			oOutput.writeUTF(strKey);
+			oRunData.writeTo(oOutput);
+
+			CRC32 oCrc = new CRC32();
+			oCrc.update(oBytes.toByteArray());
+			oOutput.writeInt((int) oCrc.getValue());
+			oOutput.flush();
+
+			Files.createDirectories(oEntry.getParent());
+			Path oTemporary = Files.createTempFile(oEntry.getParent(), oEntry.getFileName().toString(), ".tmp");
+			try {
+
+				Files.write(oTemporary, oBytes.toByteArray());
+				Files.move(oTemporary, oEntry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+				s_lStores.incrementAndGet();
+
+			} finally {
+
+				Files.deleteIfExists(oTemporary);
+			}
+
+		} catch (IOException e) {
+
+			System.err.println("Could not cache result at " + oEntry + ": " + e.getMessage());
+		}
+	}
+
+	private static Path getEntryPath(String strKey) {
+
+		return getDirectory().resolve(CodeFingerprint.sha256(strKey) + ENTRY_EXTENSION);
+	}
+
+	/**
+	 * Removes every cached result.
+	 *
+	 * @return The number of results removed.
+	 * @throws IOException If the cache directory could not be read or an entry could not be deleted.
+	 */
+	public static int clear() throws IOException {
+
+		Path oDirectory = getDirectory();
+		if (!Files.isDirectory(oDirectory)) {
+			return 0;
+		}
+
+		int iRemoved = 0;
+		try (Stream<Path> oEntries = Files.list(oDirectory)) {
+
+			for (Path oEntry : oEntries.filter(p -> p.getFileName().toString().contains(ENTRY_EXTENSION)).toList()) {
+				if (Files.deleteIfExists(oEntry) && oEntry.getFileName().toString().endsWith(ENTRY_EXTENSION)) {
+					iRemoved++;
+				}
+			}
+		}
+
+		return iRemoved;
+	}
+
+	/**
+	 * @return The fingerprint of the class files which determine the outcome of a trial: those of the
+	 *         {@code com.aim} packages other than the runners, and those of the framework, or null if
+	 *         they could not be read.
+	 */
+	static String getCodeFingerprint() {
+
+		return CodeFingerprint.getAlgorithms();
+	}
+
+	public static long getHits() {
+
+		return s_lHits.get();
+	}
+
+	public static long getMisses() {
+
+		return s_lMisses.get();
+	}
+
+	/**
+	 * @return A summary of the cache hits and misses of this JVM.
+	 */
+	public static String getStatistics() {
+
+		long lHits = getHits(), lMisses = getMisses();
+		return String.format("Result cache: %d hits, %d misses (%.1f%% hit rate), %d results stored in %s",
+				lHits, lMisses, lHits + lMisses == 0 ? 0.0d : 100.0d * lHits / (lHits + lMisses), s_lStores.get(), getDirectory());
+	}
+
+	public static void main(String[] args) {
+
+		if (args.length != 1 || !args[0].equals("clear")) {
+
+			System.err.println("Usage: ResultCache clear");
+			System.exit(0);
+		}
+
+		try {
+
+			System.out.printf("Removed %d cached results from %s%n", clear(), getDirectory());
+
+		} catch (IOException e) {
+
+			System.err.println("Could not clear " + getDirectory() + ": " + e.getMessage());
+			System.exit(0);
+		}
+	}
+}
@@ -0,0 +1,202 @@
+package com.aim;
+
+import java.io.PrintStream;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Supplier;
+
+/**
+ * Logs the results of trials without making the trial threads format the output or contend for the
+ * lock of the output stream. A trial hands a small record to a lock-free queue; a single consumer
+ * thread formats all queued records and writes them to the stream as one batch.
+ * <p>
+ * The best solution is passed as a {@link Supplier} so that it is only turned into a string, on the
+ * consumer thread, if the verbosity includes it.
+ */
+public final class ResultLogger {
+
+	/**
+	 * The amount of detail that is logged for each trial.
+	 */
+	public enum Verbosity {
+
+		/**
+		 * Nothing is logged.
+		 */
+		SILENT,
+
+		/**
+		 * The method name, run ID and best solution value are logged.
+		 */
+		SUMMARY,
+
+		/**
+		 * As {@link #SUMMARY}, followed by the best solution as a string.
+		 */
+		FULL
+	}
+
+	private static final String NEW_LINE = System.lineSeparator();
+
+	/**
+	 * How often {@link #flush()} checks that the consumer thread is still alive.
+	 */
+	private static final long FLUSH_POLL_MILLIS = 100L;
+
+	private final PrintStream m_oOutput;
+
+	private final Verbosity m_eVerbosity;
+
+	private final ConcurrentLinkedQueue<Record> m_oQueue = new ConcurrentLinkedQueue<>();
+
+	private final AtomicLong m_lSubmitted = new AtomicLong();
+
+	private long m_lWritten;
+
+	private final Thread m_oConsumer;
+
+	private ResultLogger(PrintStream oOutput, Verbosity eVerbosity) {
+
+		this.m_oOutput = oOutput;
+		this.m_eVerbosity = eVerbosity;
+		this.m_oConsumer = new Thread(this::writeRecords, "result-logger");
+		this.m_oConsumer.setDaemon(true);
+	}
+
+	/**
+	 * Creates a logger and starts its consumer thread.
+	 *
+	 * @param oOutput The stream to write the records to.
+	 * @param eVerbosity The amount of detail to log.
+	 * @return The logger.
+	 */
+	public static ResultLogger start(PrintStream oOutput, Verbosity eVerbosity) {
+
+		ResultLogger oLogger = new ResultLogger(oOutput, eVerbosity);
+		oLogger.m_oConsumer.start();
+
+		// records still queued when the program ends are written before it exits
+		Runtime.getRuntime().addShutdownHook(new Thread(oLogger::flush));
+		return oLogger;
+	}
+
+	public Verbosity getVerbosity() {
+
+		return m_eVerbosity;
+	}
+
+	/**
+	 * Queues the result of a trial to be logged.
+	 *
+	 * @param strMethodName The name of the AI heuristic search method being logged.
+	 * @param iRunId The ID of the specific run or trial of the heuristic method.
+	 * @param dBestSolutionValue The best solution value obtained during the execution.
+	 * @param oSolution Supplies the string representation of the best solution, only called at {@link Verbosity#FULL}.
+	 */
+	public void log(String strMethodName, int iRunId, double dBestSolutionValue, Supplier<String> oSolution) {
+
+		if (m_eVerbosity == Verbosity.SILENT) {
+			return;
+		}
+
+		m_lSubmitted.incrementAndGet();
+		m_oQueue.offer(new Record(strMethodName, iRunId, dBestSolutionValue, m_eVerbosity == Verbosity.FULL ? oSolution : null));
+		LockSupport.unpark(m_oConsumer);
+	}
+
+	/**
+	 * Waits until all records queued before this call have been written, or until the consumer thread
+	 * has died, in which case they never will be.
+	 */
+	public synchronized void flush() {
+
+		long lTarget = m_lSubmitted.get();
+		boolean bInterrupted = false;
+		while (m_lWritten < lTarget && m_oConsumer.isAlive()) {
+			try {
+				wait(FLUSH_POLL_MILLIS);
+			} catch (InterruptedException e) {
+				bInterrupted = true;
+			}
+		}
+
+		if (bInterrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * The body of the consumer thread; formats and writes whatever has been queued, then parks until
+	 * more records arrive.
+	 */
+	private void writeRecords() {
+
+		StringBuilder oBatch = new StringBuilder();
+		while (true) {
+
+			Record oRecord = m_oQueue.poll();
+			if (oRecord == null) {
+				LockSupport.park(this);
+				continue;
+			}
+
+			int iRecords = 0;
+			do {
+
+				// a record whose solution cannot be supplied is still counted, so flush() returns
+				int iLength = oBatch.length();
+				try {
+					format(oRecord, oBatch);
+				} catch (Throwable t) {
+					oBatch.setLength(iLength);
+					oBatch.append("Could not log run ").append(oRecord.m_iRunId).append(" of ").append(oRecord.m_strMethodName)
+							.append(": ").append(t).append(NEW_LINE).append(NEW_LINE);
+				}
+
+				iRecords++;
+			} while ((oRecord = m_oQueue.poll()) != null);
+
+			m_oOutput.print(oBatch);
+			m_oOutput.flush();
+			oBatch.setLength(0);
+
+			synchronized (this) {
+				m_lWritten += iRecords;
+				notifyAll();
+			}
+		}
+	}
+
+	private void format(Record oRecord, StringBuilder oBuilder) {
+
+		oBuilder.append("Heuristic: ").append(oRecord.m_strMethodName).append(NEW_LINE)
+				.append("Run ID: ").append(oRecord.m_iRunId).append(NEW_LINE)
+				.append("Best Solution Value: ").append(oRecord.m_dBestSolutionValue).append(NEW_LINE);
+
+		if (oRecord.m_oSolution != null) {
+			oBuilder.append("Best Solution: ").append(oRecord.m_oSolution.get()).append(NEW_LINE);
+		}
+
+		oBuilder.append(NEW_LINE);
+	}
+
+	private static final class Record {
+
+		private final String m_strMethodName;
+
+		private final int m_iRunId;
+
+		private final double m_dBestSolutionValue;
+
+		private final Supplier<String> m_oSolution;
+
+		private Record(String strMethodName, int iRunId, double dBestSolutionValue, Supplier<String> oSolution) {
+
+			this.m_strMethodName = strMethodName;
+			this.m_iRunId = iRunId;
+			this.m_dBestSolutionValue = dBestSolutionValue;
+			this.m_oSolution = oSolution;
+		}
+	}
+}
@@ -0,0 +1,298 @@
+package com.aim;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An append-only sink for the rows of a results file. Any number of threads can submit rows without
+ * blocking; a single writer thread drains the submitted rows in batches and appends each batch to the
+ * file with one write to a {@link FileChannel}, so the cost of saving a row does not depend on the
+ * size of the file and rows from concurrent trials are never interleaved or lost.
+ * <p>
+ * The header is written only if the file is empty. Written data is forced to the storage device at
+ * most once per sync interval but no later than one sync interval after it was written, even if no
+ * more rows are submitted, and always when the writer is closed. The writer is closed when the
+ * JVM shuts down if it has not been closed already.
+ */
+public final class ResultWriter implements AutoCloseable {
+
+	private static final String NEW_LINE = "\r\n";
+
+	// marks the end of the submitted rows
+	private static final String END_OF_ROWS = new String("end of rows");
+
+	private final Path m_oPath;
+
+	private final FileChannel m_oChannel;
+
+	private final long m_lSyncIntervalNanos;
+
+	private final LinkedBlockingQueue<String> m_oQueue = new LinkedBlockingQueue<>();
+
+	private final Thread m_oWriterThread;
+
+	private final Thread m_oShutdownHook;
+
+	private ByteBuffer m_oBuffer = ByteBuffer.allocate(1 << 16);
+
+	private long m_lLastSyncTime;
+
+	// whether data has been written since it was last forced to the storage device
+	private boolean m_bUnsynced;
+
+	private long m_lSubmitted, m_lWritten;
+
+	private boolean m_bFailed;
+
+	private boolean m_bClosed;
+
+	/**
+	 * Opens a results file for appending, creating it if necessary.
+	 *
+	 * @param oPath The path of the results file.
+	 * @param strHeader The header to write if the file is empty.
+	 * @param lSyncIntervalMillis The minimum time between forcing written rows to the storage device,
+	 *                            0 to force after every batch, or a negative value to force only when closed.
+	 * @throws UncheckedIOException If the file could not be opened.
+	 */
+	public ResultWriter(Path oPath, String strHeader, long lSyncIntervalMillis) {
+
+		this.m_oPath = oPath;
+		this.m_lSyncIntervalNanos = lSyncIntervalMillis < 0 ? Long.MAX_VALUE : lSyncIntervalMillis * 1_000_000L;
+
+		try {
+
+			this.m_oChannel = FileChannel.open(oPath, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND);
+			if (m_oChannel.size() == 0) {
+
+				write(List.of(strHeader));
+				m_bUnsynced = true;
+
+			} else if (!endsWithNewLine()) {
+
+				// terminate the last row of a file written without a trailing line separator
+				writeFully(ByteBuffer.wrap(NEW_LINE.getBytes(StandardCharsets.UTF_8)));
+				m_bUnsynced = true;
+			}
+
+		} catch (IOException e) {
+
+			throw new UncheckedIOException("Could not open results file " + oPath.toAbsolutePath(), e);
+		}
+
+		this.m_lLastSyncTime = System.nanoTime();
+
+		this.m_oWriterThread = new Thread(this::writeRows, "result-writer-" + oPath.getFileName());
+		this.m_oWriterThread.setDaemon(true);
+		this.m_oWriterThread.start();
+
+		this.m_oShutdownHook = new Thread(this::close);
+		Runtime.getRuntime().addShutdownHook(m_oShutdownHook);
+	}
+
+	private boolean endsWithNewLine() throws IOException {
+
+		try (FileChannel oReader = FileChannel.open(m_oPath, StandardOpenOption.READ)) {
+
+			ByteBuffer oLastByte = ByteBuffer.allocate(1);
+			oReader.read(oLastByte, oReader.size() - 1);
+			return oLastByte.get(0) == '\n';
+		}
+	}
+
+	/**
+	 * Submits a row to be appended to the file. The row is written asynchronously.
+	 *
+	 * @param strRow The row, without a line separator.
+	 * @throws IllegalStateException If the writer has been closed.
+	 */
+	public void submit(String strRow) {
+
+		synchronized (this) {
+
+			if (m_bClosed) {
+				throw new IllegalStateException("The results file " + m_oPath + " has been closed");
+			}
+
+			m_lSubmitted++;
+			m_oQueue.add(strRow);
+		}
+	}
+
+	/**
+	 * Waits until all rows submitted before this call have been written to the file.
+	 */
+	public synchronized void flush() {
+
+		long lTarget = m_lSubmitted;
+		boolean bInterrupted = false;
+		while (m_lWritten < lTarget && m_oWriterThread.isAlive()) {
+			try {
+				wait();
+			} catch (InterruptedException e) {
+				bInterrupted = true;
+			}
+		}
+
+		if (bInterrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * Writes all submitted rows, forces them to the storage device and closes the file.
+	 */
+	@Override
+	public void close() {
+
+		synchronized (this) {
+
+			if (m_bClosed) {
+				return;
+			}
+
+			m_bClosed = true;
+			m_oQueue.add(END_OF_ROWS);
+		}
+
+		boolean bInterrupted = false;
+		while (m_oWriterThread.isAlive()) {
+			try {
+				m_oWriterThread.join();
+			} catch (InterruptedException e) {
+				bInterrupted = true;
+			}
+		}
+
+		try {
+
+			if (!m_bFailed) {
+				m_oChannel.force(false);
+			}
+			m_oChannel.close();
+
+		} catch (IOException e) {
+
+			System.err.println("Could not close results file " + m_oPath.toAbsolutePath());
+		}
+
+		if (Thread.currentThread() != m_oShutdownHook) {
+			Runtime.getRuntime().removeShutdownHook(m_oShutdownHook);
+		}
+
+		if (bInterrupted) {
+			Thread.currentThread().interrupt();
+		}
+	}
+
+	/**
+	 * The body of the writer thread; takes batches of rows from the queue until the end of the rows.
+	 * While written data has not been forced, the writer waits for rows only until the sync interval
+	 * has elapsed, and then forces the data whether or not more rows have arrived.
+	 */
+	private void writeRows() {
+
+		List<String> oBatch = new ArrayList<>();
+		boolean bEnd = false;
+		while (!bEnd) {
+
+			String strRow;
+			try {
+
+				if (m_bUnsynced && !m_bFailed && m_lSyncIntervalNanos != Long.MAX_VALUE) {
+					long lUntilSync = m_lSyncIntervalNanos - (System.nanoTime() - m_lLastSyncTime);
+					strRow = m_oQueue.poll(Math.max(0L, lUntilSync), TimeUnit.NANOSECONDS);
+				} else {
+					strRow = m_oQueue.take();
+				}
+
+			} catch (InterruptedException e) {
+				// only the end of the rows stops the writer, so that no submitted row is lost
+				continue;
+			}
+
+			if (strRow != null) {
+
+				oBatch.add(strRow);
+				m_oQueue.drainTo(oBatch);
+				if (oBatch.getLast() == END_OF_ROWS) {
+					oBatch.removeLast();
+					bEnd = true;
+				}
+			}
+
+			if (!m_bFailed) {
+				try {
+
+					if (!oBatch.isEmpty()) {
+						write(oBatch);
+						m_bUnsynced = true;
+					}
+
+					if (m_bUnsynced && System.nanoTime() - m_lLastSyncTime >= m_lSyncIntervalNanos) {
+						m_oChannel.force(false);
+						m_lLastSyncTime = System.nanoTime();
+						m_bUnsynced = false;
+					}
+
+				} catch (IOException e) {
+
+					m_bFailed = true;
+					System.err.println("Could not write to results file " + m_oPath.toAbsolutePath());
+					System.err.println("Printing data to screen instead...");
+				}
+			}
+
+			if (m_bFailed) {
+				oBatch.forEach(System.out::println);
+			}
+
+			if (!oBatch.isEmpty()) {
+
+				synchronized (this) {
+					m_lWritten += oBatch.size();
+					notifyAll();
+				}
+
+				oBatch.clear();
+			}
+		}
+	}
+
+	private void write(List<String> oRows) throws IOException {
+
+		m_oBuffer.clear();
+		for (String strRow : oRows) {
+
+			byte[] abRow = (strRow + NEW_LINE).getBytes(StandardCharsets.UTF_8);
+			if (m_oBuffer.remaining() < abRow.length) {
+
+				ByteBuffer oLarger = ByteBuffer.allocate(Math.max(m_oBuffer.capacity() << 1, m_oBuffer.position() + abRow.length));
+				m_oBuffer.flip();
+				oLarger.put(m_oBuffer);
+				m_oBuffer = oLarger;
+			}
+
+			m_oBuffer.put(abRow);
+		}
+
+		m_oBuffer.flip();
+		writeFully(m_oBuffer);
+	}
+
+	private void writeFully(ByteBuffer oBuffer) throws IOException {
+
+		while (oBuffer.hasRemaining()) {
+			m_oChannel.write(oBuffer);
+		}
+	}
+}
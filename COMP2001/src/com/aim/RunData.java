@@ -1,6 +1,11 @@
 package com.aim;
 
-import java.util.ArrayList;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.List;
+
+import com.aim.sat.IncrementalSAT;
 
 /**
  * Represents a data structure for storing the results of a computational experiment or heuristic run.
@@ -11,7 +16,7 @@ import java.util.ArrayList;
  */
 public class RunData {
 		
-	private final ArrayList<Integer> m_data;
+	private final FitnessTrace m_trace;
 	
 	private final Integer m_best;
 	
@@ -23,18 +28,94 @@ public class RunData {
 	
 	private final String m_solution;
 	
-	public RunData(ArrayList<Integer> data, Integer best, String heuristicName, int heuristicId, int trialId, String solution) {
+	private final long m_evaluationsUsed;
+	
+	private final long m_evaluationsToTarget;
+	
+	private final long m_cpuTimeToTarget;
+	
+	private final ImprovementTrace m_improvements;
+	
+	private final OperationCounters m_counters;
+	
+	public RunData(List<Integer> data, Integer best, String heuristicName, int heuristicId, int trialId, String solution) {
 		
-		this.m_data = data;
+		this(FitnessTrace.of(data), best, heuristicName, heuristicId, trialId, solution);
+	}
+	
+	public RunData(FitnessTrace trace, Integer best, String heuristicName, int heuristicId, int trialId, String solution) {
+		
+		this(trace, best, heuristicName, heuristicId, trialId, solution, -1L, -1L, -1L, null, null);
+	}
+	
+	/**
+	 * Takes the best solution, the evaluations used, the evaluations and CPU time to reach the target,
+	 * the improvement trace and the operation counters of a trial from its problem.
+	 *
+	 * @param trace The fitness trace of the trial.
+	 * @param problem The problem of the trial once it has completed.
+	 */
+	public RunData(FitnessTrace trace, IncrementalSAT problem, String heuristicName, int heuristicId, int trialId) {
+		
+		this(trace, problem.getBestSolutionValue(), heuristicName, heuristicId, trialId, problem.getBestSolutionAsString(),
+				problem.getNumberOfEvaluationsUsed(), problem.getEvaluationsToTarget(), problem.getCpuTimeToTarget(), problem.getImprovementTrace(), problem.getOperationCounters());
+	}
+	
+	/**
+	 * @param evaluationsUsed The evaluations used by the trial, or -1 if they are not known.
+	 * @param evaluationsToTarget The evaluations used to reach the target objective value, or -1 if it was not reached.
+	 * @param cpuTimeToTarget The CPU time in nanoseconds taken to reach the target objective value, or -1 if it was not reached or could not be measured.
+	 * @param improvements The improvement and new best events of the trial, or null if they were not recorded.
+	 * @param counters The operations performed by the trial, or null if it was not instrumented.
+	 */
+	public RunData(FitnessTrace trace, Integer best, String heuristicName, int heuristicId, int trialId, String solution,
+			long evaluationsUsed, long evaluationsToTarget, long cpuTimeToTarget, ImprovementTrace improvements, OperationCounters counters) {
+		
+		this.m_trace = trace;
 		this.m_best = best;
 		this.m_heuristicName = heuristicName;
 		this.m_heuristicId = heuristicId;
 		this.m_trialId = trialId;
 		this.m_solution = solution;
+		this.m_evaluationsUsed = evaluationsUsed;
+		this.m_evaluationsToTarget = evaluationsToTarget;
+		this.m_cpuTimeToTarget = cpuTimeToTarget;
+		this.m_improvements = improvements != null ? improvements : new ImprovementTrace();
+		this.m_counters = counters;
+	}
+	
+	/**
+	 * Expands the fitness trace into the objective value of every iteration.
+	 *
+	 * @return An unmodifiable list with one element per iteration.
+	 */
+	public List<Integer> getData() {
+		return m_trace.asList();
+	}
+	
+	public FitnessTrace getFitnessTrace() {
+		return m_trace;
+	}
+	
+	/**
+	 * @return The improvement and new best events of this trial, stamped with evaluations and elapsed time; empty if they were not recorded.
+	 */
+	public ImprovementTrace getImprovementTrace() {
+		return m_improvements;
 	}
 	
-	public ArrayList<Integer> getData() {
-		return m_data;
+	/**
+	 * @return The operations performed by this trial per heuristic, or null if it was not instrumented.
+	 */
+	public OperationCounters getOperationCounters() {
+		return m_counters;
+	}
+	
+	/**
+	 * @return The approximate number of bytes used by the fitness and improvement traces of this trial.
+	 */
+	public long getTraceMemoryFootprint() {
+		return m_trace.getMemoryFootprint() + m_improvements.getMemoryFootprint();
 	}
 	
 	public Integer getBestSolutionValue() {
@@ -56,4 +137,104 @@ public class RunData {
 	public String getBestSolutionSolutionAsString() {
 		return m_solution;
 	}
+	
+	/**
+	 * @return Whether the trial stopped because it reached its target objective value.
+	 */
+	public boolean hasReachedTarget() {
+		return m_evaluationsToTarget >= 0L;
+	}
+	
+	/**
+	 * @return The evaluations used by this trial, which may be fewer than the budget if it reached its target, or -1 if they are not known.
+	 */
+	public long getEvaluationsUsed() {
+		return m_evaluationsUsed;
+	}
+	
+	/**
+	 * @return The evaluations used to reach the target objective value, or -1 if it was not reached.
+	 */
+	public long getEvaluationsToTarget() {
+		return m_evaluationsToTarget;
+	}
+	
+	/**
+	 * @return The CPU time in nanoseconds taken to reach the target objective value, or -1 if it was not reached or could not be measured.
+	 */
+	public long getCpuTimeToTarget() {
+		return m_cpuTimeToTarget;
+	}
+	
+	/**
+	 * Writes the results of the trial other than its heuristic and trial IDs, with the solution packed
+	 * eight variables to a byte, for the {@link ResultCache} and the {@link TrialJournal}.
+	 *
+	 * @param oOutput The output to write to.
+	 * @throws IOException If the output could not be written.
+	 */
+	void writeTo(DataOutput oOutput) throws IOException {
+		
+		oOutput.writeInt(m_best);
+		oOutput.writeUTF(m_heuristicName);
+		oOutput.writeInt(m_solution.length());
+		for (int i = 0; i < m_solution.length(); i += 8) {
+			
+			int iByte = 0;
+			for (int b = 0; b < 8 && i + b < m_solution.length(); b++) {
+				if (m_solution.charAt(i + b) == '1') {
+					iByte |= 1 << b;
+				}
+			}
+			
+			oOutput.writeByte(iByte);
+		}
+		
+		m_trace.writeTo(oOutput);
+		oOutput.writeLong(m_evaluationsUsed);
+		oOutput.writeLong(m_evaluationsToTarget);
+		oOutput.writeLong(m_cpuTimeToTarget);
+		m_improvements.writeTo(oOutput);
+		oOutput.writeBoolean(m_counters != null);
+		if (m_counters != null) {
+			m_counters.writeTo(oOutput);
+		}
+	}
+	
+	/**
+	 * Reads results written by {@link #writeTo(DataOutput)}.
+	 *
+	 * @param oInput The input to read from.
+	 * @param heuristicId The ID of the heuristic of the trial.
+	 * @param trialId The ID of the trial.
+	 * @return The results.
+	 * @throws IOException If the input could not be read or is corrupt.
+	 */
+	static RunData readFrom(DataInput oInput, int heuristicId, int trialId) throws IOException {
+		
+		int iBest = oInput.readInt();
+		String strHeuristicName = oInput.readUTF();
+		
+		int iLength = oInput.readInt();
+		if (iLength < 0) {
+			throw new IOException("corrupt solution");
+		}
+		
+		StringBuilder oSolution = new StringBuilder(iLength);
+		for (int i = 0; i < iLength; i += 8) {
+			
+			int iByte = oInput.readUnsignedByte();
+			for (int b = 0; b < 8 && i + b < iLength; b++) {
+				oSolution.append((iByte >>> b & 1) == 1 ? '1' : '0');
+			}
+		}
+		
+		FitnessTrace oTrace = FitnessTrace.readFrom(oInput);
+		long lEvaluationsUsed = oInput.readLong();
+		long lEvaluationsToTarget = oInput.readLong();
+		long lCpuTimeToTarget = oInput.readLong();
+		ImprovementTrace oImprovements = ImprovementTrace.readFrom(oInput);
+		return new RunData(oTrace, iBest, strHeuristicName, heuristicId, trialId, oSolution.toString(), lEvaluationsUsed, lEvaluationsToTarget, lCpuTimeToTarget,
+				oImprovements, oInput.readBoolean() ? OperationCounters.readFrom(oInput) : null);
+	}
 }
@@ -1,15 +1,27 @@
 package com.aim;
 
 import java.io.IOException;
-import java.nio.file.Files;
+import java.io.UncheckedIOException;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 import java.util.stream.IntStream;
 import java.util.stream.Stream;
 
+import com.aim.events.TrialEndEvent;
+import com.aim.events.TrialStartEvent;
+import com.aim.sat.IncrementalSAT;
+import com.aim.sat.InstanceCache;
+import uk.ac.nott.cs.aim.satheuristics.SATHeuristic;
+import uk.ac.nott.cs.aim.searchmethods.SearchMethod;
+
 /**
  * An abstract base class designed to provide a framework for conducting and analysing
  * experimental runs with various heuristic methods. The {@code TestFrame} class centralises
@@ -33,13 +45,6 @@ public abstract class TestFrame {
      */
 	private final long[] SEEDS;
 
-    /**
-     * Represents the platform-specific line separator string.
-     * It provides a consistent way to handle new lines across different operating systems.
-     * The value is retrieved from {@link System#lineSeparator()}.
-     */
-	private final String NEW_LINE = System.lineSeparator();
-
     /**
      * Represents the configuration settings for a test frame, encapsulating
      * details such as random seeds, total number of runs, and other experimental
@@ -59,6 +64,23 @@ public abstract class TestFrame {
      */
 	private final int m_totalRuns;
 
+    /**
+     * The writers of the results files saved to by {@link #saveData(String, String, String)}, by path.
+     */
+	private final Map<Path, ResultWriter> m_oResultWriters = new ConcurrentHashMap<>();
+
+    /**
+     * Writes the results logged by the trials to the console on a separate thread.
+     */
+	private final ResultLogger m_oResultLogger;
+
+    /**
+     * The journal of the trials completed by this experiment, opened by {@link #getTrialJournal()}.
+     */
+	private TrialJournal m_oTrialJournal;
+
+	private boolean m_bTrialJournalOpened = false;
+
     /**
      * Constructs a {@code TestFrame} instance using the provided configuration.
      * The configuration specifies the experimental settings, including the total number of runs
@@ -72,6 +94,7 @@ public abstract class TestFrame {
 		
 		this.m_oTestConfiguration = config;
 		this.m_totalRuns = config.getTotalRuns();
+		this.m_oResultLogger = ResultLogger.start(System.out, config.getLogVerbosity());
 		
 		// use a seeded random number generator to generate "TOTAL_RUNS" seeds
 		SEEDS = new long[getTotalRuns()];
@@ -121,6 +144,9 @@ public abstract class TestFrame {
      * Saves the provided data to a file. If the file does not exist, it creates a new file
      * and writes the provided header and data. If the file already exists, it appends
      * the data to the file.
+     * <p>
+     * The data is appended asynchronously by a {@link ResultWriter}, one per file, so this method can be
+     * called from concurrently running trials. Call {@link #closeResultFiles()} once all data has been saved.
      *
      * @param filePath The relative path of the file where the data will be saved.
      * @param header The header content to add to the file if a new file is created.
@@ -128,46 +154,40 @@ public abstract class TestFrame {
      */
 	protected void saveData(String filePath, String header, String data) {
 		
-		Path path = Paths.get("./" + filePath);
-		if(!Files.exists(path)) {
-			try {
-				Files.createFile(path);
-				
+		Path path = Paths.get("./" + filePath).toAbsolutePath().normalize();
+		ResultWriter writer;
+		try {
+			writer = m_oResultWriters.computeIfAbsent(path, p -> {
+
 				//add header
-                StringBuilder headerBuilder = new StringBuilder(header);
-                for(int i = 0; i < getTotalRuns(); i++) {
-					
+				StringBuilder headerBuilder = new StringBuilder(header);
+				for(int i = 0; i < getTotalRuns(); i++) {
+
 					headerBuilder.append(",").append(i);
 				}
 
-                headerBuilder.append(",Best Solution As String");
-                header = headerBuilder.toString();
+				headerBuilder.append(",Best Solution As String");
 
-				Files.write(path, (header + "\r\n" + data).getBytes());
-				
-			} catch (IOException e) {
-				System.err.println("Could not create file at " + path.toAbsolutePath());
-				System.err.println("Printing data to screen instead...");
-				System.out.println(data);
-			}
-			
-		} else {
-			
-			try {
-				byte[] currentData = Files.readAllBytes(path);
-				data = "\r\n" + data;
-				byte[] newData = data.getBytes();
-				byte[] writeData = new byte[currentData.length + newData.length];
-				System.arraycopy(currentData, 0, writeData, 0, currentData.length);
-				System.arraycopy(newData, 0, writeData, currentData.length, newData.length);
-				Files.write(path, writeData);
-				
-			} catch (IOException e) {
-				System.err.println("Could not create file at " + path.toAbsolutePath());
-				System.err.println("Printing data to screen instead...");
-				System.out.println(data);
-			}
+				return new ResultWriter(p, headerBuilder.toString(), getTestConfiguration().getResultSyncInterval());
+			});
+
+		} catch (UncheckedIOException e) {
+			System.err.println("Could not create file at " + path);
+			System.err.println("Printing data to screen instead...");
+			System.out.println(data);
+			return;
 		}
+
+		writer.submit(data);
+	}
+
+    /**
+     * Writes all data saved by {@link #saveData(String, String, String)} to the storage device and closes the files.
+     */
+	public void closeResultFiles() {
+
+		m_oResultWriters.values().forEach(ResultWriter::close);
+		m_oResultWriters.clear();
 	}
 
     /**
@@ -194,10 +214,23 @@ public abstract class TestFrame {
      */
 	public void logResult(String methodName, int runId, double bestSolutionValue, String solution) {
 		
-		System.out.println("Heuristic: " + methodName + NEW_LINE +
-				"Run ID: " + runId + NEW_LINE +
-				"Best Solution Value: " + bestSolutionValue + NEW_LINE +
-				"Best Solution: " + solution + NEW_LINE);
+		logResult(methodName, runId, bestSolutionValue, () -> solution);
+	}
+
+    /**
+     * Logs the result of a heuristic method execution, including method name, run ID,
+     * the best solution value, and, if the configured verbosity includes it, the corresponding
+     * solution as a string. The result is handed to a {@link ResultLogger} which writes it
+     * asynchronously, so the solution is only turned into a string if it is logged.
+     *
+     * @param methodName The name of the AI heuristic search method being logged.
+     * @param runId The ID of the specific run or trial of the heuristic method.
+     * @param bestSolutionValue The best solution value obtained during the execution.
+     * @param solution Supplies the string representation of the best solution found in the run.
+     */
+	public void logResult(String methodName, int runId, double bestSolutionValue, Supplier<String> solution) {
+
+		m_oResultLogger.log(methodName, runId, bestSolutionValue, solution);
 	}
 
     /**
@@ -227,7 +260,9 @@ public abstract class TestFrame {
      * structure. The outer list contains results for different heuristic methods, while each inner list
      * holds {@code RunData} objects corresponding to individual trials of a specific heuristic.
      * <br/>
-     * The execution uses experimental parallelism settings to determine whether the experiments
+     * If the configuration specifies a number of workers, every (heuristic, trial) pair is run by
+     * {@link #runTrial(int, int)} on a {@link TrialScheduler} and the wall clock and CPU time of each trial
+     * are reported. Otherwise, the execution uses experimental parallelism settings to determine whether the experiments
      * are run in parallel or sequentially. This is determined by the {@code ENABLE_PARALLEL_EXECUTION}
      * flag in {@code ExperimentalSettings} which can be modified to suit your computational environment.
      *
@@ -236,22 +271,483 @@ public abstract class TestFrame {
      */
     public List<List<RunData>> runExperiments() {
 
-        return runUsingExperimentalParallelism(rangeAsStream(0, getNumberOfMethodsToTest() - 1))
+        if (getNumberOfTrialWorkers() > 0) {
+            return runScheduledExperiments();
+        }
+
+        List<List<RunData>> loRunData = runUsingExperimentalParallelism(rangeAsStream(0, getNumberOfMethodsToTest() - 1))
                 .map(this::runExperimentsForHeuristicId)
                 .flatMap(Collection::stream)
                 .toList();
+
+        m_oResultLogger.flush();
+        reportTargetStatistics(loRunData);
+        System.out.println(InstanceCache.getStatistics());
+        System.out.println(ResultCache.getStatistics());
+        if (Instrumentation.ENABLED) {
+            System.out.println(Instrumentation.getStatistics());
+        }
+        deleteTrialJournal();
+        return loRunData;
+    }
+
+    /**
+     * Runs every trial of every heuristic method on a {@link TrialScheduler}, in order of heuristic and trial ID,
+     * and reports the time taken by each trial.
+     *
+     * @return One list of {@code RunData} per heuristic method, ordered by trial ID.
+     */
+    private List<List<RunData>> runScheduledExperiments() {
+
+        // trials completed by an earlier, interrupted run of this experiment are not scheduled again
+        RunData[][] aoRunData = new RunData[getNumberOfMethodsToTest()][getTotalRuns()];
+        TrialScheduler oScheduler = new TrialScheduler(getNumberOfTrialWorkers(), getTestConfiguration().isBackgroundExecution());
+        int iResumed = 0;
+        for (int iHeuristicId = 0; iHeuristicId < getNumberOfMethodsToTest(); iHeuristicId++) {
+            for (int iTrialId = 0; iTrialId < getTotalRuns(); iTrialId++) {
+
+                aoRunData[iHeuristicId][iTrialId] = loadJournalledTrial(iHeuristicId, iTrialId);
+                if (aoRunData[iHeuristicId][iTrialId] == null) {
+                    oScheduler.submit(iHeuristicId, iTrialId);
+                } else {
+                    iResumed++;
+                }
+            }
+        }
+
+        long lStartTime = System.nanoTime();
+        List<TrialScheduler.Job> oJobs = oScheduler.runAll(this::runOrLoadTrial);
+        double dWallTime = (System.nanoTime() - lStartTime) / 1e9;
+        m_oResultLogger.flush();
+
+        double dCpuTime = 0;
+        long lTraceBytes = 0;
+        for (TrialScheduler.Job oJob : oJobs) {
+
+            aoRunData[oJob.getHeuristicId()][oJob.getTrialId()] = oJob.getResult();
+            dCpuTime += Math.max(0L, oJob.getCpuTime()) / 1e9;
+            lTraceBytes += oJob.getResult().getTraceMemoryFootprint();
+            logTrialTime(oJob.getHeuristicId(), oJob.getTrialId(), oJob.getWallTime() / 1e9, oJob.getCpuTime() / 1e9, oJob.getResult().getTraceMemoryFootprint());
+        }
+
+        List<List<RunData>> loRunData = new ArrayList<>();
+        for (RunData[] aoHeuristicRunData : aoRunData) {
+            loRunData.add(new ArrayList<>(List.of(aoHeuristicRunData)));
+        }
+
+        System.out.printf("Ran %d trials on %d workers in %.3f seconds (%.3f CPU seconds), resumed %d trials, fitness traces use %d bytes%n",
+                oJobs.size(), getNumberOfTrialWorkers(), dWallTime, dCpuTime, iResumed, lTraceBytes);
+        reportTargetStatistics(loRunData);
+        System.out.println(InstanceCache.getStatistics());
+        System.out.println(ResultCache.getStatistics());
+        if (Instrumentation.ENABLED) {
+            System.out.println(Instrumentation.getStatistics());
+        }
+        deleteTrialJournal();
+        return loRunData;
+    }
+
+    /**
+     * Reports, for each heuristic method, how many trials reached the configured target objective value
+     * and the mean evaluations and CPU time they took to reach it. Nothing is reported without a target.
+     *
+     * @param loRunData The results of the trials of each heuristic method.
+     */
+    private void reportTargetStatistics(List<List<RunData>> loRunData) {
+
+        int iTarget = getTestConfiguration().getTargetObjectiveValue();
+        if (iTarget < 0) {
+            return;
+        }
+
+        for (List<RunData> loHeuristicRunData : loRunData) {
+
+            List<RunData> loReached = loHeuristicRunData.stream().filter(RunData::hasReachedTarget).toList();
+            if (loHeuristicRunData.isEmpty()) {
+                continue;
+            }
+
+            System.out.printf("%s reached the target of %d in %d of %d trials, taking a mean of %.1f evaluations and %.3f CPU seconds%n",
+                    loHeuristicRunData.getFirst().getHeuristicName(), iTarget, loReached.size(), loHeuristicRunData.size(),
+                    loReached.stream().mapToLong(RunData::getEvaluationsToTarget).average().orElse(Double.NaN),
+                    loReached.stream().mapToLong(RunData::getCpuTimeToTarget).filter(t -> t >= 0L).average().orElse(Double.NaN) / 1e9);
+        }
+    }
+
+    /**
+     * Creates the problem of a trial for the configured instance and run time, which stops at the
+     * configured target objective value if there is one, and records its new best solutions in an
+     * {@link ImprovementTrace} timed from now, see {@link IncrementalSAT#getImprovementTrace()}. If
+     * {@link Instrumentation} is enabled, the problem also counts its operations.
+     *
+     * @param oRandom The random number generator of the trial.
+     * @return The problem.
+     */
+    protected IncrementalSAT createProblem(Random oRandom) {
+
+        return createProblem(oRandom, 0, null);
+    }
+
+    /**
+     * Creates the problem of a trial in the same way as {@link #createProblem(Random)}, but with
+     * solutions which carry memes.
+     *
+     * @param oRandom The random number generator of the trial.
+     * @param iNumberOfMemes The number of memes carried by each solution.
+     * @param aiMemeStates The number of options of each meme.
+     * @return The problem.
+     */
+    protected IncrementalSAT createProblem(Random oRandom, int iNumberOfMemes, int[] aiMemeStates) {
+
+        TestFrameConfig oConfiguration = getTestConfiguration();
+        IncrementalSAT oProblem = InstanceCache.createProblem(oConfiguration.getInstanceId(), oConfiguration.getRunTime(), oRandom, 1,
+                iNumberOfMemes, aiMemeStates);
+        oProblem.setTargetObjectiveValue(oConfiguration.getTargetObjectiveValue());
+        oProblem.setImprovementTrace(new ImprovementTrace());
+        Instrumentation.attach(oProblem);
+        return oProblem;
     }
 
     /**
      * Executes experiments for a specific heuristic ID and organises the results into a nested list structure.
      * Each inner list contains {@code RunData} objects representing the results of individual runs or trials
      * conducted for the given heuristic ID.
+     * <p>
+     * By default, the trials are run by {@link #runOrLoadTrial(int, int)} using the experimental parallelism settings.
      *
      * @param iHeuristicId The unique identifier of the heuristic method for which experiments are to be run.
      * @return A list of lists where each inner list contains {@code RunData} representing experimental results
      *         for different trials or configurations of the specified heuristic ID.
      */
-    protected abstract List<List<RunData>> runExperimentsForHeuristicId(int iHeuristicId);
+    protected List<List<RunData>> runExperimentsForHeuristicId(int iHeuristicId) {
+
+        List<RunData> loData = runUsingExperimentalParallelism(rangeAsStream(0, getTotalRuns() - 1))
+                .map(iTrialId -> runOrLoadTrial(iHeuristicId, iTrialId))
+                .toList();
+
+        return List.of(loData);
+    }
+
+    /**
+     * Executes a single trial of the experiment for the given heuristic method. Every runner must
+     * implement this method, since the {@link TrialScheduler} runs the trials through it, even if the
+     * runner overrides {@link #runExperimentsForHeuristicId(int)}.
+     *
+     * @param iHeuristicId The unique identifier of the heuristic method under test.
+     * @param iTrialId The identifier of the trial, used to select the random seed.
+     * @return The results of the trial.
+     */
+    protected abstract RunData runTrial(int iHeuristicId, int iTrialId);
+
+    /**
+     * Runs a search method on the problem of a trial until its evaluation limit expires, recording
+     * the objective value of the solution-in-hand after each iteration, and logs the result.
+     * <p>
+     * The body of a trial is kept here rather than in the runners so that the {@link ResultCache}
+     * fingerprint covers it; the runner only chooses the search method, which it must name in
+     * {@link #getTrialDescription(int)}.
+     *
+     * @param oProblem The problem of the trial, created by {@link #createProblem(Random)}.
+     * @param oSearchMethod The search method solving the problem.
+     * @param iHeuristicId The unique identifier of the heuristic method under test.
+     * @param iTrialId The identifier of the trial.
+     * @return The results of the trial.
+     */
+    protected final RunData runSearchMethod(IncrementalSAT oProblem, SearchMethod oSearchMethod, int iHeuristicId, int iTrialId) {
+
+        return runSearchMethod(oProblem, oSearchMethod, oSearchMethod.toString(), iHeuristicId, iTrialId);
+    }
+
+    /**
+     * Runs a trial in the same way as {@link #runSearchMethod(IncrementalSAT, SearchMethod, int, int)},
+     * but logs its result under the given name, e.g. to tell apart the parameter settings of a method.
+     *
+     * @param oProblem The problem of the trial, created by {@link #createProblem(Random)}.
+     * @param oSearchMethod The search method solving the problem.
+     * @param strLoggedName The name of the method in the result log.
+     * @param iHeuristicId The unique identifier of the heuristic method under test.
+     * @param iTrialId The identifier of the trial.
+     * @return The results of the trial.
+     */
+    protected final RunData runSearchMethod(IncrementalSAT oProblem, SearchMethod oSearchMethod, String strLoggedName, int iHeuristicId, int iTrialId) {
+
+        FitnessTrace oFitnessTrace = new FitnessTrace();
+        ImprovementTrace oImprovementTrace = oProblem.getImprovementTrace();
+
+        int iInitialFitness = oProblem.getObjectiveFunctionValue(SATHeuristic.CURRENT_SOLUTION_INDEX);
+        oFitnessTrace.add(iInitialFitness);
+        oImprovementTrace.recordCurrent(oProblem.getNumberOfEvaluationsUsed(), iInitialFitness);
+        while (!oProblem.hasEvaluationLimitExpired()) {
+
+            int iFitness = oSearchMethod.run();
+            oFitnessTrace.add(iFitness);
+            oImprovementTrace.recordCurrent(oProblem.getNumberOfEvaluationsUsed(), iFitness);
+        }
+
+        logResult(strLoggedName, iTrialId, oProblem.getBestSolutionValue(), oProblem::getBestSolutionAsString);
+        return new RunData(oFitnessTrace, oProblem, oSearchMethod.toString(), iHeuristicId, iTrialId);
+    }
+
+    /**
+     * Repeatedly applies a local search heuristic to the solution-in-hand of a trial until its
+     * evaluation limit expires, recording the objective value of the solution-in-hand after each
+     * application, and logs the result. As for {@link #runSearchMethod(IncrementalSAT, SearchMethod, int, int)},
+     * the runner only chooses the heuristic.
+     *
+     * @param oProblem The problem of the trial, created by {@link #createProblem(Random)}.
+     * @param oHeuristic The local search heuristic.
+     * @param iHeuristicId The unique identifier of the heuristic method under test.
+     * @param iTrialId The identifier of the trial.
+     * @return The results of the trial.
+     */
+    protected final RunData runLocalSearch(IncrementalSAT oProblem, SATHeuristic oHeuristic, int iHeuristicId, int iTrialId) {
+
+        FitnessTrace oFitnessTrace = new FitnessTrace();
+        ImprovementTrace oImprovementTrace = oProblem.getImprovementTrace();
+
+        // record the objective value of the initial solution
+        int iInitialFitness = oProblem.getObjectiveFunctionValue(SATHeuristic.CURRENT_SOLUTION_INDEX);
+        oFitnessTrace.add(iInitialFitness);
+        oImprovementTrace.recordCurrent(oProblem.getNumberOfEvaluationsUsed(), iInitialFitness);
+
+        // continually apply the local search heuristic until the execution limit expires
+        while (!oProblem.hasEvaluationLimitExpired()) {
+
+            // apply the heuristic to the solution-in-hand
+            oHeuristic.applyHeuristic(oProblem);
+
+            // evaluate the cost of the solution-in-hand
+            int iFitness = oProblem.getObjectiveFunctionValue(SATHeuristic.CURRENT_SOLUTION_INDEX);
+            oImprovementTrace.recordCurrent(oProblem.getNumberOfEvaluationsUsed(), iFitness);
+
+            // add data to progress plot
+            if (!oProblem.hasEvaluationLimitExpired()) {
+                oFitnessTrace.add(iFitness);
+            }
+        }
+
+        logResult(oHeuristic.getHeuristicName(), iTrialId, oProblem.getBestSolutionValue(), oProblem::getBestSolutionAsString);
+        return new RunData(oFitnessTrace, oProblem, oHeuristic.getHeuristicName(), iHeuristicId, iTrialId);
+    }
+
+    /**
+     * Describes the heuristic and parameter settings of the trials of a heuristic method, for the key
+     * of their results in the {@link ResultCache}. The description, together with the instance, run
+     * time, heuristic ID, seed and code of the algorithms, must determine the result of a trial; in
+     * particular it must name any heuristic or setting chosen by the runner itself, since changes to
+     * the runners do not invalidate the cache. For the same reason, the loop of a cached trial should
+     * be run by {@link #runSearchMethod(IncrementalSAT, SearchMethod, int, int)} or
+     * {@link #runLocalSearch(IncrementalSAT, SATHeuristic, int, int)} rather than by the runner.
+     * <p>
+     * By default, the results are not cached.
+     *
+     * @param iHeuristicId The unique identifier of the heuristic method under test.
+     * @return The description, or null if the results of the heuristic method should not be cached.
+     */
+    protected String getTrialDescription(int iHeuristicId) {
+
+        return null;
+    }
+
+    /**
+     * Returns the result of a trial from the {@link TrialJournal} if it was completed by an earlier,
+     * interrupted run of this experiment, or from the {@link ResultCache} if it has been run before,
+     * and otherwise runs it with {@link #runTrial(int, int)}, adds its operation counters to the totals
+     * of the {@link Instrumentation}, records it by Java Flight Recorder, and caches its result. The
+     * result is then journalled, so that it survives the JVM being killed before the experiment completes.
+     *
+     * @param iHeuristicId The unique identifier of the heuristic method under test.
+     * @param iTrialId The identifier of the trial, used to select the random seed.
+     * @return The results of the trial.
+     */
+    protected final RunData runOrLoadTrial(int iHeuristicId, int iTrialId) {
+
+        RunData oRunData = loadJournalledTrial(iHeuristicId, iTrialId);
+        if (oRunData != null) {
+            return oRunData;
+        }
+
+        String strDescription = getTrialDescription(iHeuristicId);
+        if (strDescription == null || !ResultCache.isEnabled()) {
+
+            oRunData = runRecordedTrial(iHeuristicId, iTrialId, strDescription);
+
+        } else {
+
+            String strKey = ResultCache.getKey(getTestConfiguration(), strDescription, iHeuristicId, SEEDS[iTrialId]);
+            oRunData = ResultCache.load(strKey, iHeuristicId, iTrialId);
+            if (oRunData != null) {
+
+                logResult(oRunData.getHeuristicName() + " (cached)", iTrialId, oRunData.getBestSolutionValue(), oRunData::getBestSolutionSolutionAsString);
+
+            } else {
+
+                oRunData = runRecordedTrial(iHeuristicId, iTrialId, strDescription);
+                ResultCache.store(strKey, oRunData);
+            }
+        }
+
+        TrialJournal oJournal = getTrialJournal();
+        if (oJournal != null) {
+            oJournal.append(iHeuristicId, iTrialId, SEEDS[iTrialId], oRunData);
+        }
+
+        return oRunData;
+    }
+
+    /**
+     * Runs a trial with {@link #runTrial(int, int)}, adds its operation counters to the totals of the
+     * {@link Instrumentation}, and records its start and end by Java Flight Recorder as a
+     * {@link TrialStartEvent} and a {@link TrialEndEvent}.
+     *
+     * @param iHeuristicId The unique identifier of the heuristic method under test.
+     * @param iTrialId The identifier of the trial.
+     * @param strDescription The description of the heuristic method, or null if it has none.
+     * @return The results of the trial.
+     */
+    private RunData runRecordedTrial(int iHeuristicId, int iTrialId, String strDescription) {
+
+        int iInstanceId = getTestConfiguration().getInstanceId();
+        TrialStartEvent oStartEvent = new TrialStartEvent();
+        if (oStartEvent.shouldCommit()) {
+
+            oStartEvent.instance = iInstanceId;
+            oStartEvent.seed = SEEDS[iTrialId];
+            oStartEvent.heuristicId = iHeuristicId;
+            oStartEvent.heuristic = strDescription;
+            oStartEvent.trialId = iTrialId;
+            oStartEvent.commit();
+        }
+
+        TrialEndEvent oEndEvent = new TrialEndEvent();
+        oEndEvent.begin();
+        RunData oRunData = runTrial(iHeuristicId, iTrialId);
+        Instrumentation.record(oRunData.getOperationCounters());
+        if (oEndEvent.shouldCommit()) {
+
+            oEndEvent.instance = iInstanceId;
+            oEndEvent.seed = SEEDS[iTrialId];
+            oEndEvent.heuristicId = iHeuristicId;
+            oEndEvent.heuristic = oRunData.getHeuristicName();
+            oEndEvent.trialId = iTrialId;
+            oEndEvent.bestObjectiveValue = oRunData.getBestSolutionValue();
+            oEndEvent.evaluationsToTarget = oRunData.getEvaluationsToTarget();
+            oEndEvent.commit();
+        }
+
+        return oRunData;
+    }
+
+    /**
+     * Loads a trial completed by an earlier, interrupted run of this experiment from the {@link TrialJournal}.
+     *
+     * @param iHeuristicId The unique identifier of the heuristic method under test.
+     * @param iTrialId The identifier of the trial.
+     * @return The results of the trial, or null if it has not been journalled.
+     */
+    private RunData loadJournalledTrial(int iHeuristicId, int iTrialId) {
+
+        TrialJournal oJournal = getTrialJournal();
+        RunData oRunData = oJournal == null ? null : oJournal.load(iHeuristicId, iTrialId, SEEDS[iTrialId]);
+        if (oRunData != null) {
+            logResult(oRunData.getHeuristicName() + " (resumed)", iTrialId, oRunData.getBestSolutionValue(), oRunData::getBestSolutionSolutionAsString);
+        }
+
+        return oRunData;
+    }
+
+    /**
+     * Describes this experiment for the key of its {@link TrialJournal}: the runner, its configuration,
+     * seeds and the description of each of its heuristic methods.
+     *
+     * @return The description of the experiment.
+     */
+    private String getExperimentDescription() {
+
+        TestFrameConfig oConfiguration = getTestConfiguration();
+        StringBuilder oDescription = new StringBuilder(getClass().getName())
+                .append("\ninstance ").append(oConfiguration.getInstanceId())
+                .append("\nrun time ").append(oConfiguration.getRunTime())
+                .append("\ntarget ").append(oConfiguration.getTargetObjectiveValue())
+                .append("\ninstrumented ").append(Instrumentation.ENABLED)
+                .append("\nmethod ").append(oConfiguration.getMethodName())
+                .append("\nconfiguration ").append(oConfiguration.getConfigurationAsString())
+                .append("\nseeds ").append(Arrays.toString(SEEDS));
+
+        for (int iHeuristicId = 0; iHeuristicId < getNumberOfMethodsToTest(); iHeuristicId++) {
+            oDescription.append("\nheuristic ").append(iHeuristicId).append(" ").append(getTrialDescription(iHeuristicId));
+        }
+
+        return oDescription.toString();
+    }
+
+    /**
+     * Opens the {@link TrialJournal} of this experiment the first time it is needed, reporting how many
+     * trials are being resumed.
+     *
+     * @return The journal, or null if journalling is disabled or the journal could not be opened.
+     */
+    private synchronized TrialJournal getTrialJournal() {
+
+        if (!m_bTrialJournalOpened) {
+
+            m_bTrialJournalOpened = true;
+            if (TrialJournal.isEnabled()) {
+                try {
+
+                    m_oTrialJournal = TrialJournal.open(TrialJournal.getKey(getExperimentDescription()));
+                    if (m_oTrialJournal.size() > 0) {
+                        System.out.printf("Resuming %d completed trials from %s%n", m_oTrialJournal.size(), m_oTrialJournal.getPath());
+                    }
+
+                } catch (IOException e) {
+
+                    System.err.println("Trials will not be journalled, the journal could not be opened: " + e.getMessage());
+                }
+            }
+        }
+
+        return m_oTrialJournal;
+    }
+
+    /**
+     * Deletes the {@link TrialJournal} of this experiment once all of its trials have completed, so that
+     * running the experiment again runs it from the start. Runners which run their trials other than
+     * through {@link #runExperiments()} should call this once they have done so.
+     */
+    protected synchronized void deleteTrialJournal() {
+
+        if (m_oTrialJournal != null) {
+            m_oTrialJournal.delete();
+        }
+
+        m_oTrialJournal = null;
+        m_bTrialJournalOpened = false;
+    }
+
+    /**
+     * Retrieves the number of worker threads to schedule trials on, as given by the configuration.
+     *
+     * @return The number of worker threads, or 0 to use parallel streams.
+     */
+    protected int getNumberOfTrialWorkers() {
+
+        return getTestConfiguration().getNumberOfWorkers();
+    }
+
+    /**
+     * Logs the wall clock and CPU time taken by a trial run by the {@link TrialScheduler}, and the memory used by its fitness trace.
+     *
+     * @param iHeuristicId The ID of the heuristic method under test.
+     * @param iTrialId The ID of the trial.
+     * @param dWallTime The wall clock time taken in seconds.
+     * @param dCpuTime The CPU time taken in seconds, or a negative value if it could not be measured.
+     * @param lTraceBytes The approximate number of bytes used by the fitness trace of the trial.
+     */
+    public void logTrialTime(int iHeuristicId, int iTrialId, double dWallTime, double dCpuTime, long lTraceBytes) {
+
+        System.out.printf("Heuristic ID: %d, Run ID: %d, Wall Time: %.3f s, CPU Time: %.3f s, Trace: %d bytes%n", iHeuristicId, iTrialId, dWallTime, dCpuTime, lTraceBytes);
+    }
 
     /**
      * Returns the total number of heuristic methods to be tested in experiments.
@@ -67,6 +67,64 @@ public abstract class TestFrameConfig {
      */
 	public abstract int getTotalRuns();
 
+    /**
+     * Retrieves the number of worker threads on which the trials of the experiments are scheduled
+     * by a {@link TrialScheduler}. A value of 0 runs the experiments on parallel streams instead,
+     * as determined by {@link TestFrame#shouldRunExperimentsInParallel()}.
+     *
+     * @return The number of worker threads, or 0 to use parallel streams.
+     */
+	public int getNumberOfWorkers() {
+
+		return 0;
+	}
+
+    /**
+     * Determines whether the worker threads of the {@link TrialScheduler} should run at low priority,
+     * so that the experiments can be run on a shared machine.
+     *
+     * @return true if the trials should be run in the background, false otherwise.
+     */
+	public boolean isBackgroundExecution() {
+
+		return false;
+	}
+
+    /**
+     * Retrieves the minimum time between forcing saved results to the storage device. Shorter intervals
+     * lose less data if the machine fails, at the cost of slower writes.
+     *
+     * @return The interval in milliseconds, 0 to force after every write, or a negative value to force only when the results file is closed.
+     */
+	public long getResultSyncInterval() {
+
+		return 1000L;
+	}
+
+    /**
+     * Retrieves the amount of detail logged for each trial. Logging the best solution of every trial
+     * as a string can produce a large amount of output for instances with many variables.
+     *
+     * @return The verbosity of the result log.
+     */
+	public ResultLogger.Verbosity getLogVerbosity() {
+
+		return ResultLogger.Verbosity.FULL;
+	}
+
+    /**
+     * Retrieves the target objective value at which each trial stops. Trials on satisfiable instances
+     * otherwise spend their whole evaluation budget after every clause is satisfied; with a target, a
+     * worker which finishes a trial early moves on to the next one, and the evaluations and CPU time
+     * taken to reach the target are recorded in the {@link RunData} of the trial.
+     *
+     * @return The target number of broken clauses, or a negative value to run every trial until its evaluation limit expires.
+     */
+	public int getTargetObjectiveValue() {
+
+		return -1;
+	}
+
     /**
      * Retrieves the array of seed values used for randomisation.
      * These seeds help ensure reproducibility of experiments by
@@ -0,0 +1,329 @@
+package com.aim;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal of the trials of an experiment which have completed, so that an
+ * experiment whose JVM is killed can be resumed by running it again: the trials found in the
+ * journal are loaded rather than run, and only the missing ones are scheduled.
+ * <p>
+ * Each experiment has its own journal named by the SHA-256 hash of its key, which is made up of
+ * the runner, its configuration, the descriptions of its heuristics, and a fingerprint of all of
+ * the {@code com.aim} classes, including the runners, and the framework. Unlike the
+ * {@link ResultCache}, a journal is only ever resumed by the same experiment on the same code, so a
+ * resumed experiment reproduces exactly the results of an uninterrupted one. Each record holds the
+ * heuristic ID, trial ID and seed of a trial and its {@link RunData}, framed by its length and a
+ * CRC-32 checksum, and is forced to the storage device before the trial is reported complete. A
+ * record torn by the JVM being killed is cut off when the journal is reopened.
+ * <p>
+ * The journal directory is given by the system property {@value #DIRECTORY_PROPERTY}, and is
+ * {@value #DEFAULT_DIRECTORY} by default; setting {@value #ENABLED_PROPERTY} to {@code false}
+ * disables journalling. A journal is deleted by {@link #delete()} once its experiment completes.
+ */
+public final class TrialJournal {
+
+	public static final String DIRECTORY_PROPERTY = "com.aim.trialJournal.directory";
+
+	public static final String DEFAULT_DIRECTORY = "trial-journal";
+
+	public static final String ENABLED_PROPERTY = "com.aim.trialJournal.enabled";
+
+	/**
+	 * "AIMJOURN" in ASCII, the first 8 bytes of every journal.
+	 */
+	private static final long MAGIC = 0x4149_4D4A_4F55_524EL;
+
+	/**
+	 * The version of the format of the journals, which is part of every key so that journals of an
+	 * older format are never resumed.
+	 */
+	private static final int FORMAT_VERSION = 5;
+
+	private static final String JOURNAL_EXTENSION = ".journal";
+
+	private final Path m_oPath;
+
+	private final FileChannel m_oChannel;
+
+	// the completed trials by heuristic and trial ID
+	private final Map<Long, Entry> m_oEntries = new HashMap<>();
+
+	private TrialJournal(Path oPath, FileChannel oChannel) {
+
+		this.m_oPath = oPath;
+		this.m_oChannel = oChannel;
+	}
+
+	/**
+	 * @return Whether journalling is enabled and the fingerprint of the code could be computed.
+	 */
+	public static boolean isEnabled() {
+
+		return Boolean.parseBoolean(System.getProperty(ENABLED_PROPERTY, "true")) && CodeFingerprint.getAll() != null;
+	}
+
+	/**
+	 * @return The directory holding the journals.
+	 */
+	public static Path getDirectory() {
+
+		return Paths.get(System.getProperty(DIRECTORY_PROPERTY, DEFAULT_DIRECTORY));
+	}
+
+	/**
+	 * Creates the key of the journal of an experiment.
+	 *
+	 * @param strExperiment Describes the runner, its configuration and its heuristics.
+	 * @return The key.
+	 */
+	static String getKey(String strExperiment) {
+
+		return "format " + FORMAT_VERSION
+				+ "\nexperiment " + strExperiment
+				+ "\ncode " + CodeFingerprint.getAll() + "\n";
+	}
+
+	/**
+	 * Opens the journal of an experiment, reading the trials it has already completed. A journal
+	 * which belongs to a different experiment is started afresh, and any records following the first
+	 * which cannot be read are cut off.
+	 *
+	 * @param strKey The key of the experiment.
+	 * @return The journal.
+	 * @throws IOException If the journal could not be opened or created.
+	 */
+	static TrialJournal open(String strKey) throws IOException {
+
+		Path oPath = getDirectory().resolve(CodeFingerprint.sha256(strKey) + JOURNAL_EXTENSION);
+		Files.createDirectories(oPath.getParent());
+		FileChannel oChannel = FileChannel.open(oPath, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+		try {
+
+			TrialJournal oJournal = new TrialJournal(oPath, oChannel);
+			long lEnd = oJournal.readHeader(strKey) ? oJournal.readEntries() : oJournal.writeHeader(strKey);
+			oChannel.truncate(lEnd);
+			oChannel.position(lEnd);
+			return oJournal;
+
+		} catch (IOException | RuntimeException e) {
+
+			oChannel.close();
+			throw e;
+		}
+	}
+
+	/**
+	 * @return Whether the journal starts with the header of the given key.
+	 */
+	private boolean readHeader(String strKey) throws IOException {
+
+		long lSize = m_oChannel.size();
+		if (lSize < Long.BYTES) {
+			return false;
+		}
+
+		byte[] abHeader = new byte[(int) Math.min(lSize, Long.BYTES + Short.BYTES + 3L * strKey.length())];
+		m_oChannel.read(ByteBuffer.wrap(abHeader), 0L);
+		try {
+
+			DataInputStream oInput = new DataInputStream(new ByteArrayInputStream(abHeader));
+			return oInput.readLong() == MAGIC && oInput.readUTF().equals(strKey);
+
+		} catch (IOException e) {
+
+			return false;
+		}
+	}
+
+	/**
+	 * Starts the journal afresh with the header of the given key.
+	 *
+	 * @return The position following the header.
+	 */
+	private long writeHeader(String strKey) throws IOException {
+
+		ByteArrayOutputStream oBytes = new ByteArrayOutputStream();
+		DataOutputStream oOutput = new DataOutputStream(oBytes);
+		oOutput.writeLong(MAGIC);
+		oOutput.writeUTF(strKey);
+		oOutput.flush();
+
+		m_oChannel.truncate(0L);
+		ByteBuffer oBuffer = ByteBuffer.wrap(oBytes.toByteArray());
+		while (oBuffer.hasRemaining()) {
+			m_oChannel.write(oBuffer, oBuffer.position());
+		}
+
+		m_oChannel.force(false);
+		return oBytes.size();
+	}
+
+	/**
+	 * Reads the records following the header up to the first which is truncated or corrupt.
+	 *
+	 * @return The position following the last complete record.
+	 */
+	private long readEntries() throws IOException {
+
+		byte[] abJournal = new byte[Math.toIntExact(m_oChannel.size())];
+		ByteBuffer oBuffer = ByteBuffer.wrap(abJournal);
+		while (oBuffer.hasRemaining()) {
+			if (m_oChannel.read(oBuffer, oBuffer.position()) < 0) {
+				throw new IOException("unexpected end of journal");
+			}
+		}
+
+		DataInputStream oHeader = new DataInputStream(new ByteArrayInputStream(abJournal));
+		oHeader.readLong();
+		oHeader.readUTF();
+		int iPosition = abJournal.length - oHeader.available();
+
+		while (iPosition + 2 * Integer.BYTES <= abJournal.length) {
+
+			int iLength = ByteBuffer.wrap(abJournal, iPosition, Integer.BYTES).getInt();
+			if (iLength < 0 || iLength > abJournal.length - iPosition - 2 * Integer.BYTES) {
+				break;
+			}
+
+			int iPayload = iPosition + Integer.BYTES;
+			CRC32 oCrc = new CRC32();
+			oCrc.update(abJournal, iPayload, iLength);
+			if (ByteBuffer.wrap(abJournal, iPayload + iLength, Integer.BYTES).getInt() != (int) oCrc.getValue()) {
+				break;
+			}
+
+			try {
+
+				DataInputStream oInput = new DataInputStream(new ByteArrayInputStream(abJournal, iPayload, iLength));
+				int iHeuristicId = oInput.readInt();
+				int iTrialId = oInput.readInt();
+				long lSeed = oInput.readLong();
+				m_oEntries.put(getEntryKey(iHeuristicId, iTrialId), new Entry(lSeed, RunData.readFrom(oInput, iHeuristicId, iTrialId)));
+
+			} catch (IOException e) {
+
+				break;
+			}
+
+			iPosition = iPayload + iLength + Integer.BYTES;
+		}
+
+		if (iPosition < abJournal.length) {
+			System.err.println("Discarding " + (abJournal.length - iPosition) + " bytes of incomplete trials at the end of " + m_oPath);
+		}
+
+		return iPosition;
+	}
+
+	/**
+	 * @return The number of completed trials in the journal.
+	 */
+	public synchronized int size() {
+
+		return m_oEntries.size();
+	}
+
+	/**
+	 * Loads a completed trial.
+	 *
+	 * @param iHeuristicId The ID of the heuristic under test.
+	 * @param iTrialId The ID of the trial.
+	 * @param lSeed The seed of the trial, which must match the one it was run with.
+	 * @return The result of the trial, or null if it has not completed.
+	 */
+	synchronized RunData load(int iHeuristicId, int iTrialId, long lSeed) {
+
+		Entry oEntry = m_oEntries.get(getEntryKey(iHeuristicId, iTrialId));
+		return oEntry != null && oEntry.lSeed() == lSeed ? oEntry.oRunData() : null;
+	}
+
+	/**
+	 * Appends a completed trial and forces it to the storage device. A trial which cannot be written is
+	 * reported and otherwise ignored, so it will be run again if the experiment is resumed.
+	 *
+	 * @param iHeuristicId The ID of the heuristic under test.
+	 * @param iTrialId The ID of the trial.
+	 * @param lSeed The seed of the trial.
+	 * @param oRunData The result of the trial.
+	 */
+	void append(int iHeuristicId, int iTrialId, long lSeed, RunData oRunData) {
+
+		try {
+
+			ByteArrayOutputStream oBytes = new ByteArrayOutputStream();
+			DataOutputStream oOutput = new DataOutputStream(oBytes);
+			oOutput.writeInt(0);
+			oOutput.writeInt(iHeuristicId);
+			oOutput.writeInt(iTrialId);
+			oOutput.writeLong(lSeed);
+			oRunData.writeTo(oOutput);
+			oOutput.writeInt(0);
+			oOutput.flush();
+
+			byte[] abRecord = oBytes.toByteArray();
+			int iLength = abRecord.length - 2 * Integer.BYTES;
+			CRC32 oCrc = new CRC32();
+			oCrc.update(abRecord, Integer.BYTES, iLength);
+			ByteBuffer oBuffer = ByteBuffer.wrap(abRecord);
+			oBuffer.putInt(0, iLength);
+			oBuffer.putInt(abRecord.length - Integer.BYTES, (int) oCrc.getValue());
+
+			synchronized (this) {
+
+				while (oBuffer.hasRemaining()) {
+					m_oChannel.write(oBuffer);
+				}
+
+				m_oChannel.force(false);
+				m_oEntries.put(getEntryKey(iHeuristicId, iTrialId), new Entry(lSeed, oRunData));
+			}
+
+		} catch (IOException e) {
+
+			System.err.println("Could not journal trial " + iTrialId + " of heuristic " + iHeuristicId + " to " + m_oPath + ": " + e.getMessage());
+		}
+	}
+
+	/**
+	 * Closes and deletes the journal once its experiment has completed.
+	 */
+	synchronized void delete() {
+
+		try {
+
+			m_oChannel.close();
+			Files.deleteIfExists(m_oPath);
+
+		} catch (IOException e) {
+
+			System.err.println("Could not delete " + m_oPath + ": " + e.getMessage());
+		}
+	}
+
+	public Path getPath() {
+
+		return m_oPath;
+	}
+
+	private static long getEntryKey(int iHeuristicId, int iTrialId) {
+
+		return (long) iHeuristicId << 32 | iTrialId & 0xFFFF_FFFFL;
+	}
+
+	private record Entry(long lSeed, RunData oRunData) {
+
+	}
+}
@@ -0,0 +1,192 @@
+package com.aim;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Runs the (heuristic, trial) jobs of an experiment on a fixed number of dedicated worker threads,
+ * rather than on the common {@code ForkJoinPool} through nested parallel streams.
+ * <p>
+ * Jobs are taken in the order they were submitted. Every trial of an experiment runs on the same
+ * instance with the same evaluation budget, so there is no estimate of their cost by which long
+ * trials could be started first. In background mode the workers run at the
+ * minimum thread priority, so that other work on a shared machine takes precedence where the
+ * operating system honours thread priorities.
+ * <p>
+ * The wall clock and CPU time of every job are recorded. The CPU time is that of the worker
+ * thread, so it does not include any threads started by the trial itself.
+ */
+public class TrialScheduler {
+
+	/**
+	 * Runs a single trial of an experiment.
+	 */
+	@FunctionalInterface
+	public interface Trial {
+
+		RunData run(int iHeuristicId, int iTrialId);
+	}
+
+	private final int m_iNumberOfWorkers;
+
+	private final boolean m_bBackground;
+
+	private final List<Job> m_oJobs = new ArrayList<>();
+
+	/**
+	 * @param iNumberOfWorkers The number of worker threads, at least 1.
+	 * @param bBackground Whether the workers should run at the minimum thread priority.
+	 */
+	public TrialScheduler(int iNumberOfWorkers, boolean bBackground) {
+
+		if (iNumberOfWorkers < 1) {
+			throw new IllegalArgumentException("The number of workers must be at least 1 but was " + iNumberOfWorkers);
+		}
+
+		this.m_iNumberOfWorkers = iNumberOfWorkers;
+		this.m_bBackground = bBackground;
+	}
+
+	/**
+	 * Adds a job to be run by the next call to {@link #runAll(Trial)}.
+	 *
+	 * @param iHeuristicId The ID of the heuristic under test.
+	 * @param iTrialId The ID of the trial.
+	 */
+	public void submit(int iHeuristicId, int iTrialId) {
+
+		m_oJobs.add(new Job(iHeuristicId, iTrialId));
+	}
+
+	/**
+	 * Runs all submitted jobs and waits for them to complete. If a job fails, including with an
+	 * {@link Error} such as {@link OutOfMemoryError}, the remaining jobs are not started and the
+	 * failure is rethrown once the running jobs have completed.
+	 *
+	 * @param oTrial Runs the trial of a job.
+	 * @return The jobs in the order in which they were submitted, with their results and timings.
+	 */
+	public List<Job> runAll(Trial oTrial) {
+
+		ConcurrentLinkedQueue<Job> oQueue = new ConcurrentLinkedQueue<>(m_oJobs);
+
+		ThreadMXBean oThreadMXBean = ManagementFactory.getThreadMXBean();
+		boolean bCpuTimeSupported = oThreadMXBean.isCurrentThreadCpuTimeSupported();
+		AtomicReference<Throwable> oFailure = new AtomicReference<>();
+
+		List<Thread> oWorkers = new ArrayList<>(m_iNumberOfWorkers);
+		for (int i = 0; i < Math.min(m_iNumberOfWorkers, m_oJobs.size()); i++) {
+
+			Thread oWorker = new Thread(() -> {
+
+				Job oJob;
+				while (oFailure.get() == null && (oJob = oQueue.poll()) != null) {
+
+					long lStartCpuTime = bCpuTimeSupported ? oThreadMXBean.getCurrentThreadCpuTime() : 0L;
+					long lStartWallTime = System.nanoTime();
+					try {
+
+						oJob.m_oResult = oTrial.run(oJob.m_iHeuristicId, oJob.m_iTrialId);
+
+					} catch (Throwable t) {
+
+						oFailure.compareAndSet(null, t);
+					}
+
+					oJob.m_lWallTime = System.nanoTime() - lStartWallTime;
+					oJob.m_lCpuTime = bCpuTimeSupported ? oThreadMXBean.getCurrentThreadCpuTime() - lStartCpuTime : -1L;
+				}
+
+			}, "trial-worker-" + i);
+
+			oWorker.setDaemon(m_bBackground);
+			oWorker.setPriority(m_bBackground ? Thread.MIN_PRIORITY : Thread.NORM_PRIORITY);
+			oWorkers.add(oWorker);
+			oWorker.start();
+		}
+
+		try {
+
+			for (Thread oWorker : oWorkers) {
+				oWorker.join();
+			}
+
+		} catch (InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+			oWorkers.forEach(Thread::interrupt);
+			throw new IllegalStateException("Interrupted while waiting for the trials to complete", e);
+		}
+
+		Throwable oThrown = oFailure.get();
+		if (oThrown instanceof RuntimeException e) {
+			throw e;
+		} else if (oThrown instanceof Error e) {
+			throw e;
+		} else if (oThrown != null) {
+			throw new IllegalStateException("A trial failed", oThrown);
+		}
+
+		List<Job> oCompleted = List.copyOf(m_oJobs);
+		m_oJobs.clear();
+		return oCompleted;
+	}
+
+	/**
+	 * A (heuristic, trial) job, and once it has been run, its result and timings.
+	 */
+	public static final class Job {
+
+		private final int m_iHeuristicId;
+
+		private final int m_iTrialId;
+
+		// written by the worker that ran the job, read after the worker has been joined
+		private RunData m_oResult;
+
+		private long m_lWallTime;
+
+		private long m_lCpuTime;
+
+		private Job(int iHeuristicId, int iTrialId) {
+
+			this.m_iHeuristicId = iHeuristicId;
+			this.m_iTrialId = iTrialId;
+		}
+
+		public int getHeuristicId() {
+
+			return m_iHeuristicId;
+		}
+
+		public int getTrialId() {
+
+			return m_iTrialId;
+		}
+
+		public RunData getResult() {
+
+			return m_oResult;
+		}
+
+		/**
+		 * @return The wall clock time taken by the job in nanoseconds.
+		 */
+		public long getWallTime() {
+
+			return m_lWallTime;
+		}
+
+		/**
+		 * @return The CPU time of the worker thread taken by the job in nanoseconds, or -1 if the JVM does not support measuring it.
+		 */
+		public long getCpuTime() {
+
+			return m_lCpuTime;
+		}
+	}
+}
@@ -0,0 +1,54 @@
+package com.aim.events;
+
+/**
+ * Limits the rate at which a source, e.g. the main loop of a search method, commits a kind of
+ * frequent event to at most one per interval, so that recording the events with Java Flight
+ * Recorder does not distort the number of evaluations per second. The events which were suppressed
+ * are counted, and the count is carried by the next event committed.
+ * <p>
+ * A throttle belongs to a single search, and therefore to the single thread running it, so it is
+ * not synchronised. It is only consulted once an event is known to be enabled, so it costs nothing
+ * unless a recording is in progress. The interval is given in microseconds by the system property
+ * {@value #INTERVAL_PROPERTY}, and is {@value #DEFAULT_INTERVAL} by default, i.e. at most 1000
+ * events of each kind per second per search; 0 disables throttling.
+ */
+public final class EventThrottle {
+
+	public static final String INTERVAL_PROPERTY = "com.aim.events.throttleInterval";
+
+	public static final long DEFAULT_INTERVAL = 1000L;
+
+	private static final long INTERVAL_NANOS = Math.max(0L, Long.getLong(INTERVAL_PROPERTY, DEFAULT_INTERVAL)) * 1000L;
+
+	private long m_lNextTime = System.nanoTime();
+
+	private long m_lSuppressed;
+
+	/**
+	 * Decides whether an event may be committed now, counting it as suppressed otherwise.
+	 *
+	 * @return Whether the interval since the last event committed has elapsed.
+	 */
+	public boolean acquire() {
+
+		long lNow = System.nanoTime();
+		if (lNow - m_lNextTime < 0L) {
+
+			m_lSuppressed++;
+			return false;
+		}
+
+		m_lNextTime = lNow + INTERVAL_NANOS;
+		return true;
+	}
+
+	/**
+	 * @return The number of events suppressed since the last call, which is then reset.
+	 */
+	public long takeSuppressed() {
+
+		long lSuppressed = m_lSuppressed;
+		m_lSuppressed = 0L;
+		return lSuppressed;
+	}
+}
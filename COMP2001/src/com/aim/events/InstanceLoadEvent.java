@@ -0,0 +1,35 @@
+package com.aim.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Spans the loading of the clause database of an instance by the {@code InstanceCache}, from its
+ * precompiled image or its DIMACS file.
+ */
+@Name("com.aim.InstanceLoad")
+@Label("Instance Load")
+@Category({ "AIM", "Instances" })
+@Description("The clause database of an instance was loaded")
+@StackTrace(false)
+public final class InstanceLoadEvent extends jdk.jfr.Event {
+
+	@Label("Instance")
+	public int instance;
+
+	@Label("Path")
+	public String path;
+
+	@Label("From Image")
+	@Description("Whether the instance was loaded from its precompiled image rather than parsed")
+	public boolean fromImage;
+
+	@Label("Variables")
+	public int variables;
+
+	@Label("Clauses")
+	public int clauses;
+}
@@ -0,0 +1,52 @@
+package com.aim.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Committed when the best-ever solution of a trial improves, throttled by an {@link EventThrottle}
+ * since early in a search almost every evaluation finds a new best solution. The best objective
+ * value at the end of the trial is recorded by its {@link TrialEndEvent}.
+ */
+@Name("com.aim.NewBestSolution")
+@Label("New Best Solution")
+@Category({ "AIM", "Search" })
+@Description("The best-ever solution of a trial improved, sampled at most once per throttle interval")
+@StackTrace(false)
+public final class NewBestSolutionEvent extends jdk.jfr.Event {
+
+	@Label("Objective Value")
+	@Description("The number of clauses broken by the new best solution")
+	public int objectiveValue;
+
+	@Label("Evaluations")
+	@Description("The number of evaluations used, including the one which found the solution")
+	public long evaluations;
+
+	@Label("Suppressed Improvements")
+	@Description("The number of new best solutions since the previous event which were not recorded")
+	public long suppressedImprovements;
+
+	/**
+	 * Commits an event for a new best solution if the event is enabled and the throttle allows it.
+	 *
+	 * @param oThrottle The throttle of the trial.
+	 * @param lEvaluations The number of evaluations used.
+	 * @param iObjectiveValue The objective value of the new best solution.
+	 */
+	public static void commit(EventThrottle oThrottle, long lEvaluations, int iObjectiveValue) {
+
+		NewBestSolutionEvent oEvent = new NewBestSolutionEvent();
+		if (!oEvent.isEnabled() || !oThrottle.acquire()) {
+			return;
+		}
+
+		oEvent.objectiveValue = iObjectiveValue;
+		oEvent.evaluations = lEvaluations;
+		oEvent.suppressedImprovements = oThrottle.takeSuppressed();
+		oEvent.commit();
+	}
+}
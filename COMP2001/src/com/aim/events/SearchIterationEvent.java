@@ -0,0 +1,62 @@
+package com.aim.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Committed at the end of an iteration of the main loop of a search method, throttled by an
+ * {@link EventThrottle} so that at most one iteration per interval is recorded.
+ */
+@Name("com.aim.SearchIteration")
+@Label("Search Iteration")
+@Category({ "AIM", "Search" })
+@Description("An iteration of a search method, sampled at most once per throttle interval")
+@StackTrace(false)
+public final class SearchIterationEvent extends jdk.jfr.Event {
+
+	@Label("Search Method")
+	public String searchMethod;
+
+	@Label("Accepted")
+	@Description("Whether the candidate solution was accepted as the solution-in-hand")
+	public boolean accepted;
+
+	@Label("Delta")
+	@Description("The objective value of the candidate solution less that of the solution-in-hand")
+	public int delta;
+
+	@Label("Objective Value")
+	@Description("The objective value of the solution-in-hand after the iteration")
+	public int objectiveValue;
+
+	@Label("Suppressed Iterations")
+	@Description("The number of iterations since the previous event which were not recorded")
+	public long suppressedIterations;
+
+	/**
+	 * Commits an event for an iteration if the event is enabled and the throttle allows it.
+	 *
+	 * @param oThrottle The throttle of the search.
+	 * @param strSearchMethod The name of the search method.
+	 * @param bAccepted Whether the candidate solution was accepted.
+	 * @param iDelta The objective value of the candidate solution less that of the solution-in-hand.
+	 * @param iObjectiveValue The objective value of the solution-in-hand after the iteration.
+	 */
+	public static void commit(EventThrottle oThrottle, String strSearchMethod, boolean bAccepted, int iDelta, int iObjectiveValue) {
+
+		SearchIterationEvent oEvent = new SearchIterationEvent();
+		if (!oEvent.isEnabled() || !oThrottle.acquire()) {
+			return;
+		}
+
+		oEvent.searchMethod = strSearchMethod;
+		oEvent.accepted = bAccepted;
+		oEvent.delta = iDelta;
+		oEvent.objectiveValue = iObjectiveValue;
+		oEvent.suppressedIterations = oThrottle.takeSuppressed();
+		oEvent.commit();
+	}
+}
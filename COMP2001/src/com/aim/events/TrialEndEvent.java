@@ -0,0 +1,41 @@
+package com.aim.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Spans a trial from its start to its end, committed when the trial ends.
+ */
+@Name("com.aim.TrialEnd")
+@Label("Trial")
+@Category({ "AIM", "Trials" })
+@Description("A trial of a heuristic, from its start to its end")
+@StackTrace(false)
+public final class TrialEndEvent extends jdk.jfr.Event {
+
+	@Label("Instance")
+	public int instance;
+
+	@Label("Seed")
+	public long seed;
+
+	@Label("Heuristic ID")
+	public int heuristicId;
+
+	@Label("Heuristic")
+	public String heuristic;
+
+	@Label("Trial ID")
+	public int trialId;
+
+	@Label("Best Objective Value")
+	@Description("The number of clauses broken by the best solution found")
+	public int bestObjectiveValue;
+
+	@Label("Evaluations to Target")
+	@Description("The evaluations used to reach the target objective value, or -1 if it was not reached")
+	public long evaluationsToTarget;
+}
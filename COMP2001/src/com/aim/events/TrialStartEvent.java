@@ -0,0 +1,35 @@
+package com.aim.events;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Committed when a trial starts running, so that the trials in progress can be seen on the timeline
+ * of a recording before they end; trials loaded from the result cache or a journal are not run.
+ */
+@Name("com.aim.TrialStart")
+@Label("Trial Start")
+@Category({ "AIM", "Trials" })
+@Description("A trial of a heuristic started running")
+@StackTrace(false)
+public final class TrialStartEvent extends jdk.jfr.Event {
+
+	@Label("Instance")
+	public int instance;
+
+	@Label("Seed")
+	public long seed;
+
+	@Label("Heuristic ID")
+	public int heuristicId;
+
+	@Label("Heuristic")
+	@Description("The description of the heuristic and its parameter settings, if the runner gives one")
+	public String heuristic;
+
+	@Label("Trial ID")
+	public int trialId;
+}
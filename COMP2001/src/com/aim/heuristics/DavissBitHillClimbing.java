@@ -1,11 +1,9 @@
 package com.aim.heuristics;
 
 import uk.ac.nott.cs.aim.domains.chesc2014_SAT.SAT;
-import uk.ac.nott.cs.aim.helperfunctions.ArrayMethods;
 import uk.ac.nott.cs.aim.satheuristics.SATHeuristic;
 
 
-import java.util.ArrayList;
 import java.util.Random;
 
 /**
@@ -14,11 +12,21 @@ import java.util.Random;
  * solution representation as per a random permutation order of variable indices.
  * Each bit flip is evaluated and accepted only if it improves the objective
  * function value. If no improvement is found, the bit flip is reverted.
+ * <p>
+ * The permutation is held in a primitive array that is reused between applications, so a pass
+ * allocates nothing. It is reset and shuffled in place exactly as
+ * {@code ArrayMethods.shuffle(ArrayList, Random)} would shuffle a new list of indices, hence the
+ * random number generator is consumed in the same order and seeded results are unchanged.
  *
  * @author Warren G. Jackson
  */
 public class DavissBitHillClimbing extends SATHeuristic {
 
+    /**
+     * The permutation of variable indices, reused between applications of the heuristic.
+     */
+    private int[] m_aiPermutation = new int[0];
+
     public DavissBitHillClimbing(Random oRandom) {
 
         super(oRandom);
@@ -50,20 +58,15 @@ public class DavissBitHillClimbing extends SATHeuristic {
 
         int bestEval = oProblem.getObjectiveFunctionValue(iSolutionIndex);
 
-        ArrayList<Integer> order = new ArrayList<Integer>();
-        for (int i = 0; i < oProblem.getNumberOfVariables(); i++) {
-            order.add(i);
-        }
-
-        ArrayList<Integer> shuffled = ArrayMethods.shuffle(order,m_oRandom);
+        int[] perm = createRandomPermutation(oProblem.getNumberOfVariables());
 
-        for (int i = 0; i < shuffled.size(); i++ ) {
-            oProblem.bitFlip(shuffled.get(i), iSolutionIndex);
+        for (int i = 0; i < perm.length; i++ ) {
+            oProblem.bitFlip(perm[i], iSolutionIndex);
             int tempEval = oProblem.getObjectiveFunctionValue(iSolutionIndex);
             if (tempEval <= bestEval) {
                 bestEval = tempEval;
             } else{
-                oProblem.bitFlip(shuffled.get(i), iSolutionIndex);
+                oProblem.bitFlip(perm[i], iSolutionIndex);
             }
 
         }
@@ -71,6 +74,38 @@ public class DavissBitHillClimbing extends SATHeuristic {
 
     }
 
+    /**
+     * Creates a random permutation of the variable indices in the reused permutation array.
+     * Starting from the identity, each index is swapped with a random index as in
+     * {@code ArrayMethods.shuffle}.
+     *
+     * @param iNumberOfVariables The number of variables in the solution.
+     * @return The permutation, valid until the next application of the heuristic.
+     */
+    private int[] createRandomPermutation(int iNumberOfVariables) {
+
+        if (m_aiPermutation.length != iNumberOfVariables) {
+            m_aiPermutation = new int[iNumberOfVariables];
+        }
+
+        int[] perm = m_aiPermutation;
+        for (int i = 0; i < perm.length; i++) {
+            perm[i] = i;
+        }
+
+        for (int i = 0; i < perm.length; i++) {
+
+            //swap ith index with random index
+            int iIndex = m_oRandom.nextInt(perm.length);
+            int iTemp = perm[i];
+
+            perm[i] = perm[iIndex];
+            perm[iIndex] = iTemp;
+        }
+
+        return perm;
+    }
+
     @Override
     public String getHeuristicName() {
 
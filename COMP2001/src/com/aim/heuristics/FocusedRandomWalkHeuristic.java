@@ -0,0 +1,57 @@
+package com.aim.heuristics;
+
+import java.util.Random;
+
+import com.aim.pseudorandom.RandomBitFlipHeuristic;
+import com.aim.sat.IncrementalSAT;
+import uk.ac.nott.cs.aim.domains.chesc2014_SAT.SAT;
+
+/**
+ * Base class of the focused random walk heuristics, which only flip variables of broken clauses. A
+ * uniformly random bit flip usually touches no broken clause on the larger instances, whereas
+ * every flip of a focused random walk fixes at least the selected clause.
+ * <p>
+ * Each application selects one of the broken clauses uniformly at random, in constant time from the
+ * set of broken clauses maintained by an {@link IncrementalSAT}, and flips the variable chosen by
+ * {@link #selectVariable(IncrementalSAT, int, int)} from the break counts of the clause's variables.
+ * As with {@link RandomBitFlipHeuristic}, the solution is not evaluated, so the heuristic can be used
+ * as a mutation or local search heuristic of an iterated local search, or as the step of a
+ * {@link com.aim.pseudorandom.RandomWalk}. If no clause is broken, or the problem is not an
+ * {@link IncrementalSAT}, a uniformly random bit is flipped instead.
+ */
+public abstract class FocusedRandomWalkHeuristic extends RandomBitFlipHeuristic {
+
+	protected FocusedRandomWalkHeuristic(Random oRandom) {
+
+		super(oRandom);
+	}
+
+	@Override
+	public void applyHeuristic(SAT oProblem, int iSolutionIndex) {
+
+		if (!(oProblem instanceof IncrementalSAT oIncrementalProblem)) {
+
+			super.applyHeuristic(oProblem, iSolutionIndex);
+			return;
+		}
+
+		int iClause = oIncrementalProblem.getRandomBrokenClause(iSolutionIndex, m_oRandom);
+		if (iClause < 0) {
+
+			super.applyHeuristic(oProblem, iSolutionIndex);
+			return;
+		}
+
+		oProblem.bitFlip(selectVariable(oIncrementalProblem, iSolutionIndex, iClause), iSolutionIndex);
+	}
+
+	/**
+	 * Chooses which variable of a broken clause to flip.
+	 *
+	 * @param oProblem The problem to be solved.
+	 * @param iSolutionIndex The index of the solution in memory.
+	 * @param iClause The index of the broken clause.
+	 * @return The index of the variable to flip.
+	 */
+	protected abstract int selectVariable(IncrementalSAT oProblem, int iSolutionIndex, int iClause);
+}
@@ -0,0 +1,101 @@
+package com.aim.heuristics;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import com.aim.sat.ClauseDatabase;
+import com.aim.sat.IncrementalSAT;
+
+/**
+ * The ProbSAT heuristic of Balint and Schöning with the polynomial break function. A variable of a
+ * randomly selected broken clause is flipped with probability proportional to
+ * {@code (eps + break(v))^-cb}, so variables which break fewer clauses are preferred without
+ * ever ruling out the others.
+ * <p>
+ * The value of the break function is cached for each break count, so selecting a variable costs one
+ * pass over the clause and one random number.
+ */
+public class ProbSATHeuristic extends FocusedRandomWalkHeuristic {
+
+	/**
+	 * The settings of the polynomial break function which are reported to work well for random 3-SAT.
+	 */
+	public static final double DEFAULT_CB = 2.38, DEFAULT_EPS = 1.0;
+
+	private final double m_dCb;
+
+	private final double m_dEps;
+
+	// the break function indexed by break count, extended as larger counts are seen
+	private double[] m_adBreakFunction = new double[0];
+
+	// the cumulative probabilities of the variables of the current clause, reused between applications
+	private double[] m_adCumulative = new double[0];
+
+	public ProbSATHeuristic(Random oRandom) {
+
+		this(oRandom, DEFAULT_CB, DEFAULT_EPS);
+	}
+
+	/**
+	 * @param oRandom The random number generator.
+	 * @param dCb The exponent of the break function.
+	 * @param dEps The constant added to the break count in the break function.
+	 */
+	public ProbSATHeuristic(Random oRandom, double dCb, double dEps) {
+
+		super(oRandom);
+
+		this.m_dCb = dCb;
+		this.m_dEps = dEps;
+	}
+
+	private double breakFunction(int iBreak) {
+
+		if (iBreak >= m_adBreakFunction.length) {
+
+			int iOldLength = m_adBreakFunction.length;
+			m_adBreakFunction = Arrays.copyOf(m_adBreakFunction, Math.max(iBreak + 1, iOldLength << 1));
+			for (int b = iOldLength; b < m_adBreakFunction.length; b++) {
+				m_adBreakFunction[b] = Math.pow(m_dEps + b, -m_dCb);
+			}
+		}
+
+		return m_adBreakFunction[iBreak];
+	}
+
+	/**
+	 * <pre>
+	 *	return v of the clause with probability f(break(v)) / sum of f(break(u)) over the variables u of the clause
+	 * </pre>
+	 */
+	@Override
+	protected int selectVariable(IncrementalSAT oProblem, int iSolutionIndex, int iClause) {
+
+		ClauseDatabase oClauses = oProblem.getClauseDatabase();
+		int iLength = oClauses.getClauseLength(iClause);
+		if (iLength > m_adCumulative.length) {
+			m_adCumulative = new double[iLength];
+		}
+
+		double dSum = 0.0d;
+		for (int k = 0; k < iLength; k++) {
+			dSum += breakFunction(oProblem.getBreakCount(iSolutionIndex, oClauses.getVariable(iClause, k)));
+			m_adCumulative[k] = dSum;
+		}
+
+		double dThreshold = m_oRandom.nextDouble() * dSum;
+		int k = 0;
+		while (k < iLength - 1 && m_adCumulative[k] <= dThreshold) {
+			k++;
+		}
+
+		return oClauses.getVariable(iClause, k);
+	}
+
+	@Override
+	public String getHeuristicName() {
+
+		return "ProbSAT";
+	}
+}
@@ -0,0 +1,61 @@
+package com.aim.heuristics;
+
+import java.util.Random;
+
+import com.aim.sat.IncrementalSAT;
+import uk.ac.nott.cs.aim.domains.chesc2014_SAT.SAT;
+
+/**
+ * Steepest Descent Hill Climbing driven by make/break scores. Rather than flipping, evaluating and
+ * reverting every variable, the score of each variable (the number of broken clauses flipping it
+ * would fix, minus the number it would break) is maintained incrementally by the problem, with the
+ * variables kept in score buckets so that the best move is found without scanning all of them.
+ * <p>
+ * As with {@link SteepestDescentHillClimbing}, non-worsening moves are accepted. Ties between
+ * equally good variables are broken uniformly at random with the heuristic's random number
+ * generator. A single step costs one evaluation rather than one per variable, so the evaluation
+ * budget is spent on many more steps. When the problem is not an {@link IncrementalSAT}, the
+ * standard steepest descent pass is used instead.
+ */
+public class ScoreBucketSteepestDescentHillClimbing extends SteepestDescentHillClimbing {
+
+	public ScoreBucketSteepestDescentHillClimbing(Random oRandom) {
+
+		super(oRandom);
+	}
+
+	/**
+	 * <pre>
+	 *	evaluate(currentSolution)
+	 *	bestIndex = random variable with the highest score(j) = make(j) - break(j)
+	 *
+	 *	if(score(bestIndex) >= 0) bitFlip(currentSolution, bestIndex)
+	 * </pre>
+	 *
+	 * @param oProblem The problem to be solved.
+	 * @param iSolutionIndex The index of the solution in memory to apply this heuristic to.
+	 */
+	@Override
+	public void applyHeuristic(SAT oProblem, int iSolutionIndex) {
+
+		if (!(oProblem instanceof IncrementalSAT oIncrementalProblem)) {
+
+			super.applyHeuristic(oProblem, iSolutionIndex);
+			return;
+		}
+
+		// counts the evaluation of the solution-in-hand as the standard pass does
+		oProblem.getObjectiveFunctionValue(iSolutionIndex);
+
+		int iBestIndex = oIncrementalProblem.getBestFlip(iSolutionIndex, m_oRandom);
+		if (oIncrementalProblem.getFlipScore(iSolutionIndex, iBestIndex) >= 0) {
+			oProblem.bitFlip(iBestIndex, iSolutionIndex);
+		}
+	}
+
+	@Override
+	public String getHeuristicName() {
+
+		return "SDHC (score buckets)";
+	}
+}
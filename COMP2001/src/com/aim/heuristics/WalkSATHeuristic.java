@@ -0,0 +1,82 @@
+package com.aim.heuristics;
+
+import java.util.Random;
+
+import com.aim.sat.ClauseDatabase;
+import com.aim.sat.IncrementalSAT;
+
+/**
+ * The WalkSAT/SKC heuristic of Selman, Kautz and Cohen. A variable of a randomly selected broken
+ * clause is flipped; if flipping one of its variables breaks no other clause (a freebie), such a
+ * variable is flipped, otherwise with probability {@code noise} a random variable of the clause is
+ * flipped, and with probability {@code 1 - noise} a variable with the fewest breaks.
+ */
+public class WalkSATHeuristic extends FocusedRandomWalkHeuristic {
+
+	/**
+	 * The noise setting which is reported to work well for random 3-SAT.
+	 */
+	public static final double DEFAULT_NOISE = 0.567;
+
+	private final double m_dNoise;
+
+	public WalkSATHeuristic(Random oRandom) {
+
+		this(oRandom, DEFAULT_NOISE);
+	}
+
+	/**
+	 * @param oRandom The random number generator.
+	 * @param dNoise The probability of a random walk step when the clause has no freebie.
+	 */
+	public WalkSATHeuristic(Random oRandom, double dNoise) {
+
+		super(oRandom);
+
+		this.m_dNoise = dNoise;
+	}
+
+	/**
+	 * <pre>
+	 *	minBreak = min break(v) over the variables v of the clause
+	 *	if(minBreak == 0 || random() >= noise) return random v with break(v) == minBreak
+	 *	else return random v of the clause
+	 * </pre>
+	 */
+	@Override
+	protected int selectVariable(IncrementalSAT oProblem, int iSolutionIndex, int iClause) {
+
+		ClauseDatabase oClauses = oProblem.getClauseDatabase();
+		int iLength = oClauses.getClauseLength(iClause);
+
+		int iMinBreak = Integer.MAX_VALUE, iTies = 0, iSelected = -1;
+		for (int k = 0; k < iLength; k++) {
+
+			int iVariable = oClauses.getVariable(iClause, k);
+			int iBreak = oProblem.getBreakCount(iSolutionIndex, iVariable);
+			if (iBreak < iMinBreak) {
+
+				iMinBreak = iBreak;
+				iSelected = iVariable;
+				iTies = 1;
+
+			} else if (iBreak == iMinBreak && m_oRandom.nextInt(++iTies) == 0) {
+
+				// reservoir sampling selects each of the tied variables with equal probability
+				iSelected = iVariable;
+			}
+		}
+
+		if (iMinBreak == 0 || m_oRandom.nextDouble() >= m_dNoise) {
+			return iSelected;
+		}
+
+		return oClauses.getVariable(iClause, m_oRandom.nextInt(iLength));
+	}
+
+	@Override
+	public String getHeuristicName() {
+
+		return "WalkSAT/SKC";
+	}
+}
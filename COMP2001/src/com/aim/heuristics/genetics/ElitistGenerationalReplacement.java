@@ -0,0 +1,56 @@
+package com.aim.heuristics.genetics;
+
+import uk.ac.nott.cs.aim.domains.chesc2014_SAT.SAT;
+import uk.ac.nott.cs.aim.satheuristics.genetics.PopulationReplacement;
+
+/**
+ * Generational replacement with elitism. The offspring, stored after the parents in memory, replace
+ * the parents, except that if the best parent is better than every offspring it replaces the worst
+ * offspring, so the best solution of the population is never lost.
+ */
+public class ElitistGenerationalReplacement extends PopulationReplacement {
+
+	@Override
+	protected int[] getNextGeneration(SAT oProblem, int iPopulationSize) {
+
+		int iBestParent = 0, iBestOffspring = iPopulationSize, iWorstOffspring = iPopulationSize;
+		int[] aiObjectiveValues = new int[iPopulationSize << 1];
+		for (int i = 0; i < aiObjectiveValues.length; i++) {
+
+			aiObjectiveValues[i] = oProblem.getObjectiveFunctionValue(i);
+			if (i < iPopulationSize) {
+
+				if (aiObjectiveValues[i] < aiObjectiveValues[iBestParent]) {
+					iBestParent = i;
+				}
+
+			} else {
+
+				if (aiObjectiveValues[i] < aiObjectiveValues[iBestOffspring]) {
+					iBestOffspring = i;
+				}
+
+				if (aiObjectiveValues[i] >= aiObjectiveValues[iWorstOffspring]) {
+					iWorstOffspring = i;
+				}
+			}
+		}
+
+		int[] aiNextGeneration = new int[iPopulationSize];
+		for (int i = 0; i < iPopulationSize; i++) {
+			aiNextGeneration[i] = iPopulationSize + i;
+		}
+
+		if (aiObjectiveValues[iBestParent] < aiObjectiveValues[iBestOffspring]) {
+			aiNextGeneration[iWorstOffspring - iPopulationSize] = iBestParent;
+		}
+
+		return aiNextGeneration;
+	}
+
+	@Override
+	public String toString() {
+
+		return "Elitist Generational Replacement";
+	}
+}
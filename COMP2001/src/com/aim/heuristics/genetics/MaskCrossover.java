@@ -0,0 +1,62 @@
+package com.aim.heuristics.genetics;
+
+import java.util.Random;
+
+import com.aim.sat.IncrementalSAT;
+import uk.ac.nott.cs.aim.domains.chesc2014_SAT.SAT;
+import uk.ac.nott.cs.aim.satheuristics.genetics.CrossoverHeuristic;
+
+/**
+ * Base class of the crossover heuristics which exchange the values of a set of variables between
+ * two parents. The variables are chosen as a mask packed 64 variables to a word, so that an
+ * {@link IncrementalSAT} can recombine the parents a word at a time; on a plain {@code SAT} the
+ * parents are copied into the children and the masked bits are exchanged one at a time, giving the
+ * same children.
+ * <p>
+ * The children must be stored at different indices from the parents.
+ */
+public abstract class MaskCrossover extends CrossoverHeuristic {
+
+	// the mask, reused between applications
+	private long[] m_alMask = new long[0];
+
+	protected MaskCrossover(Random oRandom) {
+
+		super(oRandom);
+	}
+
+	@Override
+	public void applyHeuristic(SAT oProblem, int iParent1Index, int iParent2Index, int iChild1Index, int iChild2Index) {
+
+		int iNumberOfVariables = oProblem.getNumberOfVariables();
+		int iWords = (iNumberOfVariables + 63) >>> 6;
+		if (m_alMask.length != iWords) {
+			m_alMask = new long[iWords];
+		}
+
+		createMask(m_alMask, iNumberOfVariables);
+
+		if (oProblem instanceof IncrementalSAT oIncrementalProblem) {
+
+			oIncrementalProblem.recombine(iParent1Index, iParent2Index, iChild1Index, iChild2Index, m_alMask);
+			return;
+		}
+
+		oProblem.copySolution(iParent1Index, iChild1Index);
+		oProblem.copySolution(iParent2Index, iChild2Index);
+		for (int w = 0; w < iWords; w++) {
+			for (long lBits = m_alMask[w]; lBits != 0; lBits &= lBits - 1) {
+				oProblem.exchangeBits(iChild1Index, iChild2Index, (w << 6) + Long.numberOfTrailingZeros(lBits));
+			}
+		}
+	}
+
+	/**
+	 * Fills the mask of the variables whose values the children take from the other parent. Bits
+	 * beyond the last variable must be 0.
+	 *
+	 * @param alMask The mask to fill, variable {@code v} is bit {@code v & 63} of word {@code v >>> 6}.
+	 * @param iNumberOfVariables The number of variables.
+	 */
+	protected abstract void createMask(long[] alMask, int iNumberOfVariables);
+}
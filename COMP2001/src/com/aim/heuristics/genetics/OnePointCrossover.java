@@ -0,0 +1,42 @@
+package com.aim.heuristics.genetics;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * One-point crossover, where the children exchange the values of every variable from a random
+ * crossover point onwards. The point is between 1 and n - 1 so that both parents contribute to
+ * each child.
+ */
+public class OnePointCrossover extends MaskCrossover {
+
+	public OnePointCrossover(Random oRandom) {
+
+		super(oRandom);
+	}
+
+	@Override
+	protected void createMask(long[] alMask, int iNumberOfVariables) {
+
+		Arrays.fill(alMask, 0L);
+		if (iNumberOfVariables < 2) {
+			return;
+		}
+
+		int iPoint = 1 + m_oRandom.nextInt(iNumberOfVariables - 1);
+		int iWord = iPoint >>> 6;
+
+		alMask[iWord] = -1L << iPoint;
+		Arrays.fill(alMask, iWord + 1, alMask.length, -1L);
+
+		if ((iNumberOfVariables & 63) != 0) {
+			alMask[alMask.length - 1] &= (1L << iNumberOfVariables) - 1;
+		}
+	}
+
+	@Override
+	public String toString() {
+
+		return "One-Point Crossover";
+	}
+}
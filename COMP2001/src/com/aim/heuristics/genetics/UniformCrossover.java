@@ -0,0 +1,34 @@
+package com.aim.heuristics.genetics;
+
+import java.util.Random;
+
+/**
+ * Uniform crossover, where each variable of the first child is taken from either parent with equal
+ * probability and the second child takes the remaining values. A word of 64 random bits is drawn
+ * per 64 variables rather than one random boolean per variable.
+ */
+public class UniformCrossover extends MaskCrossover {
+
+	public UniformCrossover(Random oRandom) {
+
+		super(oRandom);
+	}
+
+	@Override
+	protected void createMask(long[] alMask, int iNumberOfVariables) {
+
+		for (int w = 0; w < alMask.length; w++) {
+			alMask[w] = m_oRandom.nextLong();
+		}
+
+		if ((iNumberOfVariables & 63) != 0) {
+			alMask[alMask.length - 1] &= (1L << iNumberOfVariables) - 1;
+		}
+	}
+
+	@Override
+	public String toString() {
+
+		return "Uniform Crossover";
+	}
+}
@@ -0,0 +1,332 @@
+package com.aim.metaheuristics.populationbased;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+import com.aim.heuristics.genetics.ElitistGenerationalReplacement;
+import com.aim.heuristics.genetics.UniformCrossover;
+import com.aim.pseudorandom.RandomBitFlipHeuristic;
+import com.aim.sat.IncrementalSAT;
+import uk.ac.nott.cs.aim.satheuristics.SATHeuristic;
+import uk.ac.nott.cs.aim.satheuristics.genetics.CrossoverHeuristic;
+import uk.ac.nott.cs.aim.satheuristics.genetics.PopulationReplacement;
+import uk.ac.nott.cs.aim.searchmethods.PopulationBasedSearchMethod;
+
+/**
+ * A generational memetic algorithm, i.e. a genetic algorithm whose offspring are improved by a local
+ * search heuristic before replacement. The parents are stored at indices {@code 0 .. N - 1} of the
+ * solution memory and the offspring at {@code N .. 2N - 1}.
+ * <p>
+ * The local search of the offspring, which takes almost all of the evaluations, runs in parallel on
+ * a pool of threads owned by the search method, so that a trial can use several processors on top of
+ * any parallelism between trials. Each offspring is improved on a fork of the problem with its own
+ * random number generator, seeded from the search method's generator before the local search
+ * starts, and the forks are joined back in offspring order. Every fork may spend the whole remaining
+ * budget; if joining a fork would exceed the budget, its local search is run again with exactly the
+ * budget left, and the remaining offspring are not improved. The evaluations used and the solutions
+ * found therefore depend only on the seed and not on the number of threads or their scheduling.
+ * <p>
+ * The threads are daemons and are released once the evaluation budget has been spent. They are
+ * created by every trial on top of the trial workers of the {@code TestFrame}, so {@code W} workers
+ * each running a memetic algorithm on {@code T} threads keep {@code W * T} threads busy; {@code T}
+ * should be at most the number of available processors divided by the number of workers. The
+ * default of one thread runs the local search on the calling thread and leaves all the parallelism
+ * to the trial workers.
+ */
+public class MemeticAlgorithm extends PopulationBasedSearchMethod {
+
+	private final IncrementalSAT m_oIncrementalProblem;
+
+	private final CrossoverHeuristic m_oCrossover;
+
+	private final SATHeuristic m_oMutationHeuristic;
+
+	private final Function<Random, SATHeuristic> m_oLocalSearchHeuristicFactory;
+
+	private final PopulationReplacement m_oReplacement;
+
+	private final int m_iIntensityOfMutation;
+
+	private final int m_iDepthOfSearch;
+
+	private final int m_iNumberOfThreads;
+
+	// null when the local search runs on the calling thread
+	private final ExecutorService m_oExecutor;
+
+	/**
+	 * Creates a memetic algorithm with uniform crossover, one random bit flip mutation per offspring,
+	 * one application of local search per offspring, and elitist generational replacement, running the
+	 * local search on the calling thread.
+	 *
+	 * @param oProblem The problem to be solved.
+	 * @param oRandom The random number generator.
+	 * @param iPopulationSize The number of parents, which must be even.
+	 * @param oLocalSearchHeuristicFactory Creates the local search heuristic from a random number generator.
+	 */
+	public MemeticAlgorithm(IncrementalSAT oProblem, Random oRandom, int iPopulationSize, Function<Random, SATHeuristic> oLocalSearchHeuristicFactory) {
+
+		this(oProblem, oRandom, iPopulationSize, new UniformCrossover(oRandom), new RandomBitFlipHeuristic(oRandom),
+				oLocalSearchHeuristicFactory, new ElitistGenerationalReplacement(), 1, 1, 1);
+	}
+
+	/**
+	 * @param oProblem The problem to be solved.
+	 * @param oRandom The random number generator, the local search of each offspring is seeded from it.
+	 * @param iPopulationSize The number of parents, which must be even.
+	 * @param oCrossover The crossover heuristic.
+	 * @param oMutationHeuristic The mutation heuristic.
+	 * @param oLocalSearchHeuristicFactory Creates the local search heuristic from a random number generator.
+	 * @param oReplacement The population replacement scheme.
+	 * @param iIntensityOfMutation The number of times the mutation heuristic is applied to each offspring.
+	 * @param iDepthOfSearch The number of times the local search heuristic is applied to each offspring.
+	 * @param iNumberOfThreads The number of threads to run the local search on.
+	 */
+	public MemeticAlgorithm(IncrementalSAT oProblem, Random oRandom, int iPopulationSize, CrossoverHeuristic oCrossover,
+			SATHeuristic oMutationHeuristic, Function<Random, SATHeuristic> oLocalSearchHeuristicFactory,
+			PopulationReplacement oReplacement, int iIntensityOfMutation, int iDepthOfSearch, int iNumberOfThreads) {
+
+		super(oProblem, oRandom, iPopulationSize);
+
+		if (iPopulationSize < 2 || (iPopulationSize & 1) != 0) {
+			throw new IllegalArgumentException("The population size must be even but was " + iPopulationSize);
+		}
+
+		this.m_oIncrementalProblem = oProblem;
+		this.m_oCrossover = oCrossover;
+		this.m_oMutationHeuristic = oMutationHeuristic;
+		this.m_oLocalSearchHeuristicFactory = oLocalSearchHeuristicFactory;
+		this.m_oReplacement = oReplacement;
+		this.m_iIntensityOfMutation = iIntensityOfMutation;
+		this.m_iDepthOfSearch = iDepthOfSearch;
+		this.m_iNumberOfThreads = Math.max(1, iNumberOfThreads);
+
+		// the solution-in-hand is the first parent, the others are random
+		for (int i = 1; i < iPopulationSize; i++) {
+			oProblem.createRandomSolution(i);
+		}
+
+		this.m_oExecutor = m_iNumberOfThreads == 1 ? null : Executors.newFixedThreadPool(m_iNumberOfThreads, oRunnable -> {
+
+			Thread oThread = new Thread(oRunnable, "memetic-local-search");
+			oThread.setDaemon(true);
+			return oThread;
+		});
+	}
+
+	/**
+	 * One generation:
+	 * <pre>
+	 *	for each pair of offspring:
+	 *		select two parents by binary tournament
+	 *		crossover(parents) into the pair of offspring
+	 *		inheritMemes(parents, offspring)
+	 *	for each offspring:
+	 *		REPEAT intensityOfMutation(offspring) TIMES: mutation(offspring)
+	 *	in parallel, for each offspring:
+	 *		REPEAT depthOfSearch TIMES: localSearch(offspring)
+	 *		evaluate(offspring)
+	 *	replace the parents with the offspring
+	 * </pre>
+	 */
+	@Override
+	protected void runMainLoop() {
+
+		if (m_oProblem.hasEvaluationLimitExpired()) {
+
+			shutdown();
+			return;
+		}
+
+		for (int i = 0; i < POPULATION_SIZE; i += 2) {
+
+			int iParent1 = tournamentSelection();
+			int iParent2 = tournamentSelection();
+			m_oCrossover.applyHeuristic(m_oProblem, iParent1, iParent2, POPULATION_SIZE + i, POPULATION_SIZE + i + 1);
+			inheritMemes(iParent1, iParent2, POPULATION_SIZE + i, POPULATION_SIZE + i + 1);
+		}
+
+		for (int i = POPULATION_SIZE; i < POPULATION_SIZE << 1; i++) {
+
+			int iIntensityOfMutation = getIntensityOfMutation(i);
+			for (int iom = 0; iom < iIntensityOfMutation; iom++) {
+				m_oMutationHeuristic.applyHeuristic(m_oProblem, i);
+			}
+		}
+
+		improveOffspring();
+
+		m_oReplacement.doReplacement(m_oProblem, POPULATION_SIZE);
+
+		if (m_oProblem.hasEvaluationLimitExpired()) {
+			shutdown();
+		}
+	}
+
+	/**
+	 * @return The index of the better of two parents chosen uniformly at random.
+	 */
+	private int tournamentSelection() {
+
+		int iA = m_oRandom.nextInt(POPULATION_SIZE);
+		int iB = m_oRandom.nextInt(POPULATION_SIZE);
+
+		return m_oProblem.getObjectiveFunctionValue(iB) < m_oProblem.getObjectiveFunctionValue(iA) ? iB : iA;
+	}
+
+	/**
+	 * Sets the memes of a pair of offspring after crossover. By default the offspring keep the memes
+	 * the crossover heuristic gave them.
+	 *
+	 * @param iParent1Index The index of the first parent in memory.
+	 * @param iParent2Index The index of the second parent in memory.
+	 * @param iChild1Index The index of the first offspring in memory.
+	 * @param iChild2Index The index of the second offspring in memory.
+	 */
+	protected void inheritMemes(int iParent1Index, int iParent2Index, int iChild1Index, int iChild2Index) {
+
+	}
+
+	/**
+	 * @param iOffspringIndex The index of the offspring in memory.
+	 * @return The number of times the mutation heuristic is applied to the offspring.
+	 */
+	protected int getIntensityOfMutation(int iOffspringIndex) {
+
+		return m_iIntensityOfMutation;
+	}
+
+	/**
+	 * Called on the thread running the search method, before the local search of the offspring starts.
+	 *
+	 * @param iOffspringIndex The index of the offspring in memory.
+	 * @return Creates the local search heuristic applied to the offspring from a random number generator.
+	 */
+	protected Function<Random, SATHeuristic> getLocalSearchHeuristicFactory(int iOffspringIndex) {
+
+		return m_oLocalSearchHeuristicFactory;
+	}
+
+	/**
+	 * Applies the local search to every offspring on forks of the problem and joins them back in order.
+	 */
+	private void improveOffspring() {
+
+		long lRemaining = m_oProblem.getMaxTime() - m_oProblem.getNumberOfEvaluationsUsed();
+		if (lRemaining <= 0) {
+			return;
+		}
+
+		// the seeds are drawn up front so that they do not depend on the order the forks run in
+		long[] alSeeds = new long[POPULATION_SIZE];
+		List<Function<Random, SATHeuristic>> oFactories = new ArrayList<>(POPULATION_SIZE);
+		List<Callable<IncrementalSAT>> oTasks = new ArrayList<>(POPULATION_SIZE);
+		for (int i = 0; i < POPULATION_SIZE; i++) {
+
+			int iOffspringIndex = POPULATION_SIZE + i;
+			long lSeed = alSeeds[i] = m_oRandom.nextLong();
+			Function<Random, SATHeuristic> oFactory = getLocalSearchHeuristicFactory(iOffspringIndex);
+			oFactories.add(oFactory);
+			oTasks.add(() -> improve(iOffspringIndex, oFactory, lSeed, lRemaining));
+		}
+
+		List<IncrementalSAT> oForks = invokeAll(oTasks);
+
+		long lLeft = lRemaining;
+		for (int i = 0; i < POPULATION_SIZE && lLeft > 0; i++) {
+
+			IncrementalSAT oFork = oForks.get(i);
+			if (oFork.getNumberOfEvaluationsUsed() > lLeft) {
+				oFork = improve(POPULATION_SIZE + i, oFactories.get(i), alSeeds[i], lLeft);
+			}
+
+			lLeft -= oFork.getNumberOfEvaluationsUsed();
+			m_oIncrementalProblem.join(oFork, 0, POPULATION_SIZE + i);
+		}
+	}
+
+	/**
+	 * Applies the local search to a fork of one offspring.
+	 *
+	 * @return The fork holding the improved offspring.
+	 */
+	private IncrementalSAT improve(int iOffspringIndex, Function<Random, SATHeuristic> oLocalSearchHeuristicFactory, long lSeed, long lEvaluations) {
+
+		Random oRandom = new Random(lSeed);
+		IncrementalSAT oFork = m_oIncrementalProblem.fork(oRandom, iOffspringIndex);
+		oFork.grantEvaluations(lEvaluations);
+
+		SATHeuristic oLocalSearchHeuristic = oLocalSearchHeuristicFactory.apply(oRandom);
+		for (int dos = 0; dos < m_iDepthOfSearch; dos++) {
+			oLocalSearchHeuristic.applyHeuristic(oFork, 0);
+		}
+
+		oFork.getObjectiveFunctionValue(0);
+		return oFork;
+	}
+
+	private List<IncrementalSAT> invokeAll(List<Callable<IncrementalSAT>> oTasks) {
+
+		List<IncrementalSAT> oResults = new ArrayList<>(oTasks.size());
+		try {
+
+			if (m_oExecutor == null) {
+
+				for (Callable<IncrementalSAT> oTask : oTasks) {
+					oResults.add(oTask.call());
+				}
+
+			} else {
+
+				for (Future<IncrementalSAT> oFuture : m_oExecutor.invokeAll(oTasks)) {
+					oResults.add(oFuture.get());
+				}
+			}
+
+		} catch (InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+			shutdown();
+			throw new IllegalStateException("Interrupted while waiting for the local search of the offspring", e);
+
+		} catch (ExecutionException e) {
+
+			shutdown();
+			throw new IllegalStateException("The local search of an offspring failed", e.getCause());
+
+		} catch (Exception e) {
+
+			throw new IllegalStateException("The local search of an offspring failed", e);
+		}
+
+		return oResults;
+	}
+
+	private void shutdown() {
+
+		if (m_oExecutor != null) {
+			m_oExecutor.shutdownNow();
+		}
+	}
+
+	/**
+	 * @return The number of threads the local search runs on.
+	 */
+	protected int getNumberOfThreads() {
+
+		return m_iNumberOfThreads;
+	}
+
+	@Override
+	public String toString() {
+
+		return "Memetic Algorithm (N = " + POPULATION_SIZE + ", " + m_iNumberOfThreads + " threads)";
+	}
+}
@@ -0,0 +1,201 @@
+package com.aim.metaheuristics.populationbased;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import com.aim.heuristics.DavissBitHillClimbing;
+import com.aim.heuristics.ProbSATHeuristic;
+import com.aim.heuristics.ScoreBucketSteepestDescentHillClimbing;
+import com.aim.heuristics.WalkSATHeuristic;
+import com.aim.heuristics.genetics.ElitistGenerationalReplacement;
+import com.aim.heuristics.genetics.UniformCrossover;
+import com.aim.pseudorandom.RandomBitFlipHeuristic;
+import com.aim.sat.IncrementalSAT;
+import uk.ac.nott.cs.aim.domains.chesc2014_SAT.Meme;
+import uk.ac.nott.cs.aim.satheuristics.SATHeuristic;
+
+/**
+ * The multimeme memetic algorithm of Krasnogor and Smith. Every individual carries two memes, held
+ * in the meme state of the {@code SAT} solution memory: one selects the intensity of mutation
+ * applied to it and the other the local search heuristic which improves it. The offspring of a
+ * crossover inherit the memes of the fitter parent, or of a parent chosen at random if both are
+ * equally fit, and each meme is then set to a random option with probability equal to the
+ * innovation rate.
+ * <p>
+ * Since an individual is only as good as the local search its memes select, individuals whose
+ * memes do not pay off on the instance lose the tournaments and are replaced, so the evaluation
+ * budget shifts towards the operators and parameter settings that work.
+ * <p>
+ * The problem must be created with the meme states of the options, e.g.
+ * {@code InstanceCache.createProblem(iInstanceId, iSeconds, oRandom, 1, NUMBER_OF_MEMES, getDefaultMemeStates())}.
+ */
+public class MultimemeMemeticAlgorithm extends MemeticAlgorithm {
+
+	public static final int INTENSITY_OF_MUTATION_MEME = 0, LOCAL_SEARCH_MEME = 1, NUMBER_OF_MEMES = 2;
+
+	/**
+	 * The probability of setting a meme of an offspring to a random option.
+	 */
+	public static final double DEFAULT_INNOVATION_RATE = 0.2;
+
+	private static final int[] DEFAULT_INTENSITIES_OF_MUTATION = { 0, 1, 2, 3, 4, 5 };
+
+	private static final List<Function<Random, SATHeuristic>> DEFAULT_LOCAL_SEARCH_HEURISTIC_FACTORIES = List.of(
+			DavissBitHillClimbing::new,
+			ScoreBucketSteepestDescentHillClimbing::new,
+			WalkSATHeuristic::new,
+			ProbSATHeuristic::new);
+
+	private final int[] m_aiIntensitiesOfMutation;
+
+	private final List<Function<Random, SATHeuristic>> m_oLocalSearchHeuristicFactories;
+
+	private final double m_dInnovationRate;
+
+	/**
+	 * Creates a multimeme memetic algorithm choosing between intensities of mutation of 0 to 5 and
+	 * the DBHC, SDHC, WalkSAT and ProbSAT local search heuristics, running the local search on the
+	 * calling thread.
+	 *
+	 * @param oProblem The problem to be solved, created with the meme states of {@link #getDefaultMemeStates()}.
+	 * @param oRandom The random number generator.
+	 * @param iPopulationSize The number of parents, which must be even.
+	 */
+	public MultimemeMemeticAlgorithm(IncrementalSAT oProblem, Random oRandom, int iPopulationSize) {
+
+		this(oProblem, oRandom, iPopulationSize, 1);
+	}
+
+	/**
+	 * Creates a multimeme memetic algorithm with the default options, running the local search on
+	 * the given number of threads.
+	 *
+	 * @param oProblem The problem to be solved, created with the meme states of {@link #getDefaultMemeStates()}.
+	 * @param oRandom The random number generator.
+	 * @param iPopulationSize The number of parents, which must be even.
+	 * @param iNumberOfThreads The number of threads to run the local search on.
+	 */
+	public MultimemeMemeticAlgorithm(IncrementalSAT oProblem, Random oRandom, int iPopulationSize, int iNumberOfThreads) {
+
+		this(oProblem, oRandom, iPopulationSize, DEFAULT_INTENSITIES_OF_MUTATION, DEFAULT_LOCAL_SEARCH_HEURISTIC_FACTORIES,
+				DEFAULT_INNOVATION_RATE, iNumberOfThreads);
+	}
+
+	/**
+	 * @param oProblem The problem to be solved, created with the meme states of {@link #getMemeStates(int[], List)}.
+	 * @param oRandom The random number generator.
+	 * @param iPopulationSize The number of parents, which must be even.
+	 * @param aiIntensitiesOfMutation The options of the intensity of mutation meme.
+	 * @param oLocalSearchHeuristicFactories The options of the local search meme.
+	 * @param dInnovationRate The probability of setting a meme of an offspring to a random option.
+	 * @param iNumberOfThreads The number of threads to run the local search on.
+	 */
+	public MultimemeMemeticAlgorithm(IncrementalSAT oProblem, Random oRandom, int iPopulationSize, int[] aiIntensitiesOfMutation,
+			List<Function<Random, SATHeuristic>> oLocalSearchHeuristicFactories, double dInnovationRate, int iNumberOfThreads) {
+
+		super(oProblem, oRandom, iPopulationSize, new UniformCrossover(oRandom), new RandomBitFlipHeuristic(oRandom),
+				oLocalSearchHeuristicFactories.getFirst(), new ElitistGenerationalReplacement(), 0, 1, iNumberOfThreads);
+
+		int[] aiMemeStates = getMemeStates(aiIntensitiesOfMutation, oLocalSearchHeuristicFactories);
+		if (oProblem.getNumberOfMemes() != NUMBER_OF_MEMES
+				|| oProblem.getMeme(0, INTENSITY_OF_MUTATION_MEME).getTotalOptions() != aiMemeStates[INTENSITY_OF_MUTATION_MEME]
+				|| oProblem.getMeme(0, LOCAL_SEARCH_MEME).getTotalOptions() != aiMemeStates[LOCAL_SEARCH_MEME]) {
+
+			throw new IllegalArgumentException("The problem must be created with " + NUMBER_OF_MEMES + " memes with the states " + Arrays.toString(aiMemeStates));
+		}
+
+		this.m_aiIntensitiesOfMutation = aiIntensitiesOfMutation.clone();
+		this.m_oLocalSearchHeuristicFactories = List.copyOf(oLocalSearchHeuristicFactories);
+		this.m_dInnovationRate = dInnovationRate;
+	}
+
+	/**
+	 * @return The number of options of each meme when the default options are used.
+	 */
+	public static int[] getDefaultMemeStates() {
+
+		return getMemeStates(DEFAULT_INTENSITIES_OF_MUTATION, DEFAULT_LOCAL_SEARCH_HEURISTIC_FACTORIES);
+	}
+
+	/**
+	 * @param aiIntensitiesOfMutation The options of the intensity of mutation meme.
+	 * @param oLocalSearchHeuristicFactories The options of the local search meme.
+	 * @return The number of options of each meme.
+	 */
+	public static int[] getMemeStates(int[] aiIntensitiesOfMutation, List<Function<Random, SATHeuristic>> oLocalSearchHeuristicFactories) {
+
+		int[] aiMemeStates = new int[NUMBER_OF_MEMES];
+		aiMemeStates[INTENSITY_OF_MUTATION_MEME] = aiIntensitiesOfMutation.length;
+		aiMemeStates[LOCAL_SEARCH_MEME] = oLocalSearchHeuristicFactories.size();
+
+		return aiMemeStates;
+	}
+
+	/**
+	 * <pre>
+	 *	fitterParent = parent with the lower objective value, or a random parent if equal
+	 *	for each offspring:
+	 *		for each meme:
+	 *			meme(offspring) = meme(fitterParent)
+	 *			if(random() < innovationRate) meme(offspring) = random option
+	 * </pre>
+	 */
+	@Override
+	protected void inheritMemes(int iParent1Index, int iParent2Index, int iChild1Index, int iChild2Index) {
+
+		int iParent1Value = m_oProblem.getObjectiveFunctionValue(iParent1Index);
+		int iParent2Value = m_oProblem.getObjectiveFunctionValue(iParent2Index);
+
+		int iFitterParentIndex;
+		if (iParent1Value != iParent2Value) {
+			iFitterParentIndex = iParent1Value < iParent2Value ? iParent1Index : iParent2Index;
+		} else {
+			iFitterParentIndex = m_oRandom.nextBoolean() ? iParent1Index : iParent2Index;
+		}
+
+		for (int iChildIndex : new int[] { iChild1Index, iChild2Index }) {
+			for (int m = 0; m < NUMBER_OF_MEMES; m++) {
+
+				Meme oMeme = m_oProblem.getMeme(iChildIndex, m);
+				oMeme.setMemeOption(m_oProblem.getMeme(iFitterParentIndex, m).getMemeOption());
+				if (m_oRandom.nextDouble() < m_dInnovationRate) {
+					oMeme.setMemeOption(m_oRandom.nextInt(oMeme.getTotalOptions()));
+				}
+			}
+		}
+	}
+
+	@Override
+	protected int getIntensityOfMutation(int iOffspringIndex) {
+
+		return m_aiIntensitiesOfMutation[m_oProblem.getMeme(iOffspringIndex, INTENSITY_OF_MUTATION_MEME).getMemeOption()];
+	}
+
+	@Override
+	protected Function<Random, SATHeuristic> getLocalSearchHeuristicFactory(int iOffspringIndex) {
+
+		return m_oLocalSearchHeuristicFactories.get(m_oProblem.getMeme(iOffspringIndex, LOCAL_SEARCH_MEME).getMemeOption());
+	}
+
+	/**
+	 * @param iMemeNumber The meme to count the options of.
+	 * @return The number of parents of the current population expressing each option of the meme.
+	 */
+	public int[] getMemeOptionCounts(int iMemeNumber) {
+
+		int[] aiCounts = new int[m_oProblem.getMeme(0, iMemeNumber).getTotalOptions()];
+		for (int i = 0; i < POPULATION_SIZE; i++) {
+			aiCounts[m_oProblem.getMeme(i, iMemeNumber).getMemeOption()]++;
+		}
+
+		return aiCounts;
+	}
+
+	@Override
+	public String toString() {
+
+		return "Multimeme Memetic Algorithm (N = " + POPULATION_SIZE + ", " + getNumberOfThreads() + " threads)";
+	}
+}
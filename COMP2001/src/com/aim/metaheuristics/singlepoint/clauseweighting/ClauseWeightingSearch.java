@@ -0,0 +1,112 @@
+package com.aim.metaheuristics.singlepoint.clauseweighting;
+
+import java.util.Random;
+
+import com.aim.sat.ClauseWeights;
+import com.aim.sat.IncrementalSAT;
+import uk.ac.nott.cs.aim.searchmethods.SinglePointSearchMethod;
+
+/**
+ * The Pure Additive Weighting Scheme (PAWS) of Thornton et al., a dynamic clause weighting local
+ * search. The search descends on the total weight of the broken clauses rather than on their number;
+ * when it reaches a local minimum of the weighted objective, the weights of the broken clauses are
+ * increased, which changes the landscape so that the search can leave plateaus on which an
+ * unweighted hill climber stalls. Periodically the weights are smoothed so that old increases are
+ * forgotten.
+ * <p>
+ * The weights are maintained incrementally by {@link ClauseWeights}. Every flip is evaluated by the
+ * problem with the unweighted objective function, so the evaluation budget and the best solution
+ * found are those of the true objective.
+ */
+public class ClauseWeightingSearch extends SinglePointSearchMethod {
+
+	/**
+	 * The probability of a flat move and the number of weight increases between smoothing which are
+	 * reported to work well for SAT.
+	 */
+	public static final double DEFAULT_FLAT_MOVE_PROBABILITY = 0.15;
+
+	public static final int DEFAULT_SMOOTHING_PERIOD = 10;
+
+	private final IncrementalSAT m_oIncrementalProblem;
+
+	private final ClauseWeights m_oWeights;
+
+	private final double m_dFlatMoveProbability;
+
+	private final int m_iSmoothingPeriod;
+
+	private int m_iWeightIncreases = 0;
+
+	public ClauseWeightingSearch(IncrementalSAT oProblem, Random oRandom) {
+
+		this(oProblem, oRandom, DEFAULT_FLAT_MOVE_PROBABILITY, DEFAULT_SMOOTHING_PERIOD);
+	}
+
+	/**
+	 * @param oProblem The problem to be solved.
+	 * @param oRandom The random number generator.
+	 * @param dFlatMoveProbability The probability of taking a move which leaves the weighted objective unchanged when there is no improving move.
+	 * @param iSmoothingPeriod The number of weight increases after which all weights above 1 are decreased.
+	 */
+	public ClauseWeightingSearch(IncrementalSAT oProblem, Random oRandom, double dFlatMoveProbability, int iSmoothingPeriod) {
+
+		super(oProblem, oRandom);
+
+		this.m_oIncrementalProblem = oProblem;
+		this.m_oWeights = new ClauseWeights(oProblem, CURRENT_SOLUTION_INDEX);
+		this.m_dFlatMoveProbability = dFlatMoveProbability;
+		this.m_iSmoothingPeriod = iSmoothingPeriod;
+	}
+
+	/**
+	 * <pre>
+	 *	v = random variable with the highest weighted score, if it is positive
+	 *	if(no such v and random() < flatMoveProbability) v = random variable of a broken clause with a weighted score of 0
+	 *
+	 *	if(v exists) {
+	 *		bitFlip(currentSolution, v)
+	 *		evaluate(currentSolution)
+	 *	} else {
+	 *		increase the weight of every broken clause by 1
+	 *		every smoothingPeriod increases, decrease every weight above 1 by 1
+	 *	}
+	 * </pre>
+	 */
+	@Override
+	protected void runMainLoop() {
+
+		int iVariable;
+		if (m_oWeights.getNumberOfBrokenClauses() == 0) {
+
+			// every clause is satisfied, keep walking so the evaluation budget is still spent
+			iVariable = m_oRandom.nextInt(m_oIncrementalProblem.getNumberOfVariables());
+
+		} else {
+
+			iVariable = m_oWeights.getBestImprovingVariable(m_oRandom);
+			if (iVariable < 0 && m_oRandom.nextDouble() < m_dFlatMoveProbability) {
+				iVariable = m_oWeights.getRandomFlatVariable(m_oRandom);
+			}
+		}
+
+		if (iVariable >= 0) {
+
+			m_oWeights.flip(iVariable);
+			m_oProblem.getObjectiveFunctionValue(CURRENT_SOLUTION_INDEX);
+
+		} else {
+
+			m_oWeights.increaseBrokenClauseWeights();
+			if (++m_iWeightIncreases % m_iSmoothingPeriod == 0) {
+				m_oWeights.smooth();
+			}
+		}
+	}
+
+	@Override
+	public String toString() {
+
+		return "Clause Weighting Search (PAWS)";
+	}
+}
@@ -2,6 +2,8 @@ package com.aim.metaheuristics.singlepoint.iteratedlocalsearch;
 
 import java.util.Random;
 
+import com.aim.events.EventThrottle;
+import com.aim.events.SearchIterationEvent;
 import uk.ac.nott.cs.aim.domains.chesc2014_SAT.SAT;
 import uk.ac.nott.cs.aim.satheuristics.SATHeuristic;
 import uk.ac.nott.cs.aim.searchmethods.SinglePointSearchMethod;
@@ -21,6 +23,9 @@ public class IteratedLocalSearch extends SinglePointSearchMethod {
 	// dos parameter setting
 	private final int iDepthOfSearch;
 	
+	// throttles the search iteration events recorded by Java Flight Recorder
+	private final EventThrottle oIterationEvents = new EventThrottle();
+	
 	/**
 	 * 
 	 * @param oProblem The problem to be solved.
@@ -83,13 +88,16 @@ public class IteratedLocalSearch extends SinglePointSearchMethod {
             oLocalSearchHeuristic.applyHeuristic(m_oProblem);
 
         }
-        if (m_oProblem.getObjectiveFunctionValue(CURRENT_SOLUTION_INDEX) <= best) {
+        int candidate = m_oProblem.getObjectiveFunctionValue(CURRENT_SOLUTION_INDEX);
+        if (candidate <= best) {
             m_oProblem.copySolution(CURRENT_SOLUTION_INDEX,BACKUP_SOLUTION_INDEX);
         }
         else{
             m_oProblem.copySolution(BACKUP_SOLUTION_INDEX,CURRENT_SOLUTION_INDEX);
         }
 
+        SearchIterationEvent.commit(oIterationEvents, toString(), candidate <= best, candidate - best, Math.min(candidate, best));
+
 	}
 	
 	public String toString() {
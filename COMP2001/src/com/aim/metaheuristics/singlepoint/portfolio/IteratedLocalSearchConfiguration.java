@@ -0,0 +1,88 @@
+package com.aim.metaheuristics.singlepoint.portfolio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import com.aim.heuristics.DavissBitHillClimbing;
+import com.aim.heuristics.ScoreBucketSteepestDescentHillClimbing;
+import com.aim.metaheuristics.singlepoint.iteratedlocalsearch.IteratedLocalSearch;
+import com.aim.pseudorandom.RandomBitFlipHeuristic;
+import uk.ac.nott.cs.aim.domains.chesc2014_SAT.SAT;
+import uk.ac.nott.cs.aim.satheuristics.SATHeuristic;
+
+/**
+ * The mutation and local search heuristics and the parameter settings of one member of a
+ * {@link PortfolioIteratedLocalSearch}. The heuristics are given as factories since each worker
+ * needs its own instances, driven by its own random number generator.
+ */
+public class IteratedLocalSearchConfiguration {
+
+	private static final List<IteratedLocalSearchConfiguration> DEFAULT_CONFIGURATIONS = List.of(
+			new IteratedLocalSearchConfiguration(RandomBitFlipHeuristic::new, DavissBitHillClimbing::new, 1, 1),
+			new IteratedLocalSearchConfiguration(RandomBitFlipHeuristic::new, ScoreBucketSteepestDescentHillClimbing::new, 1, 1),
+			new IteratedLocalSearchConfiguration(RandomBitFlipHeuristic::new, DavissBitHillClimbing::new, 3, 1),
+			new IteratedLocalSearchConfiguration(RandomBitFlipHeuristic::new, ScoreBucketSteepestDescentHillClimbing::new, 2, 3));
+
+	private final Function<Random, SATHeuristic> m_oMutationHeuristicFactory;
+
+	private final Function<Random, SATHeuristic> m_oLocalSearchHeuristicFactory;
+
+	private final int m_iIntensityOfMutation;
+
+	private final int m_iDepthOfSearch;
+
+	/**
+	 * @param oMutationHeuristicFactory Creates the mutation heuristic from a random number generator.
+	 * @param oLocalSearchHeuristicFactory Creates the local search heuristic from a random number generator.
+	 * @param iIntensityOfMutation The parameter setting for intensity of mutation.
+	 * @param iDepthOfSearch The parameter setting for depth of search.
+	 */
+	public IteratedLocalSearchConfiguration(Function<Random, SATHeuristic> oMutationHeuristicFactory,
+			Function<Random, SATHeuristic> oLocalSearchHeuristicFactory, int iIntensityOfMutation, int iDepthOfSearch) {
+
+		this.m_oMutationHeuristicFactory = oMutationHeuristicFactory;
+		this.m_oLocalSearchHeuristicFactory = oLocalSearchHeuristicFactory;
+		this.m_iIntensityOfMutation = iIntensityOfMutation;
+		this.m_iDepthOfSearch = iDepthOfSearch;
+	}
+
+	/**
+	 * Gets a portfolio of the given size, cycling through a set of mutation/local search
+	 * combinations with different intensity of mutation and depth of search settings.
+	 *
+	 * @param iNumberOfWorkers The number of configurations.
+	 * @return The configurations of the portfolio.
+	 */
+	public static List<IteratedLocalSearchConfiguration> getDefaultPortfolio(int iNumberOfWorkers) {
+
+		List<IteratedLocalSearchConfiguration> oPortfolio = new ArrayList<>(iNumberOfWorkers);
+		for (int i = 0; i < iNumberOfWorkers; i++) {
+			oPortfolio.add(DEFAULT_CONFIGURATIONS.get(i % DEFAULT_CONFIGURATIONS.size()));
+		}
+
+		return oPortfolio;
+	}
+
+	/**
+	 * Creates an iterated local search with this configuration.
+	 *
+	 * @param oProblem The problem to be solved.
+	 * @param oRandom The random number generator of the search method and its heuristics.
+	 * @return The search method.
+	 */
+	public IteratedLocalSearch createSearchMethod(SAT oProblem, Random oRandom) {
+
+		return new IteratedLocalSearch(oProblem, oRandom, m_oMutationHeuristicFactory.apply(oRandom),
+				m_oLocalSearchHeuristicFactory.apply(oRandom), m_iIntensityOfMutation, m_iDepthOfSearch);
+	}
+
+	@Override
+	public String toString() {
+
+		Random oRandom = new Random(0L);
+		return String.format("%s/%s (IOM = %d, DOS = %d)", m_oMutationHeuristicFactory.apply(oRandom).getHeuristicName(),
+				m_oLocalSearchHeuristicFactory.apply(oRandom).getHeuristicName(), m_iIntensityOfMutation, m_iDepthOfSearch);
+	}
+}
@@ -0,0 +1,211 @@
+package com.aim.metaheuristics.singlepoint.portfolio;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.aim.metaheuristics.singlepoint.iteratedlocalsearch.IteratedLocalSearch;
+import com.aim.sat.IncrementalSAT;
+import com.aim.sat.SolutionSnapshot;
+import uk.ac.nott.cs.aim.searchmethods.SinglePointSearchMethod;
+
+/**
+ * Runs a portfolio of iterated local searches, each with its own mutation/local search combination
+ * and parameter settings, on parallel threads within a single trial.
+ * <p>
+ * Each worker searches a fork of the problem. The best solution found by any worker is published in
+ * an elite slot which is updated lock-free with compare-and-set, and every {@code restartPeriod}
+ * evaluations a worker whose solution-in-hand is worse than the elite restarts from it.
+ * <p>
+ * Each call to {@link #run()} performs one such period: the workers run in parallel until each has
+ * spent its share of the period, the evaluations they used are transferred into the problem, and the
+ * elite is copied into the current and backup solutions so the runner can trace the progress as for
+ * {@link IteratedLocalSearch}. The evaluations are divided between the workers from the remaining
+ * budget of the problem, so in total the portfolio uses the same evaluation budget as a sequential
+ * run and the results can be compared fairly. Since the workers exchange solutions as they find
+ * them, a trial is not exactly repeatable from its seed.
+ * <p>
+ * The threads are daemons and are released once the evaluation budget has been spent. Running
+ * trials in parallel as well as the portfolio will oversubscribe the processor.
+ */
+public class PortfolioIteratedLocalSearch extends SinglePointSearchMethod {
+
+	/**
+	 * The default number of evaluations between restarts from the elite solution, per worker.
+	 */
+	public static final int DEFAULT_RESTART_PERIOD = 5000;
+
+	private final IncrementalSAT m_oIncrementalProblem;
+
+	private final List<Worker> m_oWorkers;
+
+	private final AtomicReference<SolutionSnapshot> m_oElite;
+
+	private final int m_iRestartPeriod;
+
+	private final ExecutorService m_oExecutor;
+
+	/**
+	 * Creates a portfolio with one worker per available processor using the default configurations.
+	 *
+	 * @param oProblem The problem to be solved.
+	 * @param oRandom The random number generator, the workers are seeded from it.
+	 */
+	public PortfolioIteratedLocalSearch(IncrementalSAT oProblem, Random oRandom) {
+
+		this(oProblem, oRandom, IteratedLocalSearchConfiguration.getDefaultPortfolio(Runtime.getRuntime().availableProcessors()), DEFAULT_RESTART_PERIOD);
+	}
+
+	/**
+	 * @param oProblem The problem to be solved.
+	 * @param oRandom The random number generator, the workers are seeded from it.
+	 * @param oConfigurations The configuration of each worker.
+	 * @param iRestartPeriod The number of evaluations each worker uses between restarts from the elite solution.
+	 */
+	public PortfolioIteratedLocalSearch(IncrementalSAT oProblem, Random oRandom, List<IteratedLocalSearchConfiguration> oConfigurations, int iRestartPeriod) {
+
+		super(oProblem, oRandom);
+
+		this.m_oIncrementalProblem = oProblem;
+		this.m_iRestartPeriod = iRestartPeriod;
+		this.m_oElite = new AtomicReference<>(oProblem.snapshot(CURRENT_SOLUTION_INDEX));
+
+		this.m_oWorkers = new ArrayList<>(oConfigurations.size());
+		for (int i = 0; i < oConfigurations.size(); i++) {
+
+			Random oWorkerRandom = new Random(oRandom.nextLong());
+			IncrementalSAT oFork = oProblem.fork(oWorkerRandom);
+
+			// the first worker continues from the solution-in-hand, the others start elsewhere
+			if (i > 0) {
+				oFork.createRandomSolution(CURRENT_SOLUTION_INDEX);
+				oFork.copySolution(CURRENT_SOLUTION_INDEX, BACKUP_SOLUTION_INDEX);
+			}
+
+			m_oWorkers.add(new Worker(oFork, oConfigurations.get(i).createSearchMethod(oFork, oWorkerRandom)));
+		}
+
+		this.m_oExecutor = Executors.newFixedThreadPool(m_oWorkers.size(), oRunnable -> {
+
+			Thread oThread = new Thread(oRunnable, "portfolio-ils-worker");
+			oThread.setDaemon(true);
+			return oThread;
+		});
+	}
+
+	@Override
+	protected void runMainLoop() {
+
+		long lRemaining = m_oIncrementalProblem.getMaxTime() - m_oIncrementalProblem.getNumberOfEvaluationsUsed();
+		if (lRemaining <= 0) {
+
+			m_oExecutor.shutdown();
+			return;
+		}
+
+		// divide the remaining budget between the workers, at most one restart period each
+		int iWorkers = m_oWorkers.size();
+		List<Callable<Void>> oTasks = new ArrayList<>(iWorkers);
+		for (int i = 0; i < iWorkers; i++) {
+
+			Worker oWorker = m_oWorkers.get(i);
+			long lEvaluations = Math.min(m_iRestartPeriod, lRemaining / iWorkers + (i < lRemaining % iWorkers ? 1 : 0));
+			oTasks.add(() -> {
+
+				oWorker.run(lEvaluations);
+				return null;
+			});
+		}
+
+		try {
+
+			for (Future<Void> oFuture : m_oExecutor.invokeAll(oTasks)) {
+				oFuture.get();
+			}
+
+		} catch (InterruptedException e) {
+
+			Thread.currentThread().interrupt();
+			m_oExecutor.shutdownNow();
+			throw new IllegalStateException("Interrupted while waiting for the portfolio workers", e);
+
+		} catch (ExecutionException e) {
+
+			m_oExecutor.shutdownNow();
+			throw new IllegalStateException("A portfolio worker failed", e.getCause());
+		}
+
+		for (Worker oWorker : m_oWorkers) {
+			m_oIncrementalProblem.join(oWorker.m_oFork);
+		}
+
+		m_oIncrementalProblem.restore(m_oElite.get(), CURRENT_SOLUTION_INDEX);
+		m_oIncrementalProblem.copySolution(CURRENT_SOLUTION_INDEX, BACKUP_SOLUTION_INDEX);
+
+		if (m_oIncrementalProblem.hasEvaluationLimitExpired()) {
+			m_oExecutor.shutdown();
+		}
+	}
+
+	/**
+	 * Publishes a solution as the elite if it is better than the current elite.
+	 */
+	private void offer(IncrementalSAT oFork, int iObjectiveValue) {
+
+		SolutionSnapshot oElite = m_oElite.get();
+		if (iObjectiveValue >= oElite.getObjectiveFunctionValue()) {
+			return;
+		}
+
+		SolutionSnapshot oCandidate = oFork.snapshot(CURRENT_SOLUTION_INDEX);
+		while (iObjectiveValue < oElite.getObjectiveFunctionValue() && !m_oElite.compareAndSet(oElite, oCandidate)) {
+			oElite = m_oElite.get();
+		}
+	}
+
+	@Override
+	public String toString() {
+
+		return "Portfolio Iterated Local Search (" + m_oWorkers.size() + " workers)";
+	}
+
+	private final class Worker {
+
+		private final IncrementalSAT m_oFork;
+
+		private final IteratedLocalSearch m_oSearchMethod;
+
+		private int m_iObjectiveValue;
+
+		private Worker(IncrementalSAT oFork, IteratedLocalSearch oSearchMethod) {
+
+			this.m_oFork = oFork;
+			this.m_oSearchMethod = oSearchMethod;
+			this.m_iObjectiveValue = oFork.getObjectiveFunctionValue(CURRENT_SOLUTION_INDEX);
+		}
+
+		private void run(long lEvaluations) {
+
+			SolutionSnapshot oElite = m_oElite.get();
+			if (oElite.getObjectiveFunctionValue() < m_iObjectiveValue) {
+
+				m_oFork.restore(oElite, CURRENT_SOLUTION_INDEX);
+				m_oFork.copySolution(CURRENT_SOLUTION_INDEX, BACKUP_SOLUTION_INDEX);
+				m_iObjectiveValue = oElite.getObjectiveFunctionValue();
+			}
+
+			m_oFork.grantEvaluations(lEvaluations);
+			while (!m_oFork.hasEvaluationLimitExpired()) {
+
+				m_iObjectiveValue = m_oSearchMethod.run();
+				offer(m_oFork, m_iObjectiveValue);
+			}
+		}
+	}
+}
@@ -2,6 +2,7 @@ package com.aim.pseudorandom;
 
 import java.util.Random;
 
+import com.aim.Instrumentation;
 import uk.ac.nott.cs.aim.domains.chesc2014_SAT.SAT;
 import uk.ac.nott.cs.aim.satheuristics.SATHeuristic;
 
@@ -42,16 +43,15 @@ public class RandomWalk {
 	private final SAT sat;
 
     /**
-     * Represents a random bit flip heuristic used within the RandomWalk class to solve
-     * SAT (Satisfiability) problems. This heuristic operates by selecting a random
-     * variable (bit) within a given solution and flipping its value to facilitate exploration
-     * of the solution space.
+     * Represents the heuristic applied to the solution at each step of the walk. By default this
+     * is a random bit flip heuristic, which selects a random variable (bit) within the solution
+     * and flips its value to facilitate exploration of the solution space.
      *
      * The random bit flip heuristic is a fundamental operator for stochastic local optimisation
      * in SAT problems, enabling exploration of the solution search space. Its behaviour
      * is driven by a random number generator for repeatable experiments.
      */
-	private final SATHeuristic randomBitFlip;
+	private final SATHeuristic stepHeuristic;
 
     /**
      * Represents the execution time of the random walk search algorithm in seconds.
@@ -73,8 +73,21 @@ public class RandomWalk {
      */
 	public RandomWalk(SAT sat, Random random) {
 		
+		this(sat, Instrumentation.instrument(new RandomBitFlipHeuristic(random)));
+	}
+
+    /**
+     * Constructs a random walk which takes its steps with the given heuristic rather than a random
+     * bit flip, e.g. a focused random walk such as {@code WalkSATHeuristic} or {@code ProbSATHeuristic}.
+     * The heuristic is applied, and the solution evaluated, once per step.
+     *
+     * @param sat The SAT problem instance to solve.
+     * @param stepHeuristic The heuristic applied to the solution at each step of the walk.
+     */
+	public RandomWalk(SAT sat, SATHeuristic stepHeuristic) {
+
 		this.sat = sat;
-		this.randomBitFlip = new RandomBitFlipHeuristic(random);
+		this.stepHeuristic = stepHeuristic;
 	}
 
     /**
@@ -101,8 +114,8 @@ public class RandomWalk {
         // apply the search method until the evaluation limit is reached
 		while(!sat.hasEvaluationLimitExpired()) {
 			
-			// applies the bit flip operator to the solution
-			randomBitFlip.applyHeuristic(sat);
+			// applies the step heuristic, by default a bit flip, to the solution
+			stepHeuristic.applyHeuristic(sat);
 			
 			// call required for termination criteria but not used in a random walk
 			sat.getObjectiveFunctionValue(iSinglePointSolutionIndex);
@@ -1,5 +1,7 @@
 package com.aim.pseudorandom;
 
+import com.aim.OperationCounters;
+
 /**
  * Represents the result of an algorithm execution or experiment.
  *
@@ -37,6 +39,18 @@ public record Result(
 		/**
 		 * Nominal time taken (with respect to the CHeSC 2011 Competition computer).
 		 */
-		double nominalTimeTaken) {
+		double nominalTimeTaken,
+		/**
+		 * Evaluations used to reach the target objective value, or -1 if it was not reached.
+		 */
+		long evaluationsToTarget,
+		/**
+		 * CPU time in seconds taken to reach the target objective value, or -1 if it was not reached or could not be measured.
+		 */
+		double cpuTimeToTarget,
+		/**
+		 * Operations performed by the trial per heuristic, or null if instrumentation is disabled.
+		 */
+		OperationCounters counters) {
 }
 
@@ -0,0 +1,160 @@
+package com.aim.racing;
+
+/**
+ * The tail probabilities of the distributions used by the rank tests, computed from the regularised
+ * incomplete gamma and beta functions as in Numerical Recipes.
+ */
+final class Distributions {
+
+	private static final int MAXIMUM_ITERATIONS = 500;
+
+	private static final double EPSILON = 1e-14, TINY = 1e-300;
+
+	private static final double[] LANCZOS_COEFFICIENTS = { 76.18009172947146, -86.50532032941677, 24.01409824083091,
+			-1.231739572450155, 0.1208650973866179e-2, -0.5395239384953e-5 };
+
+	private Distributions() {
+	}
+
+	/**
+	 * @param dX The value of the statistic.
+	 * @param dDegreesOfFreedom The degrees of freedom.
+	 * @return The probability that a chi-squared variable exceeds the statistic.
+	 */
+	static double chiSquaredSurvival(double dX, double dDegreesOfFreedom) {
+
+		return dX <= 0.0d ? 1.0d : regularizedGammaQ(dDegreesOfFreedom / 2.0d, dX / 2.0d);
+	}
+
+	/**
+	 * @param dT The value of the statistic.
+	 * @param dDegreesOfFreedom The degrees of freedom.
+	 * @return The probability that the absolute value of a Student's t variable exceeds that of the statistic.
+	 */
+	static double studentTTwoSided(double dT, double dDegreesOfFreedom) {
+
+		return regularizedBeta(dDegreesOfFreedom / (dDegreesOfFreedom + dT * dT), dDegreesOfFreedom / 2.0d, 0.5d);
+	}
+
+	/**
+	 * @param dZ The value of the statistic.
+	 * @return The probability that the absolute value of a standard normal variable exceeds that of the statistic.
+	 */
+	static double normalTwoSided(double dZ) {
+
+		// erfc(x) = Q(1/2, x^2)
+		return regularizedGammaQ(0.5d, dZ * dZ / 2.0d);
+	}
+
+	private static double logGamma(double dX) {
+
+		double dY = dX, dTemp = dX + 5.5d;
+		dTemp -= (dX + 0.5d) * Math.log(dTemp);
+
+		double dSeries = 1.000000000190015d;
+		for (double dCoefficient : LANCZOS_COEFFICIENTS) {
+			dSeries += dCoefficient / ++dY;
+		}
+
+		return -dTemp + Math.log(2.5066282746310005d * dSeries / dX);
+	}
+
+	/**
+	 * @return The regularised upper incomplete gamma function Q(a, x).
+	 */
+	private static double regularizedGammaQ(double dA, double dX) {
+
+		if (dX <= 0.0d) {
+			return 1.0d;
+		}
+
+		double dLogPrefix = -dX + dA * Math.log(dX) - logGamma(dA);
+		if (dX < dA + 1.0d) {
+
+			// series for P(a, x)
+			double dTerm = 1.0d / dA, dSum = dTerm;
+			for (int n = 1; n <= MAXIMUM_ITERATIONS && Math.abs(dTerm) > Math.abs(dSum) * EPSILON; n++) {
+				dTerm *= dX / (dA + n);
+				dSum += dTerm;
+			}
+
+			return Math.max(0.0d, 1.0d - dSum * Math.exp(dLogPrefix));
+		}
+
+		// continued fraction for Q(a, x) by the modified Lentz method
+		double dB = dX + 1.0d - dA, dC = 1.0d / TINY, dD = 1.0d / dB, dH = dD;
+		for (int n = 1; n <= MAXIMUM_ITERATIONS; n++) {
+
+			double dAn = -n * (n - dA);
+			dB += 2.0d;
+			dD = dAn * dD + dB;
+			dD = Math.abs(dD) < TINY ? 1.0d / TINY : 1.0d / dD;
+			dC = dB + dAn / dC;
+			dC = Math.abs(dC) < TINY ? TINY : dC;
+
+			double dDelta = dD * dC;
+			dH *= dDelta;
+			if (Math.abs(dDelta - 1.0d) < EPSILON) {
+				break;
+			}
+		}
+
+		return Math.exp(dLogPrefix) * dH;
+	}
+
+	/**
+	 * @return The regularised incomplete beta function I_x(a, b).
+	 */
+	private static double regularizedBeta(double dX, double dA, double dB) {
+
+		if (dX <= 0.0d) {
+			return 0.0d;
+		} else if (dX >= 1.0d) {
+			return 1.0d;
+		}
+
+		double dLogPrefix = logGamma(dA + dB) - logGamma(dA) - logGamma(dB) + dA * Math.log(dX) + dB * Math.log(1.0d - dX);
+
+		// the continued fraction converges quickly only on one side of the mean
+		if (dX < (dA + 1.0d) / (dA + dB + 2.0d)) {
+			return Math.exp(dLogPrefix) * betaContinuedFraction(dX, dA, dB) / dA;
+		}
+
+		return 1.0d - Math.exp(dLogPrefix) * betaContinuedFraction(1.0d - dX, dB, dA) / dB;
+	}
+
+	private static double betaContinuedFraction(double dX, double dA, double dB) {
+
+		double dC = 1.0d, dD = 1.0d - (dA + dB) * dX / (dA + 1.0d);
+		dD = Math.abs(dD) < TINY ? 1.0d / TINY : 1.0d / dD;
+		double dH = dD;
+
+		for (int m = 1; m <= MAXIMUM_ITERATIONS; m++) {
+
+			int m2 = m << 1;
+
+			// even step
+			double dAm = m * (dB - m) * dX / ((dA + m2 - 1.0d) * (dA + m2));
+			dD = 1.0d + dAm * dD;
+			dD = Math.abs(dD) < TINY ? 1.0d / TINY : 1.0d / dD;
+			dC = 1.0d + dAm / dC;
+			dC = Math.abs(dC) < TINY ? TINY : dC;
+			dH *= dD * dC;
+
+			// odd step
+			dAm = -(dA + m) * (dA + dB + m) * dX / ((dA + m2) * (dA + m2 + 1.0d));
+			dD = 1.0d + dAm * dD;
+			dD = Math.abs(dD) < TINY ? 1.0d / TINY : 1.0d / dD;
+			dC = 1.0d + dAm / dC;
+			dC = Math.abs(dC) < TINY ? TINY : dC;
+
+			double dDelta = dD * dC;
+			dH *= dDelta;
+			if (Math.abs(dDelta - 1.0d) < EPSILON) {
+				break;
+			}
+		}
+
+		return dH;
+	}
+}
@@ -0,0 +1,280 @@
+package com.aim.racing;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import com.aim.TrialScheduler;
+
+/**
+ * Selects the best of a set of candidate configurations by racing them in the manner of F-Race.
+ * Each round runs one trial of every surviving candidate on the same seed, in parallel on a
+ * {@link TrialScheduler}, so that the results are paired. From the first test onwards, after every
+ * round the candidates still in the race are compared on all the seeds so far, and those which are
+ * significantly worse than the best are eliminated:
+ * <ul>
+ * <li>with three or more candidates, by a Friedman test followed by Conover's post-hoc comparison
+ * of every candidate with the one of the lowest rank sum;</li>
+ * <li>with two candidates, by a Wilcoxon signed-rank test.</li>
+ * </ul>
+ * The race ends when one candidate is left or every seed has been used. The candidates eliminated
+ * depend only on the results of the trials, not on the number of workers.
+ */
+public class RacingTuner {
+
+	public static final double DEFAULT_SIGNIFICANCE_LEVEL = 0.05;
+
+	/**
+	 * The number of rounds after which the candidates are first compared.
+	 */
+	public static final int DEFAULT_FIRST_TEST = 5;
+
+	private final List<String> m_oCandidateNames;
+
+	private final int m_iMaximumRounds;
+
+	private final int m_iNumberOfWorkers;
+
+	private final boolean m_bBackground;
+
+	private final double m_dSignificanceLevel;
+
+	private final int m_iFirstTest;
+
+	/**
+	 * @param oCandidateNames The names of the candidates, the ID of a candidate is its index.
+	 * @param iMaximumRounds The number of seeds available, i.e. the maximum number of trials per candidate.
+	 * @param iNumberOfWorkers The number of threads to run the trials of a round on.
+	 * @param bBackground Whether the workers should run at the minimum thread priority.
+	 */
+	public RacingTuner(List<String> oCandidateNames, int iMaximumRounds, int iNumberOfWorkers, boolean bBackground) {
+
+		this(oCandidateNames, iMaximumRounds, iNumberOfWorkers, bBackground, DEFAULT_SIGNIFICANCE_LEVEL, DEFAULT_FIRST_TEST);
+	}
+
+	/**
+	 * @param oCandidateNames The names of the candidates, the ID of a candidate is its index.
+	 * @param iMaximumRounds The number of seeds available, i.e. the maximum number of trials per candidate.
+	 * @param iNumberOfWorkers The number of threads to run the trials of a round on.
+	 * @param bBackground Whether the workers should run at the minimum thread priority.
+	 * @param dSignificanceLevel The significance level of the tests.
+	 * @param iFirstTest The number of rounds after which the candidates are first compared.
+	 */
+	public RacingTuner(List<String> oCandidateNames, int iMaximumRounds, int iNumberOfWorkers, boolean bBackground,
+			double dSignificanceLevel, int iFirstTest) {
+
+		if (oCandidateNames.isEmpty()) {
+			throw new IllegalArgumentException("There must be at least one candidate");
+		}
+
+		this.m_oCandidateNames = List.copyOf(oCandidateNames);
+		this.m_iMaximumRounds = iMaximumRounds;
+		this.m_iNumberOfWorkers = iNumberOfWorkers;
+		this.m_bBackground = bBackground;
+		this.m_dSignificanceLevel = dSignificanceLevel;
+		this.m_iFirstTest = Math.max(2, iFirstTest);
+	}
+
+	/**
+	 * Runs the race. The trial of candidate {@code c} in round {@code r} is run as
+	 * {@code oTrial.run(c, r)}, and must use the {@code r}th seed so that the candidates are compared
+	 * on the same seeds; the best solution value of the trial is the value compared.
+	 *
+	 * @param oTrial Runs the trial of a candidate.
+	 * @return The outcome of the race.
+	 */
+	public Race race(TrialScheduler.Trial oTrial) {
+
+		List<Integer> oSurvivors = new ArrayList<>();
+		for (int c = 0; c < m_oCandidateNames.size(); c++) {
+			oSurvivors.add(c);
+		}
+
+		// the results of every candidate, one entry per round it took part in
+		List<List<Integer>> oResults = new ArrayList<>();
+		for (int c = 0; c < m_oCandidateNames.size(); c++) {
+			oResults.add(new ArrayList<>());
+		}
+
+		TrialScheduler oScheduler = new TrialScheduler(Math.max(1, m_iNumberOfWorkers), m_bBackground);
+		int iRounds = 0, iTrials = 0;
+		long lEvaluations = 0L;
+		while (iRounds < m_iMaximumRounds && oSurvivors.size() > 1) {
+
+			for (int iCandidate : oSurvivors) {
+				oScheduler.submit(iCandidate, iRounds);
+			}
+
+			for (TrialScheduler.Job oJob : oScheduler.runAll(oTrial)) {
+				oResults.get(oJob.getHeuristicId()).add(oJob.getResult().getBestSolutionValue());
+				lEvaluations += Math.max(0L, oJob.getResult().getEvaluationsUsed());
+			}
+
+			iTrials += oSurvivors.size();
+			iRounds++;
+
+			if (iRounds >= m_iFirstTest) {
+				eliminate(oSurvivors, oResults, iRounds);
+			}
+		}
+
+		// order the survivors by their rank sums over the rounds they all took part in
+		List<Integer> oRanked = new ArrayList<>(oSurvivors);
+		if (iRounds > 0) {
+
+			double[] adRankSums = RankTests.rankSums(RankTests.rankBlocks(getResultMatrix(oSurvivors, oResults, iRounds)));
+			oRanked.sort(Comparator.comparingDouble(c -> adRankSums[oSurvivors.indexOf(c)]));
+		}
+
+		return new Race(oRanked, iRounds, iTrials, lEvaluations, m_oCandidateNames.size() * m_iMaximumRounds);
+	}
+
+	private void eliminate(List<Integer> oSurvivors, List<List<Integer>> oResults, int iRounds) {
+
+		double[][] aadValues = getResultMatrix(oSurvivors, oResults, iRounds);
+		List<Integer> oEliminated = new ArrayList<>();
+		String strTest;
+
+		if (oSurvivors.size() == 2) {
+
+			double[] adA = new double[iRounds], adB = new double[iRounds];
+			for (int r = 0; r < iRounds; r++) {
+				adA[r] = aadValues[r][0];
+				adB[r] = aadValues[r][1];
+			}
+
+			double dP = RankTests.wilcoxonSignedRank(adA, adB);
+			strTest = String.format("Wilcoxon p = %.4f", dP);
+			if (dP < m_dSignificanceLevel) {
+
+				double[] adRankSums = RankTests.rankSums(RankTests.rankBlocks(aadValues));
+				oEliminated.add(oSurvivors.get(adRankSums[0] > adRankSums[1] ? 0 : 1));
+			}
+
+		} else {
+
+			double[][] aadRanks = RankTests.rankBlocks(aadValues);
+			double dP = RankTests.friedman(aadRanks);
+			strTest = String.format("Friedman p = %.4f", dP);
+			if (dP < m_dSignificanceLevel) {
+
+				double[] adRankSums = RankTests.rankSums(aadRanks);
+				int iBest = 0;
+				for (int j = 1; j < adRankSums.length; j++) {
+					if (adRankSums[j] < adRankSums[iBest]) {
+						iBest = j;
+					}
+				}
+
+				for (int j = 0; j < adRankSums.length; j++) {
+					if (j != iBest && RankTests.conover(aadRanks, iBest, j) < m_dSignificanceLevel) {
+						oEliminated.add(oSurvivors.get(j));
+					}
+				}
+			}
+		}
+
+		oSurvivors.removeAll(oEliminated);
+		System.out.printf("Round %d: %s, eliminated %s, %d candidates remain%n", iRounds, strTest,
+				oEliminated.isEmpty() ? "none" : String.join("; ", oEliminated.stream().map(m_oCandidateNames::get).toList()), oSurvivors.size());
+	}
+
+	/**
+	 * @return The results of the candidates, one row per round and one column per candidate.
+	 */
+	private static double[][] getResultMatrix(List<Integer> oCandidates, List<List<Integer>> oResults, int iRounds) {
+
+		double[][] aadValues = new double[iRounds][oCandidates.size()];
+		for (int j = 0; j < oCandidates.size(); j++) {
+
+			List<Integer> oCandidateResults = oResults.get(oCandidates.get(j));
+			for (int r = 0; r < iRounds; r++) {
+				aadValues[r][j] = oCandidateResults.get(r);
+			}
+		}
+
+		return aadValues;
+	}
+
+	/**
+	 * @return The names of the candidates, the ID of a candidate is its index.
+	 */
+	public List<String> getCandidateNames() {
+
+		return m_oCandidateNames;
+	}
+
+	/**
+	 * The outcome of a race.
+	 */
+	public static final class Race {
+
+		private final List<Integer> m_oSurvivors;
+
+		private final int m_iRounds;
+
+		private final int m_iTrials;
+
+		private final long m_lEvaluations;
+
+		private final int m_iTrialsOfFullGrid;
+
+		private Race(List<Integer> oSurvivors, int iRounds, int iTrials, long lEvaluations, int iTrialsOfFullGrid) {
+
+			this.m_oSurvivors = List.copyOf(oSurvivors);
+			this.m_iRounds = iRounds;
+			this.m_iTrials = iTrials;
+			this.m_lEvaluations = lEvaluations;
+			this.m_iTrialsOfFullGrid = iTrialsOfFullGrid;
+		}
+
+		/**
+		 * @return The IDs of the candidates which were not eliminated, best first.
+		 */
+		public List<Integer> getSurvivors() {
+
+			return m_oSurvivors;
+		}
+
+		/**
+		 * @return The ID of the surviving candidate with the lowest rank sum.
+		 */
+		public int getBestCandidate() {
+
+			return m_oSurvivors.getFirst();
+		}
+
+		/**
+		 * @return The number of rounds, i.e. seeds, used.
+		 */
+		public int getNumberOfRounds() {
+
+			return m_iRounds;
+		}
+
+		/**
+		 * @return The number of trials run.
+		 */
+		public int getNumberOfTrials() {
+
+			return m_iTrials;
+		}
+
+		/**
+		 * @return The total evaluations used by the trials run, as recorded in their results, so that
+		 *         trials loaded from a cache or which stopped at a target count what they actually used.
+		 */
+		public long getNumberOfEvaluations() {
+
+			return m_lEvaluations;
+		}
+
+		/**
+		 * @return The number of trials of running every candidate on every seed.
+		 */
+		public int getNumberOfTrialsOfFullGrid() {
+
+			return m_iTrialsOfFullGrid;
+		}
+	}
+}
@@ -0,0 +1,206 @@
+package com.aim.racing;
+
+import java.util.Arrays;
+
+/**
+ * The non-parametric tests used to race configurations on paired seeds: the Friedman test with the
+ * post-hoc pairwise comparison of Conover for three or more configurations, and the Wilcoxon
+ * signed-rank test for two. The results of a race are held as a matrix with one row (block) per
+ * seed and one column per configuration, and lower values are better.
+ */
+public final class RankTests {
+
+	private RankTests() {
+	}
+
+	/**
+	 * Ranks the values of each row from 1 (lowest) to the number of columns, giving tied values the
+	 * mean of the ranks they span.
+	 *
+	 * @param aadValues The values, one row per block.
+	 * @return The ranks, one row per block.
+	 */
+	public static double[][] rankBlocks(double[][] aadValues) {
+
+		double[][] aadRanks = new double[aadValues.length][];
+		for (int i = 0; i < aadValues.length; i++) {
+			aadRanks[i] = rank(aadValues[i]);
+		}
+
+		return aadRanks;
+	}
+
+	private static double[] rank(double[] adValues) {
+
+		Integer[] aiOrder = new Integer[adValues.length];
+		for (int i = 0; i < aiOrder.length; i++) {
+			aiOrder[i] = i;
+		}
+
+		Arrays.sort(aiOrder, (a, b) -> Double.compare(adValues[a], adValues[b]));
+
+		double[] adRanks = new double[adValues.length];
+		for (int i = 0; i < aiOrder.length;) {
+
+			int j = i;
+			while (j + 1 < aiOrder.length && adValues[aiOrder[j + 1]] == adValues[aiOrder[i]]) {
+				j++;
+			}
+
+			// ranks are 1-based, ties share the mean of ranks i + 1 .. j + 1
+			double dRank = (i + j) / 2.0d + 1.0d;
+			for (int k = i; k <= j; k++) {
+				adRanks[aiOrder[k]] = dRank;
+			}
+
+			i = j + 1;
+		}
+
+		return adRanks;
+	}
+
+	/**
+	 * @param aadRanks The ranks, one row per block.
+	 * @return The sum of the ranks of each column.
+	 */
+	public static double[] rankSums(double[][] aadRanks) {
+
+		double[] adSums = new double[aadRanks[0].length];
+		for (double[] adRow : aadRanks) {
+			for (int j = 0; j < adRow.length; j++) {
+				adSums[j] += adRow[j];
+			}
+		}
+
+		return adSums;
+	}
+
+	/**
+	 * The Friedman test of the hypothesis that all columns are equally good, using the statistic
+	 * corrected for ties, which follows a chi-squared distribution with {@code k - 1} degrees of freedom.
+	 *
+	 * @param aadRanks The ranks, one row per block.
+	 * @return The p-value, or 1 if every block is tied throughout.
+	 */
+	public static double friedman(double[][] aadRanks) {
+
+		int b = aadRanks.length, k = aadRanks[0].length;
+		double dCorrection = b * k * (k + 1) * (k + 1) / 4.0d;
+		double dDenominator = sumOfSquares(aadRanks) - dCorrection;
+		if (dDenominator <= 0.0d) {
+			return 1.0d;
+		}
+
+		double dMeanRankSum = b * (k + 1) / 2.0d, dNumerator = 0.0d;
+		for (double dSum : rankSums(aadRanks)) {
+			dNumerator += (dSum - dMeanRankSum) * (dSum - dMeanRankSum);
+		}
+
+		return Distributions.chiSquaredSurvival((k - 1) * dNumerator / dDenominator, k - 1);
+	}
+
+	/**
+	 * Conover's post-hoc comparison of two columns following a Friedman test, which compares the
+	 * difference of their rank sums with a Student's t distribution with {@code (b - 1)(k - 1)}
+	 * degrees of freedom.
+	 *
+	 * @param aadRanks The ranks, one row per block.
+	 * @param iColumnA The first column.
+	 * @param iColumnB The second column.
+	 * @return The two-sided p-value of the difference between the columns.
+	 */
+	public static double conover(double[][] aadRanks, int iColumnA, int iColumnB) {
+
+		int b = aadRanks.length, k = aadRanks[0].length;
+		double[] adSums = rankSums(aadRanks);
+		double dDifference = Math.abs(adSums[iColumnA] - adSums[iColumnB]);
+
+		double dSumOfSquaredSums = 0.0d;
+		for (double dSum : adSums) {
+			dSumOfSquaredSums += dSum * dSum;
+		}
+
+		double dVariance = 2.0d * (b * sumOfSquares(aadRanks) - dSumOfSquaredSums) / ((b - 1.0d) * (k - 1.0d));
+		if (b < 2 || dVariance <= 0.0d) {
+
+			// every block ranks the columns identically
+			return dDifference == 0.0d ? 1.0d : 0.0d;
+		}
+
+		return Distributions.studentTTwoSided(dDifference / Math.sqrt(dVariance), (b - 1.0d) * (k - 1.0d));
+	}
+
+	/**
+	 * The Wilcoxon signed-rank test of the hypothesis that the differences between two paired
+	 * samples are symmetric about 0, using the normal approximation with the corrections for ties
+	 * and continuity. Pairs with no difference are discarded.
+	 *
+	 * @param adA The first sample.
+	 * @param adB The second sample, paired with the first.
+	 * @return The two-sided p-value, or 1 if every pair is tied.
+	 */
+	public static double wilcoxonSignedRank(double[] adA, double[] adB) {
+
+		int n = 0;
+		double[] adDifferences = new double[adA.length];
+		for (int i = 0; i < adA.length; i++) {
+			if (adA[i] != adB[i]) {
+				adDifferences[n++] = adA[i] - adB[i];
+			}
+		}
+
+		if (n == 0) {
+			return 1.0d;
+		}
+
+		double[] adMagnitudes = new double[n];
+		for (int i = 0; i < n; i++) {
+			adMagnitudes[i] = Math.abs(adDifferences[i]);
+		}
+
+		double[] adRanks = rank(adMagnitudes);
+		double dPositiveRankSum = 0.0d;
+		for (int i = 0; i < n; i++) {
+			if (adDifferences[i] > 0.0d) {
+				dPositiveRankSum += adRanks[i];
+			}
+		}
+
+		// each group of t tied magnitudes reduces the variance by (t^3 - t) / 48
+		double[] adSorted = adMagnitudes.clone();
+		Arrays.sort(adSorted);
+		double dTieCorrection = 0.0d;
+		for (int i = 0; i < n;) {
+
+			int j = i;
+			while (j < n && adSorted[j] == adSorted[i]) {
+				j++;
+			}
+
+			double t = j - i;
+			dTieCorrection += (t * t * t - t) / 48.0d;
+			i = j;
+		}
+
+		double dMean = n * (n + 1) / 4.0d;
+		double dVariance = n * (n + 1) * (2.0d * n + 1) / 24.0d - dTieCorrection;
+		if (dVariance <= 0.0d) {
+			return 1.0d;
+		}
+
+		double dZ = Math.max(0.0d, Math.abs(dPositiveRankSum - dMean) - 0.5d) / Math.sqrt(dVariance);
+		return Math.min(1.0d, Distributions.normalTwoSided(dZ));
+	}
+
+	private static double sumOfSquares(double[][] aadRanks) {
+
+		double dSum = 0.0d;
+		for (double[] adRow : aadRanks) {
+			for (double dRank : adRow) {
+				dSum += dRank * dRank;
+			}
+		}
+
+		return dSum;
+	}
+}
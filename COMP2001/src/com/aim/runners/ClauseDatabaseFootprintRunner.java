@@ -0,0 +1,34 @@
+package com.aim.runners;
+
+import com.aim.sat.ClauseDatabase;
+import com.aim.sat.SATInstances;
+
+/**
+ * Prints the memory footprint of the flat clause database of each MAX-SAT instance next to the
+ * estimated footprint of the same clauses as the framework's {@code Clause} objects.
+ * <p>
+ * By default all instances that can be loaded by ID are reported, alternatively the paths of
+ * DIMACS files (e.g. /data/sat/blocksworld/huge.txt) can be passed as arguments.
+ */
+public class ClauseDatabaseFootprintRunner {
+
+	public static void main(String[] args) {
+
+		String[] astrInstances = args;
+		if (astrInstances.length == 0) {
+
+			astrInstances = new String[SATInstances.getNumberOfInstances()];
+			for (int i = 0; i < astrInstances.length; i++) {
+				astrInstances[i] = SATInstances.getInstancePath(i);
+			}
+		}
+
+		System.out.println("instance,variables,clauses,literals,flat_bytes,object_graph_bytes");
+		for (String strInstance : astrInstances) {
+
+			ClauseDatabase oClauses = ClauseDatabase.load(strInstance);
+			System.out.printf("%s,%d,%d,%d,%d,%d%n", strInstance, oClauses.getNumberOfVariables(), oClauses.getNumberOfClauses(),
+					oClauses.getNumberOfLiterals(), oClauses.getMemoryFootprint(), oClauses.getObjectGraphFootprint());
+		}
+	}
+}
@@ -0,0 +1,128 @@
+package com.aim.runners;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.aim.Instrumentation;
+import com.aim.ResultCache;
+import com.aim.RunData;
+import com.aim.TestFrame;
+import com.aim.TestFrameConfig;
+import com.aim.heuristics.DavissBitHillClimbing;
+import com.aim.metaheuristics.singlepoint.iteratedlocalsearch.IteratedLocalSearch;
+import com.aim.pseudorandom.RandomBitFlipHeuristic;
+import com.aim.racing.RacingTuner;
+import com.aim.sat.IncrementalSAT;
+import com.aim.sat.InstanceCache;
+import com.aim.sat.SATInstances;
+import uk.ac.nott.cs.aim.searchmethods.SearchMethod;
+
+/**
+ * Tunes the intensity of mutation and depth of search of Iterated Local Search with DBHC by racing
+ * every setting from 0 to 3 against each other with a {@link RacingTuner}, using the instance, run
+ * time, seeds and workers of the lab 3 configuration. Settings which are significantly worse than
+ * the best are dropped as soon as the evidence allows, rather than running all 31 trials of every
+ * setting.
+ * <p>
+ * IOM = 0 with DOS = 0 is not raced since it never modifies the solution and so would never spend
+ * its evaluation budget.
+ */
+public class IteratedLocalSearchRacingRunner extends TestFrame {
+
+	private static final int MAXIMUM_PARAMETER_VALUE = 3;
+
+	// the {intensityOfMutation, depthOfSearch} of each candidate
+	private final List<int[]> m_oCandidates = new ArrayList<>();
+
+	public IteratedLocalSearchRacingRunner(Lab3ExercisesTestFrameConfig config) {
+
+		super(config);
+
+		for (int iom = 0; iom <= MAXIMUM_PARAMETER_VALUE; iom++) {
+			for (int dos = 0; dos <= MAXIMUM_PARAMETER_VALUE; dos++) {
+				if (iom > 0 || dos > 0) {
+					m_oCandidates.add(new int[] { iom, dos });
+				}
+			}
+		}
+	}
+
+	private String getCandidateName(int iCandidate) {
+
+		int[] aiSettings = m_oCandidates.get(iCandidate);
+		return String.format("IOM = %d, DOS = %d", aiSettings[0], aiSettings[1]);
+	}
+
+	public void runTests() {
+
+		TestFrameConfig oTestConfiguration = getTestConfiguration();
+		List<String> oNames = new ArrayList<>();
+		for (int c = 0; c < m_oCandidates.size(); c++) {
+			oNames.add(getCandidateName(c));
+		}
+
+		int iNumberOfWorkers = getNumberOfTrialWorkers() > 0 ? getNumberOfTrialWorkers() : Runtime.getRuntime().availableProcessors();
+		RacingTuner oTuner = new RacingTuner(oNames, oTestConfiguration.getTotalRuns(), iNumberOfWorkers, oTestConfiguration.isBackgroundExecution());
+		RacingTuner.Race oRace = oTuner.race(this::runOrLoadTrial);
+		deleteTrialJournal();
+
+		System.out.println(InstanceCache.getStatistics());
+		System.out.println(ResultCache.getStatistics());
+		if (Instrumentation.ENABLED) {
+			System.out.println(Instrumentation.getStatistics());
+		}
+		System.out.printf("Survivors after %d rounds: %s%n", oRace.getNumberOfRounds(), String.join("; ", oRace.getSurvivors().stream().map(this::getCandidateName).toList()));
+		System.out.println("Selected configuration: " + getCandidateName(oRace.getBestCandidate()));
+
+		// the evaluations used are those recorded by the trials, so a trial which stopped at the target counts
+		// what it used, against a full grid in which every trial spends the evaluation budget of the instance
+		long lEvaluationsOfFullGrid = oRace.getNumberOfTrialsOfFullGrid()
+				* SATInstances.getMaxEvaluations(oTestConfiguration.getInstanceId(), oTestConfiguration.getRunTime());
+		long lEvaluationsSaved = lEvaluationsOfFullGrid - oRace.getNumberOfEvaluations();
+		System.out.printf("Used %d of the %d evaluations of the full grid, saving %d evaluations (%.1f%%)%n", oRace.getNumberOfEvaluations(),
+				lEvaluationsOfFullGrid, lEvaluationsSaved, 100.0d * lEvaluationsSaved / lEvaluationsOfFullGrid);
+
+		int iTrialsSaved = oRace.getNumberOfTrialsOfFullGrid() - oRace.getNumberOfTrials();
+		System.out.printf("Ran %d of the %d trials of the full grid, saving %d trials (%.1f%%)%n", oRace.getNumberOfTrials(),
+				oRace.getNumberOfTrialsOfFullGrid(), iTrialsSaved, 100.0d * iTrialsSaved / oRace.getNumberOfTrialsOfFullGrid());
+	}
+
+	@Override
+	public boolean shouldRunExperimentsInParallel() {
+
+		return false;
+	}
+
+	@Override
+	protected RunData runTrial(int iCandidate, int iRunId) {
+
+		int[] aiSettings = m_oCandidates.get(iCandidate);
+
+		Random oRandom = new Random(getExperimentalSeeds()[iRunId]);
+		IncrementalSAT oProblem = createProblem(oRandom);
+
+		SearchMethod oSearchMethod = new IteratedLocalSearch(oProblem, oRandom, Instrumentation.instrument(new RandomBitFlipHeuristic(oRandom)), Instrumentation.instrument(new DavissBitHillClimbing(oRandom)),
+				aiSettings[0], aiSettings[1]);
+
+		return runSearchMethod(oProblem, oSearchMethod, oSearchMethod + " (" + getCandidateName(iCandidate) + ")", iCandidate, iRunId);
+	}
+
+	@Override
+	protected String getTrialDescription(int iCandidate) {
+
+		return "Iterated Local Search with random bit flip and DBHC, " + getCandidateName(iCandidate);
+	}
+
+	@Override
+	protected int getNumberOfMethodsToTest() {
+
+		return m_oCandidates.size();
+	}
+
+	public static void main(String[] args) {
+
+		TestFrame oTestFrame = new IteratedLocalSearchRacingRunner(Lab3ExercisesTestFrameConfig.getInstance());
+		oTestFrame.runTests();
+	}
+}
@@ -4,13 +4,16 @@ import java.util.List;
 import java.util.Random;
 import java.util.stream.IntStream;
 
+import com.aim.FitnessTrace;
+import com.aim.Instrumentation;
 import com.aim.RunData;
 import com.aim.TestFrame;
 import com.aim.TestFrameConfig;
 
 import com.aim.pseudorandom.RandomWalk;
 import com.aim.pseudorandom.Result;
-import uk.ac.nott.cs.aim.domains.chesc2014_SAT.SAT;
+import com.aim.sat.IncrementalSAT;
+import com.aim.sat.InstanceCache;
 
 /**
  * The Lab1ExercisesRunner class extends the TestFrame superclass and provides
@@ -54,22 +57,37 @@ public class Lab1ExercisesRunner extends TestFrame {
 	public Result runTest(int iTrialId, long lSeed, int iInstance, int iTimeLimit) {
 
 		Random oRandom = new Random(lSeed);
-		SAT oProblemInstance = new SAT(iInstance, iTimeLimit, oRandom);
+		IncrementalSAT oProblemInstance = InstanceCache.createProblem(iInstance, iTimeLimit, oRandom);
+		oProblemInstance.setTargetObjectiveValue(getTestConfiguration().getTargetObjectiveValue());
+		Instrumentation.attach(oProblemInstance);
 		RandomWalk oRandomWalkSearchAlgorithm = new RandomWalk(oProblemInstance, oRandom);
 		oRandomWalkSearchAlgorithm.run();
+		Instrumentation.record(oProblemInstance.getOperationCounters());
 		
-		return new Result(oProblemInstance.toString(), iInstance, iTrialId, lSeed, oProblemInstance.getBestSolutionValue(), oRandomWalkSearchAlgorithm.getTimeTaken(), iTimeLimit);
+		long lCpuTimeToTarget = oProblemInstance.getCpuTimeToTarget();
+		return new Result(oProblemInstance.toString(), iInstance, iTrialId, lSeed, oProblemInstance.getBestSolutionValue(), oRandomWalkSearchAlgorithm.getTimeTaken(), iTimeLimit,
+				oProblemInstance.getEvaluationsToTarget(), lCpuTimeToTarget < 0L ? -1.0d : lCpuTimeToTarget / 1e9, oProblemInstance.getOperationCounters());
 	}
 
     /**
      * Prints the results of an experiment or algorithm execution formatted as a single line of output.
      *
      * @param oResult The result object containing the details of the experiment or algorithm execution,
-     *                including seed, the objective value of the best solution found, CPU time taken, and nominal time taken.
+     *                including seed, the objective value of the best solution found, CPU time taken, and nominal time taken,
+     *                followed by the evaluations and CPU time taken to reach the target if one is configured, which are
+     *                empty if the trial did not reach it.
      */
 	private void printResult(Result oResult) {
 
-		System.out.printf("%d,%d,%.3f,%.3f%n", oResult.seed(), oResult.f_best(), oResult.cpuTimeTaken(), oResult.nominalTimeTaken());
+		if (getTestConfiguration().getTargetObjectiveValue() < 0) {
+			System.out.printf("%d,%d,%.3f,%.3f%n", oResult.seed(), oResult.f_best(), oResult.cpuTimeTaken(), oResult.nominalTimeTaken());
+		} else if (oResult.evaluationsToTarget() < 0L) {
+			// the target columns are left empty for trials which did not reach it
+			System.out.printf("%d,%d,%.3f,%.3f,,%n", oResult.seed(), oResult.f_best(), oResult.cpuTimeTaken(), oResult.nominalTimeTaken());
+		} else {
+			System.out.printf("%d,%d,%.3f,%.3f,%d,%s%n", oResult.seed(), oResult.f_best(), oResult.cpuTimeTaken(), oResult.nominalTimeTaken(),
+					oResult.evaluationsToTarget(), oResult.cpuTimeToTarget() < 0.0d ? "" : String.format("%.3f", oResult.cpuTimeToTarget()));
+		}
 	}
 
     @Override
@@ -89,7 +107,8 @@ public class Lab1ExercisesRunner extends TestFrame {
         final long[] alSeeds = getExperimentalSeeds();
 
         System.out.println(getTestConfiguration().getConfigurationAsString());
-        System.out.println("seed,f_best,time_taken(CPU seconds),time_taken(nominal seconds)");
+        System.out.println("seed,f_best,time_taken(CPU seconds),time_taken(nominal seconds)"
+                + (oTestConfiguration.getTargetObjectiveValue() < 0 ? "" : ",evaluations_to_target,time_to_target(CPU seconds)"));
         runUsingExperimentalParallelism(IntStream.range(0, iTotalRuns).boxed())
                 .map(i -> runTest(i, alSeeds[i], iInstanceId, iTimeLimit)).forEachOrdered(this::printResult);
 
@@ -97,6 +116,23 @@ public class Lab1ExercisesRunner extends TestFrame {
         return List.of();
     }
 
+    /**
+     * Runs a trial of the random walk for the {@link com.aim.TrialScheduler}, which runs the trials
+     * instead of {@link #runExperimentsForHeuristicId(int)} if the configuration gives a number of
+     * workers. Its result is logged rather than printed as a row of the CSV, and no fitness trace is
+     * recorded since a random walk does not report its solution-in-hand.
+     */
+    @Override
+    protected RunData runTrial(int iHeuristicId, int iTrialId) {
+
+        Random oRandom = new Random(getExperimentalSeeds()[iTrialId]);
+        IncrementalSAT oProblemInstance = createProblem(oRandom);
+        new RandomWalk(oProblemInstance, oRandom).run();
+
+        logResult("Random Walk", iTrialId, oProblemInstance.getBestSolutionValue(), oProblemInstance::getBestSolutionAsString);
+        return new RunData(new FitnessTrace(), oProblemInstance, "Random Walk", iHeuristicId, iTrialId);
+    }
+
     @Override
     protected int getNumberOfMethodsToTest() {
 
@@ -4,11 +4,12 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
 
+import com.aim.Instrumentation;
 import com.aim.RunData;
 import com.aim.TestFrame;
 import com.aim.TestFrameConfig;
 
-import uk.ac.nott.cs.aim.domains.chesc2014_SAT.SAT;
+import com.aim.sat.IncrementalSAT;
 import uk.ac.nott.cs.aim.satheuristics.SATHeuristic;
 import uk.ac.nott.cs.aim.statistics.PlotData;
 import uk.ac.nott.cs.aim.statistics.XBoxPlot;
@@ -112,18 +113,21 @@ public class Lab2ExercisesRunner extends TestFrame {
         return Lab2ExercisesTestFrameConfig.getInstance().ENABLE_PARALLEL_EXECUTION;
     }
 
+    /**
+     * Runs a single trial of the experiment for the given heuristic ID, either on a parallel stream
+     * or on the trial scheduler depending on the configuration.
+     */
     @Override
-    public List<List<RunData>> runExperimentsForHeuristicId(int iHeuristicId) {
+    protected RunData runTrial(int iHeuristicId, int iTrialId) {
 
-		// runs the experiment over 'getTestConfiguration().getTotalRuns()' trials either synchronous or in parallel
-        List<RunData> loData = runUsingExperimentalParallelism(rangeAsStream(0, getTestConfiguration().getTotalRuns() - 1))
-                // runs the trials in the experiment for the given heuristic ID
-				.map(iTrialId -> runExperiment(iTrialId, iHeuristicId))
-                // store the results of all the trials in a list
-				.toList();
+        return runExperiment(iTrialId, iHeuristicId);
+    }
 
-        return List.of(loData);
-	}
+    @Override
+    protected String getTrialDescription(int iHeuristicId) {
+
+        return "Local search with " + Lab2ExercisesTestFrameConfig.getInstance().getSATHeuristic(iHeuristicId, new Random(0)).getClass().getName();
+    }
 
     @Override
     protected int getNumberOfMethodsToTest() {
@@ -135,7 +139,8 @@ public class Lab2ExercisesRunner extends TestFrame {
      * Executes a single trial of the experiment using a specified random seed related to the trial ID
      * and heuristic identifier and returns the performance data and solution results.
      * This method applies a local search heuristic to solve a satisfiability problem (SAT) instance
-     * until a predefined evaluation limit is reached or exceeded.
+     * until a predefined evaluation limit is reached or exceeded, using
+     * {@link TestFrame#runLocalSearch(IncrementalSAT, SATHeuristic, int, int)}.
      *
      * @param iTrialId the identifier for the current run, used to select the appropriate random seed.
      * @param iHeuristicId the identifier of the heuristic to be applied during the experiment.
@@ -147,34 +152,12 @@ public class Lab2ExercisesRunner extends TestFrame {
 		long[] alSeeds = getExperimentalSeeds();
 		Random oRandom = new Random(alSeeds[iTrialId]);
 		
-		TestFrameConfig oTestConfiguration = getTestConfiguration();
-		SAT oProblem = new SAT(oTestConfiguration.getInstanceId(), oTestConfiguration.getRunTime(), oRandom);
-		ArrayList<Integer> liFitnessTrace = new ArrayList<>();
+		IncrementalSAT oProblem = createProblem(oRandom);
 
-		SATHeuristic oHeuristic = Lab2ExercisesTestFrameConfig.getInstance().getSATHeuristic(iHeuristicId, oRandom);
-		
-		// record the objective value of the initial solution
-		liFitnessTrace.add(oProblem.getObjectiveFunctionValue(SATHeuristic.CURRENT_SOLUTION_INDEX));
-		
-		// continually apply the local search heuristic until the execution limit expires
-		while (!oProblem.hasEvaluationLimitExpired()) {
-
-			// apply DBHC/SDHC to the solution-in-hand
-			oHeuristic.applyHeuristic(oProblem);
-			
-			// evaluate the cost of the solution-in-hand
-			int iFitness = oProblem.getObjectiveFunctionValue(SATHeuristic.CURRENT_SOLUTION_INDEX);
-			
-			// add data to progress plot
-			if (!oProblem.hasEvaluationLimitExpired()) {
-				liFitnessTrace.add(iFitness);
-			}
-		}
-
-		logResult(oHeuristic.getHeuristicName(), iTrialId, oProblem.getBestSolutionValue(), oProblem.getBestSolutionAsString());
-
-		return new RunData(liFitnessTrace, oProblem.getBestSolutionValue(), oHeuristic.getHeuristicName(), iHeuristicId, iTrialId,
-				oProblem.getBestSolutionAsString());
+		SATHeuristic oHeuristic = Instrumentation.instrument(Lab2ExercisesTestFrameConfig.getInstance().getSATHeuristic(iHeuristicId, oRandom));
+
+		// continually apply DBHC/SDHC to the solution-in-hand until the execution limit expires
+		return runLocalSearch(oProblem, oHeuristic, iHeuristicId, iTrialId);
 	}
 
 	public static void main(String[] args) {
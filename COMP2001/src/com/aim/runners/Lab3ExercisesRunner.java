@@ -2,8 +2,8 @@ package com.aim.runners;
 
 import java.util.*;
 import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
+import com.aim.Instrumentation;
 import com.aim.RunData;
 import com.aim.TestFrame;
 
@@ -12,7 +12,7 @@ import com.aim.heuristics.DavissBitHillClimbing;
 import com.aim.heuristics.SteepestDescentHillClimbing;
 import com.aim.metaheuristics.singlepoint.iteratedlocalsearch.IteratedLocalSearch;
 import com.aim.pseudorandom.RandomBitFlipHeuristic;
-import uk.ac.nott.cs.aim.domains.chesc2014_SAT.SAT;
+import com.aim.sat.IncrementalSAT;
 import uk.ac.nott.cs.aim.satheuristics.SATHeuristic;
 import uk.ac.nott.cs.aim.searchmethods.SearchMethod;
 import uk.ac.nott.cs.aim.statistics.PlotData;
@@ -129,52 +129,72 @@ public class Lab3ExercisesRunner extends TestFrame {
 
     /**
 	 * This is where the main algorithm is run.
-	 * Ignore the fancy stream stuff, that just makes the framework scalable across multiple CPU cores.
-	 * Try to understand the parts of the code between the [START] and [END] tags.
+	 * The framework runs this method for each trial, either on a parallel stream or on the trial scheduler.
+	 * Try to understand the parts of the code between the [START] and [END] tags, and the loop which runs
+	 * the search method in {@link TestFrame#runSearchMethod(IncrementalSAT, SearchMethod, int, int)}.
 	 *
 	 * @param iHeuristicId
+	 * @param iRunId
 	 * @return
 	 */
-	protected List<List<RunData>> runExperimentsForHeuristicId(int iHeuristicId) {
+	@Override
+	protected RunData runTrial(int iHeuristicId, int iRunId) {
 
 		long[] alSeeds = getExperimentalSeeds();
         int iIntensityOfMutation = Lab3ExercisesTestFrameConfig.getInstance().getIntensityOfMutation();
         int iDepthOfSearch = Lab3ExercisesTestFrameConfig.getInstance().getDepthOfSearch();
-		
-		Stream<RunData> oData = runUsingExperimentalParallelism(rangeAsStream(0, getTestConfiguration().getTotalRuns() - 1)).map(iRunId -> {
 
-			// ---- [START] ---- set up and running of the experiments and search method.
+		// ---- [START] ---- set up and running of the experiments and search method.
 
-			Random oRandom = new Random(alSeeds[iRunId]);
-			SAT oProblem = new SAT(getTestConfiguration().getInstanceId(), getTestConfiguration().getRunTime(), oRandom);
-			ArrayList<Integer> liFitnessTrace = new ArrayList<>();
+		Random oRandom = new Random(alSeeds[iRunId]);
+		IncrementalSAT oProblem = createProblem(oRandom);
 
-			// TODO - set the local search operator to use here
-			SATHeuristic oLocalSearch = new SteepestDescentHillClimbing(oRandom);
-//			SATHeuristic oLocalSearch = new DavissBitHillClimbing(oRandom); // default
+		SATHeuristic oLocalSearch = Instrumentation.instrument(createLocalSearchHeuristic(oRandom));
+		SATHeuristic oMutation = Instrumentation.instrument(createMutationHeuristic(oRandom));
 
-			// set the perturbation operator to use here
-			SATHeuristic oMutation = new RandomBitFlipHeuristic(oRandom);
+		SearchMethod oSearchMethod = new IteratedLocalSearch(oProblem, oRandom, oMutation, oLocalSearch, iIntensityOfMutation, iDepthOfSearch);
 
-			SearchMethod oSearchMethod = new IteratedLocalSearch(oProblem, oRandom, oMutation, oLocalSearch, iIntensityOfMutation, iDepthOfSearch);
+		// runs the search method until the evaluation limit expires, recording and logging the results
+		return runSearchMethod(oProblem, oSearchMethod, iHeuristicId, iRunId);
 
-			liFitnessTrace.add(oProblem.getObjectiveFunctionValue(SATHeuristic.CURRENT_SOLUTION_INDEX));
-			while (!oProblem.hasEvaluationLimitExpired()) {
+		// ---- [END] ----
+	}
 
-				oSearchMethod.run();
-				int iFitness = oProblem.getObjectiveFunctionValue(SATHeuristic.CURRENT_SOLUTION_INDEX);
-				liFitnessTrace.add(iFitness);
-			}
+	/**
+	 * Creates the perturbation operator of Iterated Local Search.
+	 *
+	 * @param oRandom The random number generator of the trial.
+	 * @return The mutation heuristic.
+	 */
+	private SATHeuristic createMutationHeuristic(Random oRandom) {
 
-			// ---- [END] ----
+		// set the perturbation operator to use here
+		return new RandomBitFlipHeuristic(oRandom);
+	}
 
-			// additional logging for reporting of statistics and plots
-			logResult(oSearchMethod.toString(), iRunId, oProblem.getBestSolutionValue(), oProblem.getBestSolutionAsString());
-			return new RunData(liFitnessTrace, oProblem.getBestSolutionValue(), oSearchMethod.toString(), iHeuristicId, iRunId,
-					oProblem.getBestSolutionAsString());
-		});
+	/**
+	 * Creates the local search operator of Iterated Local Search.
+	 *
+	 * @param oRandom The random number generator of the trial.
+	 * @return The local search heuristic.
+	 */
+	private SATHeuristic createLocalSearchHeuristic(Random oRandom) {
+
+		// TODO - set the local search operator to use here
+		return new SteepestDescentHillClimbing(oRandom);
+//		return new DavissBitHillClimbing(oRandom); // default
+	}
+
+	/**
+	 * Names the mutation and local search operators as well as the parameter settings, since the
+	 * operators are chosen here rather than in the configuration.
+	 */
+	@Override
+	protected String getTrialDescription(int iHeuristicId) {
 
-		return List.of(oData.collect(Collectors.toList()));
+		return "Iterated Local Search with mutation " + createMutationHeuristic(new Random(0)).getClass().getName()
+				+ " and local search " + createLocalSearchHeuristic(new Random(0)).getClass().getName() + ", "
+				+ Lab3ExercisesTestFrameConfig.getInstance().getConfigurationAsString();
 	}
 
     @Override
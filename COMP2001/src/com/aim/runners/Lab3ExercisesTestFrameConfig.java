@@ -44,11 +44,30 @@ public class Lab3ExercisesTestFrameConfig extends TestFrameConfig {
     /**
      * Allows experiments that are based (internally) on a number of changes to a
      * solution-in-hand to be executed in parallel on your machine.
+     * Only used when NUMBER_OF_WORKERS is 0.
      *
      * WARNING: This WILL cause your computer to run slow for other tasks while
      * the experiments are run
      */
     protected final boolean ENABLE_PARALLEL_EXECUTION = true;
+
+    /**
+     * The number of threads the trials are scheduled on, or 0 to use parallel streams.
+     * Reduce this, or enable BACKGROUND_EXECUTION, to keep your computer responsive
+     * while the experiments are run.
+     */
+    protected final int NUMBER_OF_WORKERS = Runtime.getRuntime().availableProcessors();
+
+    /**
+     * Runs the trials at low priority so that other tasks take precedence.
+     */
+    protected final boolean BACKGROUND_EXECUTION = false;
+
+    /**
+     * Stops each trial once its best solution breaks no more than this many clauses, e.g. 0 to stop
+     * satisfiable instances once they are solved, or -1 to use the whole run time.
+     */
+    protected final int TARGET_OBJECTIVE_VALUE = -1;
 	
 	/**
 	 * 
@@ -91,6 +110,21 @@ public class Lab3ExercisesTestFrameConfig extends TestFrameConfig {
 		return this.RUN_TIME;
 	}
 
+	@Override
+	public int getNumberOfWorkers() {
+		return this.NUMBER_OF_WORKERS;
+	}
+
+	@Override
+	public boolean isBackgroundExecution() {
+		return this.BACKGROUND_EXECUTION;
+	}
+
+	@Override
+	public int getTargetObjectiveValue() {
+		return this.TARGET_OBJECTIVE_VALUE;
+	}
+
 	@Override
 	public String getMethodName() {
 		return "Iterated Local Search";
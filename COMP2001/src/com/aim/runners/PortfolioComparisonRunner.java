@@ -0,0 +1,181 @@
+package com.aim.runners;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import com.aim.Instrumentation;
+import com.aim.RunData;
+import com.aim.TestFrame;
+import com.aim.TestFrameConfig;
+import com.aim.heuristics.DavissBitHillClimbing;
+import com.aim.heuristics.genetics.ElitistGenerationalReplacement;
+import com.aim.heuristics.genetics.UniformCrossover;
+import com.aim.metaheuristics.populationbased.MemeticAlgorithm;
+import com.aim.metaheuristics.populationbased.MultimemeMemeticAlgorithm;
+import com.aim.metaheuristics.singlepoint.clauseweighting.ClauseWeightingSearch;
+import com.aim.metaheuristics.singlepoint.iteratedlocalsearch.IteratedLocalSearch;
+import com.aim.metaheuristics.singlepoint.portfolio.PortfolioIteratedLocalSearch;
+import com.aim.pseudorandom.RandomBitFlipHeuristic;
+import com.aim.sat.IncrementalSAT;
+import com.aim.sat.SATInstances;
+import uk.ac.nott.cs.aim.searchmethods.SearchMethod;
+import uk.ac.nott.cs.aim.statistics.PlotData;
+import uk.ac.nott.cs.aim.statistics.XBoxPlot;
+import uk.ac.nott.cs.aim.statistics.XLineChart;
+
+/**
+ * Compares Iterated Local Search with a {@link PortfolioIteratedLocalSearch}, a
+ * {@link ClauseWeightingSearch}, a {@link MemeticAlgorithm} and a {@link MultimemeMemeticAlgorithm}
+ * using the lab 3 configuration. Every method is given the same seeds and the same evaluation budget
+ * per trial. The trials are scheduled on a single worker since the portfolio and the local search of
+ * the memetic algorithms themselves use every processor.
+ */
+public class PortfolioComparisonRunner extends TestFrame {
+
+	private static final int ITERATED_LOCAL_SEARCH = 0, PORTFOLIO = 1, CLAUSE_WEIGHTING = 2, MEMETIC = 3, MULTIMEME = 4;
+
+	/**
+	 * The number of points, equally spaced in evaluations, of the anytime curves.
+	 */
+	private static final int ANYTIME_POINTS = 100;
+
+	/**
+	 * The number of parents of the memetic algorithms.
+	 */
+	private static final int POPULATION_SIZE = 16;
+
+	public PortfolioComparisonRunner(Lab3ExercisesTestFrameConfig config) {
+
+		super(config);
+	}
+
+	public void runTests() {
+
+		List<RunData> oRunData = runExperiments().stream().flatMap(List::stream).toList();
+
+		TestFrameConfig oTestConfiguration = getTestConfiguration();
+		long lMaxEvaluations = SATInstances.getMaxEvaluations(oTestConfiguration.getInstanceId(), oTestConfiguration.getRunTime());
+
+		List<PlotData> oPlotData = new ArrayList<>();
+		List<PlotData> oAnytimePlotData = new ArrayList<>();
+		for (int iMethodId = 0; iMethodId < getNumberOfMethodsToTest(); iMethodId++) {
+
+			int iMethod = iMethodId;
+			List<RunData> oMethodData = oRunData.stream()
+					.filter(f -> f.getHeuristicId() == iMethod)
+					.sorted(Comparator.comparingInt(RunData::getTrialId))
+					.toList();
+
+			String strMethodName = oMethodData.getFirst().getHeuristicName();
+			oPlotData.add(new PlotData(oMethodData.stream().map(RunData::getBestSolutionValue).collect(Collectors.toList()), strMethodName));
+			oAnytimePlotData.add(new PlotData(getMedianAnytimeCurve(oMethodData, lMaxEvaluations), strMethodName));
+
+			System.out.println("TrialId\t" + strMethodName);
+			System.out.println(oMethodData.stream()
+					.map(d -> String.format("%d\t%d", d.getTrialId(), d.getBestSolutionValue()))
+					.collect(Collectors.joining("\n")));
+		}
+
+		String strBoxPlotTitle = String.format("Iterated Local Search, a portfolio of Iterated Local Searches, clause weighting and memetic algorithms solving SAT instance %d given %d seconds over %d runs",
+				oTestConfiguration.getInstanceId(), oTestConfiguration.getRunTime(), oTestConfiguration.getTotalRuns());
+
+		XBoxPlot.getPlotCreator().createPlot(strBoxPlotTitle, "Method", "Objective Value", oPlotData);
+
+		// the methods spend different numbers of evaluations per iteration, so they are compared by evaluations
+		XLineChart.getPlotCreator().createChart("Median best objective value of each method against the evaluations used",
+				"Evaluations (% of budget)", "Best objective value", oAnytimePlotData);
+	}
+
+	/**
+	 * Computes the median over the trials of a method of the best objective value found after each
+	 * percentage of the evaluation budget, from the improvement traces of the trials.
+	 *
+	 * @param oMethodData The results of the trials of the method.
+	 * @param lMaxEvaluations The evaluation budget of a trial.
+	 * @return The median best objective value at each of {@value #ANYTIME_POINTS} points.
+	 */
+	private List<Integer> getMedianAnytimeCurve(List<RunData> oMethodData, long lMaxEvaluations) {
+
+		List<List<Integer>> loCurves = oMethodData.stream()
+				.map(d -> d.getImprovementTrace().sampleBestByEvaluations(lMaxEvaluations, ANYTIME_POINTS))
+				.toList();
+
+		List<Integer> liMedian = new ArrayList<>(ANYTIME_POINTS);
+		for (int i = 0; i < ANYTIME_POINTS; i++) {
+
+			int iPoint = i;
+			int[] aiValues = loCurves.stream().mapToInt(c -> c.get(iPoint)).sorted().toArray();
+			liMedian.add(aiValues[aiValues.length / 2]);
+		}
+
+		return liMedian;
+	}
+
+	@Override
+	public boolean shouldRunExperimentsInParallel() {
+
+		return false;
+	}
+
+	@Override
+	protected int getNumberOfTrialWorkers() {
+
+		return 1;
+	}
+
+	@Override
+	protected RunData runTrial(int iHeuristicId, int iRunId) {
+
+		Random oRandom = new Random(getExperimentalSeeds()[iRunId]);
+		IncrementalSAT oProblem = iHeuristicId == MULTIMEME
+				? createProblem(oRandom, MultimemeMemeticAlgorithm.NUMBER_OF_MEMES, MultimemeMemeticAlgorithm.getDefaultMemeStates())
+				: createProblem(oRandom);
+
+		return runSearchMethod(oProblem, createSearchMethod(iHeuristicId, oProblem, oRandom), iHeuristicId, iRunId);
+	}
+
+	/**
+	 * @param iMethodId The ID of the method.
+	 * @param oProblem The problem to be solved.
+	 * @param oRandom The random number generator of the trial.
+	 * @return The search method with the given ID.
+	 */
+	private SearchMethod createSearchMethod(int iMethodId, IncrementalSAT oProblem, Random oRandom) {
+
+		int iIntensityOfMutation = Lab3ExercisesTestFrameConfig.getInstance().getIntensityOfMutation();
+		int iDepthOfSearch = Lab3ExercisesTestFrameConfig.getInstance().getDepthOfSearch();
+
+		switch (iMethodId) {
+		case ITERATED_LOCAL_SEARCH:
+			return new IteratedLocalSearch(oProblem, oRandom, Instrumentation.instrument(new RandomBitFlipHeuristic(oRandom)),
+					Instrumentation.instrument(new DavissBitHillClimbing(oRandom)), iIntensityOfMutation, iDepthOfSearch);
+		case PORTFOLIO:
+			return new PortfolioIteratedLocalSearch(oProblem, oRandom);
+		case CLAUSE_WEIGHTING:
+			return new ClauseWeightingSearch(oProblem, oRandom);
+		case MEMETIC:
+			return new MemeticAlgorithm(oProblem, oRandom, POPULATION_SIZE, new UniformCrossover(oRandom), new RandomBitFlipHeuristic(oRandom),
+					DavissBitHillClimbing::new, new ElitistGenerationalReplacement(), iIntensityOfMutation, iDepthOfSearch,
+					Runtime.getRuntime().availableProcessors());
+		case MULTIMEME:
+			return new MultimemeMemeticAlgorithm(oProblem, oRandom, POPULATION_SIZE, Runtime.getRuntime().availableProcessors());
+		default:
+			throw new IllegalArgumentException("Unknown method " + iMethodId);
+		}
+	}
+
+	@Override
+	protected int getNumberOfMethodsToTest() {
+
+		return 5;
+	}
+
+	public static void main(String[] args) {
+
+		TestFrame oTestFrame = new PortfolioComparisonRunner(Lab3ExercisesTestFrameConfig.getInstance());
+		oTestFrame.runTests();
+	}
+}
@@ -0,0 +1,78 @@
+package com.aim.sat;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Helper functions for truth assignments packed 64 variables to a {@code long}, where variable
+ * {@code v} is stored in bit {@code v & 63} of word {@code v >>> 6}.
+ */
+final class BitString {
+
+	private BitString() {
+
+	}
+
+	/**
+	 * @param iNumberOfBits The number of bits to store.
+	 * @return The number of words needed to store the bits.
+	 */
+	static int words(int iNumberOfBits) {
+
+		return (iNumberOfBits + 63) >>> 6;
+	}
+
+	static boolean get(long[] alWords, int iBit) {
+
+		return (alWords[iBit >>> 6] & (1L << iBit)) != 0;
+	}
+
+	static void set(long[] alWords, int iBit) {
+
+		alWords[iBit >>> 6] |= 1L << iBit;
+	}
+
+	static void flip(long[] alWords, int iBit) {
+
+		alWords[iBit >>> 6] ^= 1L << iBit;
+	}
+
+	/**
+	 * Parses a solution in the format of {@code SAT.getSolutionAsString}, i.e. 001110...
+	 *
+	 * @param strSolution The solution as a string of 0's and 1's.
+	 * @return The packed solution.
+	 */
+	static long[] parse(String strSolution) {
+
+		long[] alWords = new long[words(strSolution.length())];
+		for (int i = 0; i < strSolution.length(); i++) {
+			if (strSolution.charAt(i) == '1') {
+				set(alWords, i);
+			}
+		}
+
+		return alWords;
+	}
+
+	/**
+	 * Encodes a packed solution in the format of {@code SAT.getSolutionAsString}, one word at a time.
+	 *
+	 * @param alWords The packed solution.
+	 * @param iNumberOfBits The number of variables in the solution.
+	 * @return The solution as a string of 0's and 1's.
+	 */
+	static String toString(long[] alWords, int iNumberOfBits) {
+
+		byte[] abChars = new byte[iNumberOfBits];
+		for (int w = 0, iBit = 0; w < alWords.length; w++) {
+
+			long lWord = alWords[w];
+			int iEnd = Math.min(iBit + 64, iNumberOfBits);
+			for (; iBit < iEnd; iBit++, lWord >>>= 1) {
+				abChars[iBit] = (byte) ('0' + (int) (lWord & 1L));
+			}
+		}
+
+		return new String(abChars, StandardCharsets.ISO_8859_1);
+	}
+}
@@ -0,0 +1,234 @@
+package com.aim.sat;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * An immutable, flat (compressed sparse row) store of the clauses of a MAX-SAT instance together
+ * with, for each variable, the clauses it occurs in. The database is built once when an instance is
+ * loaded and all search code reads from it; the occurrence lists allow the effect of a bit flip to be
+ * computed by visiting only the clauses that contain the flipped variable.
+ * <p>
+ * The literals of clause {@code c} are {@code literals[clauseOffsets[c] .. clauseOffsets[c + 1])},
+ * stored in signed DIMACS form, i.e. {@code +(v + 1)} for the variable {@code v} and {@code -(v + 1)}
+ * for its negation. In the same layout, the occurrences of variable {@code v} are
+ * {@code occurrences[occurrenceOffsets[v] .. occurrenceOffsets[v + 1])}, each stored as
+ * {@code (clause << 1) | sign} where {@code sign} is 1 if the variable occurs positively in the clause.
+ * <p>
+ * Clauses read from a DIMACS file are normalised: repeated literals are removed, and tautological
+ * clauses (containing both a variable and its negation) are dropped since they can never be broken.
+ * Neither changes the number of broken clauses of any solution.
+ */
+public class ClauseDatabase {
+
+	/**
+	 * Approximate size of an object header, and of an array header, with compressed references.
+	 */
+	private static final int OBJECT_HEADER_BYTES = 12, ARRAY_HEADER_BYTES = 16;
+
+	private final int m_iNumberOfVariables;
+
+	private final int[] m_aiLiterals;
+
+	private final int[] m_aiClauseOffsets;
+
+	private final int[] m_aiOccurrences;
+
+	private final int[] m_aiOccurrenceOffsets;
+
+	/**
+	 * Creates a clause database from clauses that have already been flattened.
+	 *
+	 * @param iNumberOfVariables The number of variables in the instance.
+	 * @param aiLiterals The signed DIMACS literals of all clauses, one clause after the other.
+	 * @param aiClauseOffsets The start of each clause in {@code aiLiterals}, followed by {@code aiLiterals.length}.
+	 */
+	public ClauseDatabase(int iNumberOfVariables, int[] aiLiterals, int[] aiClauseOffsets) {
+
+		this.m_iNumberOfVariables = iNumberOfVariables;
+		this.m_aiLiterals = aiLiterals;
+		this.m_aiClauseOffsets = aiClauseOffsets;
+
+		// count the occurrences of each variable first so the reverse index can be laid out exactly
+		int[] aiOffsets = new int[iNumberOfVariables + 1];
+		for (int iLiteral : aiLiterals) {
+			aiOffsets[Math.abs(iLiteral)]++;
+		}
+
+		for (int v = 0; v < iNumberOfVariables; v++) {
+			aiOffsets[v + 1] += aiOffsets[v];
+		}
+
+		int[] aiNext = new int[iNumberOfVariables];
+		System.arraycopy(aiOffsets, 0, aiNext, 0, iNumberOfVariables);
+
+		m_aiOccurrences = new int[aiLiterals.length];
+		for (int c = 0; c < aiClauseOffsets.length - 1; c++) {
+			for (int l = aiClauseOffsets[c]; l < aiClauseOffsets[c + 1]; l++) {
+				int iLiteral = aiLiterals[l];
+				int iVariable = Math.abs(iLiteral) - 1;
+				m_aiOccurrences[aiNext[iVariable]++] = (c << 1) | (iLiteral > 0 ? 1 : 0);
+			}
+		}
+
+		m_aiOccurrenceOffsets = aiOffsets;
+	}
+
+	/**
+	 * Creates a clause database whose occurrence lists have already been built, e.g. by {@link ClauseImage}.
+	 */
+	ClauseDatabase(int iNumberOfVariables, int[] aiLiterals, int[] aiClauseOffsets, int[] aiOccurrences, int[] aiOccurrenceOffsets) {
+
+		this.m_iNumberOfVariables = iNumberOfVariables;
+		this.m_aiLiterals = aiLiterals;
+		this.m_aiClauseOffsets = aiClauseOffsets;
+		this.m_aiOccurrences = aiOccurrences;
+		this.m_aiOccurrenceOffsets = aiOccurrenceOffsets;
+	}
+
+	/**
+	 * Loads the clause database for one of the framework's instances.
+	 *
+	 * @param iInstanceId The instance ID of the problem, as passed to {@code SAT}.
+	 * @return The clause database of the instance.
+	 */
+	public static ClauseDatabase load(int iInstanceId) {
+
+		return load(SATInstances.getInstancePath(iInstanceId));
+	}
+
+	/**
+	 * Loads a DIMACS CNF file, looking first on the file system and then on the class path in
+	 * the same way as {@code SAT}.
+	 *
+	 * @param strFileName The path of the DIMACS file.
+	 * @return The clause database of the instance.
+	 * @see DimacsParser
+	 */
+	public static ClauseDatabase load(String strFileName) {
+
+		try {
+
+			return DimacsParser.parse(DimacsParser.readBytes(strFileName));
+
+		} catch (IOException e) {
+
+			throw new UncheckedIOException("Could not read instance " + strFileName, e);
+		}
+	}
+
+	public int getNumberOfVariables() {
+
+		return m_iNumberOfVariables;
+	}
+
+	public int getNumberOfClauses() {
+
+		return m_aiClauseOffsets.length - 1;
+	}
+
+	public int getNumberOfLiterals() {
+
+		return m_aiLiterals.length;
+	}
+
+	/**
+	 * @param iClause The index of the clause.
+	 * @return The number of literals in the clause.
+	 */
+	public int getClauseLength(int iClause) {
+
+		return m_aiClauseOffsets[iClause + 1] - m_aiClauseOffsets[iClause];
+	}
+
+	/**
+	 * @param iClause The index of the clause.
+	 * @param iPosition The position of the literal in the clause, from 0 to {@link #getClauseLength(int)} - 1.
+	 * @return The index of the variable of the literal, counting from 0 as in {@code SAT.bitFlip}.
+	 */
+	public int getVariable(int iClause, int iPosition) {
+
+		return Math.abs(m_aiLiterals[m_aiClauseOffsets[iClause] + iPosition]) - 1;
+	}
+
+	/**
+	 * Gets the approximate number of bytes used by the arrays of this database.
+	 *
+	 * @return The memory footprint of the database in bytes.
+	 */
+	public long getMemoryFootprint() {
+
+		return intArrayBytes(m_aiLiterals.length) + intArrayBytes(m_aiClauseOffsets.length)
+				+ intArrayBytes(m_aiOccurrences.length) + intArrayBytes(m_aiOccurrenceOffsets.length);
+	}
+
+	/**
+	 * Gets the approximate number of bytes the same clauses occupy as the framework's object graph,
+	 * i.e. a {@code Clause[]} where each {@code Clause} holds an {@code int[]} of variable IDs and a
+	 * {@code boolean[]} of signs. Note that {@code Solution.deepCopy()} duplicates this graph for every copy.
+	 *
+	 * @return The estimated memory footprint of the clauses as {@code Clause} objects in bytes.
+	 */
+	public long getObjectGraphFootprint() {
+
+		// each Clause has an int id, an int count, and two array references
+		long lClauseObjectBytes = align(OBJECT_HEADER_BYTES + 4 + 4 + 4 + 4);
+
+		long lBytes = align(ARRAY_HEADER_BYTES + 4L * getNumberOfClauses());
+		for (int c = 0; c < getNumberOfClauses(); c++) {
+			int iLength = m_aiClauseOffsets[c + 1] - m_aiClauseOffsets[c];
+			lBytes += lClauseObjectBytes + intArrayBytes(iLength) + align(ARRAY_HEADER_BYTES + iLength);
+		}
+
+		return lBytes;
+	}
+
+	private static long intArrayBytes(int iLength) {
+
+		return align(ARRAY_HEADER_BYTES + 4L * iLength);
+	}
+
+	private static long align(long lBytes) {
+
+		return (lBytes + 7) & ~7L;
+	}
+
+	/**
+	 * @return The signed literals of all clauses. Callers must not modify the array.
+	 */
+	int[] getLiterals() {
+
+		return m_aiLiterals;
+	}
+
+	/**
+	 * @return The start of each clause in {@link #getLiterals()}, followed by the number of literals. Callers must not modify the array.
+	 */
+	int[] getClauseOffsets() {
+
+		return m_aiClauseOffsets;
+	}
+
+	/**
+	 * @return The occurrences of all variables encoded as {@code (clause << 1) | sign}. Callers must not modify the array.
+	 */
+	int[] getOccurrences() {
+
+		return m_aiOccurrences;
+	}
+
+	/**
+	 * @return The start of each variable's occurrences in {@link #getOccurrences()}, followed by the number of occurrences. Callers must not modify the array.
+	 */
+	int[] getOccurrenceOffsets() {
+
+		return m_aiOccurrenceOffsets;
+	}
+
+	@Override
+	public String toString() {
+
+		return String.format("%d variables, %d clauses, %d literals, %d bytes (%d bytes as Clause objects)",
+				getNumberOfVariables(), getNumberOfClauses(), getNumberOfLiterals(), getMemoryFootprint(), getObjectGraphFootprint());
+	}
+}
@@ -0,0 +1,278 @@
+package com.aim.sat;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import uk.ac.nott.cs.aim.domains.chesc2014_SAT.SATInfo;
+
+/**
+ * A precompiled binary image of a {@link ClauseDatabase}, so that an instance can be loaded without
+ * parsing its DIMACS file or building its occurrence lists. Images are compiled offline by
+ * {@link #main(String[])} into an image directory which mirrors the instance paths, and are loaded by
+ * memory-mapping them read-only, so that every JVM on the machine reads the same pages of the OS page
+ * cache; loading an image is a header check, a CRC32 of the DIMACS file and of the mapped arrays, and a
+ * bulk copy of each array.
+ * <p>
+ * An image is a little-endian header followed by the arrays of the database:
+ * <pre>
+ *	long	magic number
+ *	int	format version
+ *	int	number of variables (SATInfo)
+ *	int	number of clauses declared by the problem line (SATInfo)
+ *	int	number of clauses stored after normalisation
+ *	int	number of literals
+ *	int	CRC32 of the arrays
+ *	long	length of the DIMACS file
+ *	int	CRC32 of the DIMACS file
+ *	int[]	literals, clause offsets, occurrences, occurrence offsets
+ * </pre>
+ * An image is ignored if the length or CRC32 of its DIMACS file, whether on the file system or bundled
+ * as a resource, differs from the one it was compiled from, or if it fails to validate, in which case
+ * the DIMACS file is parsed instead.
+ */
+public final class ClauseImage {
+
+	/**
+	 * "AIMSATCI" in ASCII.
+	 */
+	private static final long MAGIC = 0x4149_4D53_4154_4349L;
+
+	/**
+	 * Incremented whenever the layout of the image or the normalisation of the clauses changes.
+	 */
+	private static final int FORMAT_VERSION = 2;
+
+	private static final int HEADER_BYTES = 44;
+
+	private static final String IMAGE_EXTENSION = ".img";
+
+	private ClauseImage() {
+
+	}
+
+	/**
+	 * Gets the path of the image of a DIMACS file within an image directory.
+	 *
+	 * @param strFileName The path of the DIMACS file, as passed to {@link ClauseDatabase#load(String)}.
+	 * @param oImageDirectory The directory of the images.
+	 * @return The path of the image.
+	 */
+	public static Path getImagePath(String strFileName, Path oImageDirectory) {
+
+		String strRelative = strFileName.replaceFirst("^[/\\\\]+", "").replaceFirst("^\\.\\.?[/\\\\]", "");
+		return oImageDirectory.resolve(strRelative + IMAGE_EXTENSION).normalize();
+	}
+
+	/**
+	 * Compiles a DIMACS file into an image. The image is written to a temporary file and then moved
+	 * into place, so processes loading the image concurrently never see a partially written one.
+	 *
+	 * @param strFileName The path of the DIMACS file.
+	 * @param oImage The path to write the image to.
+	 * @return The compiled clause database.
+	 * @throws IOException If the DIMACS file could not be read or the image could not be written.
+	 */
+	public static ClauseDatabase compile(String strFileName, Path oImage) throws IOException {
+
+		ByteBuffer oText = DimacsParser.readBytes(strFileName);
+		SATInfo oInfo = DimacsParser.readProblemLine(oText);
+		ClauseDatabase oClauses = DimacsParser.parse(oText);
+		int iSourceChecksum = checksum(oText);
+
+		int[][] aaiArrays = { oClauses.getLiterals(), oClauses.getClauseOffsets(), oClauses.getOccurrences(), oClauses.getOccurrenceOffsets() };
+		long lPayloadBytes = 0;
+		for (int[] aiArray : aaiArrays) {
+			lPayloadBytes += 4L * aiArray.length;
+		}
+
+		ByteBuffer oPayload = ByteBuffer.allocate(Math.toIntExact(lPayloadBytes)).order(ByteOrder.LITTLE_ENDIAN);
+		IntBuffer oInts = oPayload.asIntBuffer();
+		for (int[] aiArray : aaiArrays) {
+			oInts.put(aiArray);
+		}
+
+		ByteBuffer oHeader = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		oHeader.putLong(MAGIC)
+				.putInt(FORMAT_VERSION)
+				.putInt(oInfo.getNumberOfVariables())
+				.putInt(oInfo.getNumberOfClauses())
+				.putInt(oClauses.getNumberOfClauses())
+				.putInt(oClauses.getNumberOfLiterals())
+				.putInt(checksum(oPayload))
+				.putLong(oText.limit())
+				.putInt(iSourceChecksum)
+				.flip();
+
+		Path oDirectory = oImage.toAbsolutePath().getParent();
+		Files.createDirectories(oDirectory);
+		Path oTemporary = Files.createTempFile(oDirectory, oImage.getFileName().toString(), ".tmp");
+		try {
+
+			try (FileChannel oChannel = FileChannel.open(oTemporary, StandardOpenOption.WRITE)) {
+
+				ByteBuffer[] aoBuffers = { oHeader, oPayload };
+				while (oHeader.hasRemaining() || oPayload.hasRemaining()) {
+					oChannel.write(aoBuffers);
+				}
+
+				oChannel.force(true);
+			}
+
+			Files.move(oTemporary, oImage, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+		} finally {
+
+			Files.deleteIfExists(oTemporary);
+		}
+
+		return oClauses;
+	}
+
+	/**
+	 * Loads a clause database from its image.
+	 *
+	 * @param oImage The path of the image.
+	 * @param oSource The contents of the DIMACS file the image must have been compiled from.
+	 * @return The clause database stored in the image.
+	 * @throws IOException If the image could not be read, was compiled by a different version or from a
+	 *             different DIMACS file, or is corrupt.
+	 */
+	public static ClauseDatabase map(Path oImage, ByteBuffer oSource) throws IOException {
+
+		ByteBuffer oBytes;
+		try (FileChannel oChannel = FileChannel.open(oImage, StandardOpenOption.READ)) {
+
+			if (oChannel.size() < HEADER_BYTES) {
+				throw new IOException(oImage + " is not a clause image");
+			}
+
+			oBytes = oChannel.map(FileChannel.MapMode.READ_ONLY, 0, oChannel.size()).order(ByteOrder.LITTLE_ENDIAN);
+		}
+
+		if (oBytes.getLong(0) != MAGIC) {
+			throw new IOException(oImage + " is not a clause image");
+		}
+
+		int iVersion = oBytes.getInt(8);
+		if (iVersion != FORMAT_VERSION) {
+			throw new IOException(oImage + " has format version " + iVersion + " but version " + FORMAT_VERSION + " is required");
+		}
+
+		int iNumberOfVariables = oBytes.getInt(12);
+		int iNumberOfClauses = oBytes.getInt(20);
+		int iNumberOfLiterals = oBytes.getInt(24);
+		int iChecksum = oBytes.getInt(28);
+		if (oBytes.getLong(32) != oSource.limit() || oBytes.getInt(40) != checksum(oSource)) {
+			throw new IOException(oImage + " was compiled from a different version of its DIMACS file");
+		}
+
+		long lExpectedBytes = HEADER_BYTES + 4L * (2L * iNumberOfLiterals + iNumberOfClauses + 1 + iNumberOfVariables + 1);
+		if (iNumberOfVariables < 0 || iNumberOfClauses < 0 || iNumberOfLiterals < 0 || oBytes.capacity() != lExpectedBytes) {
+			throw new IOException(oImage + " is truncated or corrupt");
+		}
+
+		ByteBuffer oPayload = oBytes.slice(HEADER_BYTES, oBytes.capacity() - HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+		if (checksum(oPayload) != iChecksum) {
+			throw new IOException(oImage + " failed its checksum");
+		}
+
+		IntBuffer oInts = oPayload.asIntBuffer();
+		int[] aiLiterals = new int[iNumberOfLiterals];
+		int[] aiClauseOffsets = new int[iNumberOfClauses + 1];
+		int[] aiOccurrences = new int[iNumberOfLiterals];
+		int[] aiOccurrenceOffsets = new int[iNumberOfVariables + 1];
+		oInts.get(aiLiterals).get(aiClauseOffsets).get(aiOccurrences).get(aiOccurrenceOffsets);
+
+		return new ClauseDatabase(iNumberOfVariables, aiLiterals, aiClauseOffsets, aiOccurrences, aiOccurrenceOffsets);
+	}
+
+	/**
+	 * Loads the clause database of a DIMACS file from its image in an image directory, if the image
+	 * exists and is up to date.
+	 *
+	 * @param strFileName The path of the DIMACS file.
+	 * @param oImageDirectory The directory of the images.
+	 * @return The clause database, or null if there is no usable image.
+	 */
+	static ClauseDatabase mapIfPresent(String strFileName, Path oImageDirectory) {
+
+		Path oImage = getImagePath(strFileName, oImageDirectory);
+		if (!Files.isRegularFile(oImage)) {
+			return null;
+		}
+
+		try {
+
+			return map(oImage, DimacsParser.readBytes(strFileName));
+
+		} catch (IOException e) {
+
+			System.err.println("Ignoring image " + oImage + ": " + e.getMessage());
+			return null;
+		}
+	}
+
+	/**
+	 * @param oBytes The bytes to checksum, from their position to their limit.
+	 * @return The CRC32 of the bytes.
+	 */
+	private static int checksum(ByteBuffer oBytes) {
+
+		CRC32 oChecksum = new CRC32();
+		oChecksum.update(oBytes.duplicate());
+		return (int) oChecksum.getValue();
+	}
+
+	/**
+	 * Compiles instances into images. The first argument is the image directory; the remaining
+	 * arguments are instance IDs or paths of DIMACS files, and if there are none, all of the
+	 * framework's instances are compiled. Exits with status 1 if the usage is wrong or any instance
+	 * could not be compiled.
+	 *
+	 * @param args The image directory followed by the instances to compile.
+	 */
+	public static void main(String[] args) {
+
+		if (args.length == 0) {
+
+			System.err.println("Usage: ClauseImage <image directory> [instance ID or DIMACS file]...");
+			System.exit(1);
+		}
+
+		Path oImageDirectory = Paths.get(args[0]);
+		String[] astrFileNames = new String[args.length > 1 ? args.length - 1 : SATInstances.getNumberOfInstances()];
+		for (int i = 0; i < astrFileNames.length; i++) {
+
+			if (args.length == 1) {
+				astrFileNames[i] = SATInstances.getInstancePath(i);
+			} else {
+				astrFileNames[i] = args[i + 1].matches("\\d+") ? SATInstances.getInstancePath(Integer.parseInt(args[i + 1])) : args[i + 1];
+			}
+		}
+
+		for (String strFileName : astrFileNames) {
+
+			Path oImage = getImagePath(strFileName, oImageDirectory);
+			try {
+
+				long lStartTime = System.nanoTime();
+				ClauseDatabase oClauses = compile(strFileName, oImage);
+				System.out.printf("%s -> %s (%s) in %.3f seconds%n", strFileName, oImage, oClauses, (System.nanoTime() - lStartTime) / 1e9);
+
+			} catch (IOException e) {
+
+				System.err.println("Could not compile " + strFileName + ": " + e.getMessage());
+				System.exit(1);
+			}
+		}
+	}
+}
@@ -0,0 +1,365 @@
+package com.aim.sat;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Integer clause weights for one solution of an {@link IncrementalSAT}, together with the weighted
+ * make and break counts of every variable, for clause weighting local search. The weighted score of
+ * a variable is the decrease in the total weight of the broken clauses that flipping it would cause.
+ * <p>
+ * Every clause starts with a weight of 1. The weights, the true literal counts and the weighted
+ * counts are held in flat arrays and updated incrementally: a flip visits only the clauses the
+ * variable occurs in, increasing the weights visits only the broken clauses, and smoothing visits
+ * only the clauses whose weight is above 1, which are kept in an indexed set along with the broken
+ * clauses and the variables with a positive weighted score.
+ * <p>
+ * The solution must only be modified through {@link #flip(int)} while the weights are in use. The
+ * problem itself always evaluates the solution with the unweighted objective function.
+ */
+public final class ClauseWeights {
+
+	private final IncrementalSAT m_oProblem;
+
+	private final int m_iSolutionIndex;
+
+	private final int[] m_aiLiterals, m_aiClauseOffsets, m_aiOccurrences, m_aiOccurrenceOffsets;
+
+	private final long[] m_alValues;
+
+	private final int[] m_aiWeights;
+
+	private final int[] m_aiTrueLiteralCounts;
+
+	// sum of the variables of the true literals of each clause, to recover the critical variable
+	private final int[] m_aiTrueVariableSums;
+
+	private final int[] m_aiWeightedMake, m_aiWeightedBreak;
+
+	private final IndexedSet m_oBrokenClauses, m_oWeightedClauses, m_oImprovingVariables;
+
+	/**
+	 * Starts weighting the clauses of a solution in memory with weights of 1.
+	 *
+	 * @param oProblem The problem being solved.
+	 * @param iSolutionIndex The index of the solution in memory.
+	 */
+	public ClauseWeights(IncrementalSAT oProblem, int iSolutionIndex) {
+
+		ClauseDatabase oClauses = oProblem.getClauseDatabase();
+		this.m_oProblem = oProblem;
+		this.m_iSolutionIndex = iSolutionIndex;
+		this.m_aiLiterals = oClauses.getLiterals();
+		this.m_aiClauseOffsets = oClauses.getClauseOffsets();
+		this.m_aiOccurrences = oClauses.getOccurrences();
+		this.m_aiOccurrenceOffsets = oClauses.getOccurrenceOffsets();
+
+		int iNumberOfVariables = oClauses.getNumberOfVariables();
+		int iNumberOfClauses = oClauses.getNumberOfClauses();
+		this.m_alValues = new long[BitString.words(iNumberOfVariables)];
+		this.m_aiWeights = new int[iNumberOfClauses];
+		this.m_aiTrueLiteralCounts = new int[iNumberOfClauses];
+		this.m_aiTrueVariableSums = new int[iNumberOfClauses];
+		this.m_aiWeightedMake = new int[iNumberOfVariables];
+		this.m_aiWeightedBreak = new int[iNumberOfVariables];
+		this.m_oBrokenClauses = new IndexedSet(iNumberOfClauses);
+		this.m_oWeightedClauses = new IndexedSet(iNumberOfClauses);
+		this.m_oImprovingVariables = new IndexedSet(iNumberOfVariables);
+
+		oProblem.getSolution(iSolutionIndex).copyValuesInto(m_alValues);
+
+		for (int c = 0; c < iNumberOfClauses; c++) {
+
+			m_aiWeights[c] = 1;
+
+			int iTrue = 0, iSum = 0;
+			for (int l = m_aiClauseOffsets[c]; l < m_aiClauseOffsets[c + 1]; l++) {
+				int iLiteral = m_aiLiterals[l];
+				int iVariable = Math.abs(iLiteral) - 1;
+				if ((iLiteral > 0) == BitString.get(m_alValues, iVariable)) {
+					iTrue++;
+					iSum += iVariable;
+				}
+			}
+
+			m_aiTrueLiteralCounts[c] = iTrue;
+			m_aiTrueVariableSums[c] = iSum;
+			if (iTrue == 0) {
+
+				m_oBrokenClauses.add(c);
+				for (int l = m_aiClauseOffsets[c]; l < m_aiClauseOffsets[c + 1]; l++) {
+					m_aiWeightedMake[Math.abs(m_aiLiterals[l]) - 1]++;
+				}
+
+			} else if (iTrue == 1) {
+
+				m_aiWeightedBreak[iSum]++;
+			}
+		}
+
+		for (int v = 0; v < iNumberOfVariables; v++) {
+			updateImproving(v);
+		}
+	}
+
+	/**
+	 * Flips a variable of the solution and updates the weighted counts. As with
+	 * {@code SAT.bitFlip}, nothing happens once the evaluation limit has expired.
+	 *
+	 * @param iVariable The index of the variable to flip.
+	 * @return Whether the variable was flipped.
+	 */
+	public boolean flip(int iVariable) {
+
+		if (m_oProblem.hasEvaluationLimitExpired()) {
+			return false;
+		}
+
+		m_oProblem.bitFlip(iVariable, m_iSolutionIndex);
+		BitString.flip(m_alValues, iVariable);
+
+		int iTrueSign = (int) (m_alValues[iVariable >>> 6] >>> iVariable) & 1;
+		for (int o = m_aiOccurrenceOffsets[iVariable]; o < m_aiOccurrenceOffsets[iVariable + 1]; o++) {
+
+			int iOccurrence = m_aiOccurrences[o];
+			int iClause = iOccurrence >>> 1;
+			int iWeight = m_aiWeights[iClause];
+			if ((iOccurrence & 1) == iTrueSign) {
+
+				int iTrue = m_aiTrueLiteralCounts[iClause]++;
+				if (iTrue == 0) {
+
+					// the clause is no longer broken and the flipped variable is now critical
+					m_oBrokenClauses.remove(iClause);
+					addToMakeOfClause(iClause, -iWeight);
+					addToBreak(iVariable, iWeight);
+
+				} else if (iTrue == 1) {
+
+					addToBreak(m_aiTrueVariableSums[iClause], -iWeight);
+				}
+
+				m_aiTrueVariableSums[iClause] += iVariable;
+
+			} else {
+
+				int iTrue = --m_aiTrueLiteralCounts[iClause];
+				m_aiTrueVariableSums[iClause] -= iVariable;
+
+				if (iTrue == 0) {
+
+					// the clause is now broken
+					m_oBrokenClauses.add(iClause);
+					addToBreak(iVariable, -iWeight);
+					addToMakeOfClause(iClause, iWeight);
+
+				} else if (iTrue == 1) {
+
+					addToBreak(m_aiTrueVariableSums[iClause], iWeight);
+				}
+			}
+		}
+
+		return true;
+	}
+
+	/**
+	 * Increases the weight of every broken clause by 1.
+	 */
+	public void increaseBrokenClauseWeights() {
+
+		for (int i = 0; i < m_oBrokenClauses.size(); i++) {
+
+			int iClause = m_oBrokenClauses.get(i);
+			if (m_aiWeights[iClause]++ == 1) {
+				m_oWeightedClauses.add(iClause);
+			}
+
+			addToMakeOfClause(iClause, 1);
+		}
+	}
+
+	/**
+	 * Decreases the weight of every clause with a weight above 1 by 1.
+	 */
+	public void smooth() {
+
+		// iterate backwards since removing a clause moves the last clause into its position
+		for (int i = m_oWeightedClauses.size() - 1; i >= 0; i--) {
+
+			int iClause = m_oWeightedClauses.get(i);
+			if (--m_aiWeights[iClause] == 1) {
+				m_oWeightedClauses.remove(iClause);
+			}
+
+			if (m_aiTrueLiteralCounts[iClause] == 0) {
+				addToMakeOfClause(iClause, -1);
+			} else if (m_aiTrueLiteralCounts[iClause] == 1) {
+				addToBreak(m_aiTrueVariableSums[iClause], -1);
+			}
+		}
+	}
+
+	/**
+	 * Selects uniformly at random one of the variables with the highest positive weighted score.
+	 *
+	 * @param oRandom The random number generator used to break ties.
+	 * @return The index of the selected variable, or -1 if no flip decreases the weighted objective.
+	 */
+	public int getBestImprovingVariable(Random oRandom) {
+
+		int iBestScore = 0, iTies = 0, iSelected = -1;
+		for (int i = 0; i < m_oImprovingVariables.size(); i++) {
+
+			int iVariable = m_oImprovingVariables.get(i);
+			int iScore = getWeightedScore(iVariable);
+			if (iScore > iBestScore) {
+
+				iBestScore = iScore;
+				iSelected = iVariable;
+				iTies = 1;
+
+			} else if (iScore == iBestScore && oRandom.nextInt(++iTies) == 0) {
+
+				iSelected = iVariable;
+			}
+		}
+
+		return iSelected;
+	}
+
+	/**
+	 * Selects uniformly at random one of the variables of the broken clauses whose flip would not
+	 * change the weighted objective.
+	 *
+	 * @param oRandom The random number generator.
+	 * @return The index of the selected variable, or -1 if there is no such flat move.
+	 */
+	public int getRandomFlatVariable(Random oRandom) {
+
+		int iTies = 0, iSelected = -1;
+		for (int i = 0; i < m_oBrokenClauses.size(); i++) {
+
+			int iClause = m_oBrokenClauses.get(i);
+			for (int l = m_aiClauseOffsets[iClause]; l < m_aiClauseOffsets[iClause + 1]; l++) {
+				int iVariable = Math.abs(m_aiLiterals[l]) - 1;
+				if (getWeightedScore(iVariable) == 0 && oRandom.nextInt(++iTies) == 0) {
+					iSelected = iVariable;
+				}
+			}
+		}
+
+		return iSelected;
+	}
+
+	/**
+	 * @param iVariable The index of the variable.
+	 * @return The decrease in the total weight of the broken clauses if the variable is flipped.
+	 */
+	public int getWeightedScore(int iVariable) {
+
+		return m_aiWeightedMake[iVariable] - m_aiWeightedBreak[iVariable];
+	}
+
+	/**
+	 * @param iClause The index of the clause.
+	 * @return The weight of the clause.
+	 */
+	public int getWeight(int iClause) {
+
+		return m_aiWeights[iClause];
+	}
+
+	/**
+	 * @return The unweighted number of broken clauses of the solution.
+	 */
+	public int getNumberOfBrokenClauses() {
+
+		return m_oBrokenClauses.size();
+	}
+
+	/**
+	 * @return The number of clauses with a weight above 1.
+	 */
+	public int getNumberOfWeightedClauses() {
+
+		return m_oWeightedClauses.size();
+	}
+
+	private void addToMakeOfClause(int iClause, int iDelta) {
+
+		for (int l = m_aiClauseOffsets[iClause]; l < m_aiClauseOffsets[iClause + 1]; l++) {
+
+			int iVariable = Math.abs(m_aiLiterals[l]) - 1;
+			m_aiWeightedMake[iVariable] += iDelta;
+			updateImproving(iVariable);
+		}
+	}
+
+	private void addToBreak(int iVariable, int iDelta) {
+
+		m_aiWeightedBreak[iVariable] += iDelta;
+		updateImproving(iVariable);
+	}
+
+	private void updateImproving(int iVariable) {
+
+		boolean bImproving = getWeightedScore(iVariable) > 0;
+		if (bImproving != m_oImprovingVariables.contains(iVariable)) {
+			if (bImproving) {
+				m_oImprovingVariables.add(iVariable);
+			} else {
+				m_oImprovingVariables.remove(iVariable);
+			}
+		}
+	}
+
+	/**
+	 * A set of the integers from 0 to a maximum with constant time insertion, removal, membership and
+	 * access by position, held as a dense array of the members and the position of each integer.
+	 */
+	private static final class IndexedSet {
+
+		private final int[] m_aiMembers, m_aiPositions;
+
+		private int m_iSize;
+
+		private IndexedSet(int iCapacity) {
+
+			this.m_aiMembers = new int[iCapacity];
+			this.m_aiPositions = new int[iCapacity];
+			Arrays.fill(m_aiPositions, -1);
+		}
+
+		private void add(int iMember) {
+
+			m_aiPositions[iMember] = m_iSize;
+			m_aiMembers[m_iSize++] = iMember;
+		}
+
+		private void remove(int iMember) {
+
+			int iPosition = m_aiPositions[iMember];
+			int iLast = m_aiMembers[--m_iSize];
+
+			m_aiMembers[iPosition] = iLast;
+			m_aiPositions[iLast] = iPosition;
+			m_aiPositions[iMember] = -1;
+		}
+
+		private boolean contains(int iMember) {
+
+			return m_aiPositions[iMember] >= 0;
+		}
+
+		private int get(int iPosition) {
+
+			return m_aiMembers[iPosition];
+		}
+
+		private int size() {
+
+			return m_iSize;
+		}
+	}
+}
@@ -0,0 +1,359 @@
+package com.aim.sat;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import uk.ac.nott.cs.aim.domains.chesc2014_SAT.SATInfo;
+
+/**
+ * Parses DIMACS CNF files into a {@link ClauseDatabase} directly from their bytes. Files on the file
+ * system are memory-mapped, and resources are read in one bulk read; integers are parsed from the
+ * bytes without creating a {@code String} per line or per literal.
+ * <p>
+ * The format is read as {@code SAT} reads it: lines are skipped up to the problem line, and each of
+ * the following lines, as many as the problem line declares clauses, holds one clause whose final
+ * token (the terminating 0) is dropped. Large files are divided into chunks of whole lines which are
+ * parsed in parallel on the common {@code ForkJoinPool} and then concatenated in order.
+ */
+final class DimacsParser {
+
+	/**
+	 * Files with fewer clause bytes than this are parsed as a single chunk.
+	 */
+	static final int DEFAULT_CHUNK_SIZE = 1 << 20;
+
+	private DimacsParser() {
+
+	}
+
+	/**
+	 * Reads the bytes of a DIMACS file, looking first on the file system and then on the class path
+	 * in the same way as {@code SAT}.
+	 */
+	static ByteBuffer readBytes(String strFileName) throws IOException {
+
+		Path oPath = Paths.get(strFileName);
+		try (FileChannel oChannel = FileChannel.open(oPath, StandardOpenOption.READ)) {
+
+			return oChannel.map(FileChannel.MapMode.READ_ONLY, 0, oChannel.size());
+
+		} catch (NoSuchFileException e) {
+
+			try (InputStream oStream = DimacsParser.class.getResourceAsStream(strFileName)) {
+
+				if (oStream == null) {
+					throw new FileNotFoundException(strFileName);
+				}
+
+				return ByteBuffer.wrap(oStream.readAllBytes());
+			}
+		}
+	}
+
+	static ClauseDatabase parse(ByteBuffer oBytes) throws IOException {
+
+		return parse(oBytes, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * @param oBytes The contents of the file.
+	 * @param iChunkSize The approximate number of bytes of clauses parsed by each parallel task.
+	 */
+	static ClauseDatabase parse(ByteBuffer oBytes, int iChunkSize) throws IOException {
+
+		int iLimit = oBytes.limit();
+		int iPosition = findProblemLine(oBytes);
+		int iClausesStart = nextLine(oBytes, iPosition, iLimit);
+		SATInfo oInfo = parseProblemLine(oBytes, iPosition, iClausesStart);
+		int iNumberOfVariables = oInfo.getNumberOfVariables();
+		int iNumberOfClauses = oInfo.getNumberOfClauses();
+
+		// divide the remainder of the file into chunks of whole lines and count the lines of each
+		List<int[]> oChunks = new ArrayList<>();
+		for (int iStart = iClausesStart; iStart < iLimit; ) {
+
+			int iEnd = Math.min(iLimit, iStart + Math.max(1, iChunkSize));
+			if (iEnd < iLimit) {
+				iEnd = nextLine(oBytes, iEnd - 1, iLimit);
+			}
+
+			oChunks.add(new int[] { iStart, iEnd });
+			iStart = iEnd;
+		}
+
+		List<ForkJoinTask<Integer>> oCounts = new ArrayList<>(oChunks.size());
+		for (int[] aiChunk : oChunks) {
+			oCounts.add(ForkJoinTask.adapt(() -> countLines(oBytes, aiChunk[0], aiChunk[1])));
+		}
+		ForkJoinTask.invokeAll(oCounts);
+
+		// only the declared number of clause lines are parsed, anything after them is ignored
+		List<ChunkTask> oTasks = new ArrayList<>(oChunks.size());
+		int iLines = 0;
+		for (int c = 0; c < oChunks.size() && iLines < iNumberOfClauses; c++) {
+
+			int[] aiChunk = oChunks.get(c);
+			int iChunkLines = oCounts.get(c).join();
+			if (iLines + iChunkLines > iNumberOfClauses) {
+
+				iChunkLines = iNumberOfClauses - iLines;
+				aiChunk[1] = skipLines(oBytes, aiChunk[0], aiChunk[1], iChunkLines);
+			}
+
+			oTasks.add(new ChunkTask(oBytes, aiChunk[0], aiChunk[1], iChunkLines));
+			iLines += iChunkLines;
+		}
+
+		if (iLines < iNumberOfClauses) {
+			throw new IOException("file format incorrect: expected " + iNumberOfClauses + " clauses but found " + iLines);
+		}
+
+		try {
+
+			ForkJoinTask.invokeAll(oTasks);
+
+		} catch (UncheckedIOException e) {
+
+			// the pool may rethrow a copy of the exception of a task with the original as its cause
+			Throwable oCause = e;
+			while (oCause instanceof UncheckedIOException) {
+				oCause = oCause.getCause();
+			}
+
+			throw oCause instanceof IOException ? (IOException) oCause : new IOException(e);
+		}
+
+		// concatenate the chunks
+		int iTotalLiterals = 0, iTotalClauses = 0;
+		for (ChunkTask oTask : oTasks) {
+			iTotalLiterals += oTask.m_iLiterals;
+			iTotalClauses += oTask.m_iClauses;
+		}
+
+		int[] aiLiterals = new int[iTotalLiterals];
+		int[] aiClauseOffsets = new int[iTotalClauses + 1];
+		int iLiteralBase = 0, iClauseBase = 0;
+		for (ChunkTask oTask : oTasks) {
+
+			System.arraycopy(oTask.m_aiLiterals, 0, aiLiterals, iLiteralBase, oTask.m_iLiterals);
+			for (int i = 1; i <= oTask.m_iClauses; i++) {
+				aiClauseOffsets[iClauseBase + i] = iLiteralBase + oTask.m_aiClauseEnds[i - 1];
+			}
+
+			iLiteralBase += oTask.m_iLiterals;
+			iClauseBase += oTask.m_iClauses;
+		}
+
+		return new ClauseDatabase(iNumberOfVariables, aiLiterals, aiClauseOffsets);
+	}
+
+	/**
+	 * Reads only the problem line of a DIMACS file.
+	 *
+	 * @return The numbers of variables and clauses declared by the problem line.
+	 */
+	static SATInfo readProblemLine(ByteBuffer oBytes) throws IOException {
+
+		int iPosition = findProblemLine(oBytes);
+		return parseProblemLine(oBytes, iPosition, nextLine(oBytes, iPosition, oBytes.limit()));
+	}
+
+	/**
+	 * @return The position of the start of the problem line.
+	 */
+	private static int findProblemLine(ByteBuffer oBytes) throws IOException {
+
+		int iLimit = oBytes.limit();
+		int iPosition = 0;
+		while (iPosition < iLimit && oBytes.get(iPosition) != 'p') {
+			iPosition = nextLine(oBytes, iPosition, iLimit);
+		}
+
+		if (iPosition >= iLimit) {
+			throw new IOException("file format incorrect: no problem line");
+		}
+
+		return iPosition;
+	}
+
+	private static SATInfo parseProblemLine(ByteBuffer oBytes, int iStart, int iEnd) throws IOException {
+
+		byte[] abHeader = new byte[iEnd - iStart];
+		oBytes.get(iStart, abHeader);
+		String strHeader = new String(abHeader, StandardCharsets.US_ASCII).trim();
+
+		String[] astrHeader = strHeader.split("\\s+");
+		if (astrHeader.length != 4) {
+			throw new IOException("file format incorrect: " + strHeader);
+		}
+
+		return new SATInfo(Integer.parseInt(astrHeader[2]), Integer.parseInt(astrHeader[3]));
+	}
+
+	/**
+	 * @return The position after the line feed ending the line containing the given position, or the limit.
+	 */
+	private static int nextLine(ByteBuffer oBytes, int iPosition, int iLimit) {
+
+		while (iPosition < iLimit && oBytes.get(iPosition++) != '\n') {
+			// skip
+		}
+
+		return iPosition;
+	}
+
+	/**
+	 * Counts the lines in the range, including a final line without a line feed.
+	 */
+	private static int countLines(ByteBuffer oBytes, int iStart, int iEnd) {
+
+		int iLines = 0;
+		for (int i = iStart; i < iEnd; i++) {
+			if (oBytes.get(i) == '\n') {
+				iLines++;
+			}
+		}
+
+		return iEnd > iStart && oBytes.get(iEnd - 1) != '\n' ? iLines + 1 : iLines;
+	}
+
+	/**
+	 * @return The position after the given number of lines from the start.
+	 */
+	private static int skipLines(ByteBuffer oBytes, int iStart, int iEnd, int iLines) {
+
+		int iPosition = iStart;
+		for (int l = 0; l < iLines; l++) {
+			iPosition = nextLine(oBytes, iPosition, iEnd);
+		}
+
+		return iPosition;
+	}
+
+	private static boolean isWhitespace(byte b) {
+
+		return b == ' ' || b == '\t' || b == '\r' || b == '\f' || b == 0x0B;
+	}
+
+	/**
+	 * Parses the clauses of a range of whole lines, one clause per line, normalising each clause as
+	 * described by {@link ClauseDatabase}.
+	 */
+	private static final class ChunkTask extends RecursiveAction {
+
+		// tasks are never serialised, RecursiveAction is only Serializable through ForkJoinTask
+		private static final long serialVersionUID = 1L;
+
+		private final transient ByteBuffer m_oBytes;
+
+		private final int m_iStart, m_iEnd;
+
+		private int[] m_aiLiterals;
+
+		private int[] m_aiClauseEnds;
+
+		private int m_iLiterals, m_iClauses;
+
+		private ChunkTask(ByteBuffer oBytes, int iStart, int iEnd, int iLines) {
+
+			this.m_oBytes = oBytes;
+			this.m_iStart = iStart;
+			this.m_iEnd = iEnd;
+			this.m_aiClauseEnds = new int[iLines];
+		}
+
+		@Override
+		protected void compute() {
+
+			// every literal takes at least two bytes, a digit and a separator
+			m_aiLiterals = new int[(m_iEnd - m_iStart) / 2 + 1];
+
+			int iPosition = m_iStart;
+			while (iPosition < m_iEnd) {
+
+				int iClauseStart = m_iLiterals;
+				boolean bTautology = false;
+				boolean bPending = false;
+				int iPending = 0;
+
+				// every token is a literal except the last of the line, so each is stored once the next is found
+				while (iPosition < m_iEnd) {
+
+					byte b = m_oBytes.get(iPosition);
+					if (b == '\n') {
+						iPosition++;
+						break;
+					}
+
+					if (isWhitespace(b)) {
+						iPosition++;
+						continue;
+					}
+
+					if (bPending) {
+						bTautology |= add(iClauseStart, iPending);
+					}
+
+					boolean bNegative = b == '-';
+					if (bNegative || b == '+') {
+						iPosition++;
+					}
+
+					int iValue = 0, iDigits = 0;
+					while (iPosition < m_iEnd && (b = m_oBytes.get(iPosition)) >= '0' && b <= '9') {
+						iValue = iValue * 10 + (b - '0');
+						iDigits++;
+						iPosition++;
+					}
+
+					if (iDigits == 0 || (iPosition < m_iEnd && b != '\n' && !isWhitespace(b))) {
+						throw new UncheckedIOException(new IOException("file format incorrect: invalid literal at byte " + iPosition));
+					}
+
+					iPending = bNegative ? -iValue : iValue;
+					bPending = true;
+				}
+
+				if (bTautology) {
+					m_iLiterals = iClauseStart;
+				} else {
+					m_aiClauseEnds[m_iClauses++] = m_iLiterals;
+				}
+			}
+		}
+
+		/**
+		 * Adds a literal to the clause being parsed unless it is repeated.
+		 *
+		 * @return Whether the clause already contains the negation of the literal.
+		 */
+		private boolean add(int iClauseStart, int iLiteral) {
+
+			boolean bTautology = false;
+			for (int k = iClauseStart; k < m_iLiterals; k++) {
+				if (m_aiLiterals[k] == iLiteral) {
+					return false;
+				}
+				bTautology |= m_aiLiterals[k] == -iLiteral;
+			}
+
+			m_aiLiterals[m_iLiterals++] = iLiteral;
+			return bTautology;
+		}
+	}
+}
@@ -0,0 +1,932 @@
+package com.aim.sat;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.Random;
+
+import com.aim.ImprovementTrace;
+import com.aim.Instrumentation;
+import com.aim.OperationCounters;
+import com.aim.events.EventThrottle;
+import com.aim.events.NewBestSolutionEvent;
+import uk.ac.nott.cs.aim.domains.chesc2014_SAT.Meme;
+import uk.ac.nott.cs.aim.domains.chesc2014_SAT.SAT;
+
+/**
+ * A drop-in replacement for the framework's {@link SAT} problem domain which evaluates solutions
+ * incrementally. Each solution in memory keeps the number of true literals of every clause, and a
+ * bit flip only visits the clauses in which the flipped variable occurs, so the cost of a flip is
+ * proportional to the occurrences of the variable rather than to the number of clauses.
+ * <p>
+ * The objective function values, the best-ever solution tracking, and the counting of evaluations
+ * towards the termination criterion are identical to {@code SAT}; a run seeded with the same
+ * random number generator produces exactly the same results with either class.
+ * <p>
+ * Every constructor of {@code SAT} parses its instance, so problems for arbitrary clause databases
+ * are instead created with {@link #create} by cloning a prototype; since every method of {@code SAT}
+ * that touches a solution is overridden, the state inherited from the prototype is never used. The
+ * prototype is constructed once per JVM on the smallest instance, {@value #PROTOTYPE_INSTANCE_ID},
+ * which {@code SAT} parses in a few milliseconds, and every clone shares its {@code SAT} clauses and
+ * solutions rather than copying them.
+ * <p>
+ * Optionally, a target objective value can be set with {@link #setTargetObjectiveValue(int)}; the
+ * evaluation limit then also expires as soon as the best-ever solution reaches the target, and the
+ * evaluations and CPU time needed to reach it are recorded. Likewise, every improvement of the
+ * best-ever solution can be recorded in an {@link ImprovementTrace} set with
+ * {@link #setImprovementTrace(ImprovementTrace)}, and, if {@link Instrumentation} is enabled, the
+ * operations performed on the problem are counted in the {@link OperationCounters} set with
+ * {@link #setOperationCounters(OperationCounters)}. Improvements of the best-ever solution are also
+ * recorded by Java Flight Recorder as throttled {@link NewBestSolutionEvent}s.
+ */
+public final class IncrementalSAT extends SAT implements Cloneable {
+
+	/**
+	 * The instance with the fewest literals, on which the prototype cloned by {@link #create} is constructed.
+	 */
+	private static final int PROTOTYPE_INSTANCE_ID = 7;
+
+	private static IncrementalSAT s_oPrototype;
+
+	private static final ThreadMXBean s_oThreadMXBean = ManagementFactory.getThreadMXBean();
+
+	private Random m_oRandom;
+
+	private ClauseDatabase m_oClauses;
+
+	private long m_lMaxEvaluations;
+
+	private IncrementalSolution[] m_aoSolutionMemory;
+
+	private boolean[] m_abSolutionChangedSinceEvaluated;
+
+	private long[] m_alBestEverSolution;
+
+	private int m_iBestEverObjectiveFunction;
+
+	private long m_lTotalEvaluations;
+
+	private boolean m_bScoreTracking = false;
+
+	private int m_iNumberOfMemes;
+
+	private int[] m_aiMemeStates;
+
+	private int m_iTargetObjectiveValue = -1;
+
+	private long m_lEvaluationsToTarget = -1L;
+
+	private long m_lStartCpuTime;
+
+	private long m_lCpuTimeToTarget = -1L;
+
+	private ImprovementTrace m_oImprovementTrace;
+
+	private OperationCounters m_oOperationCounters;
+
+	// throttles the new best solution events of this problem, null in forks whose best is not the trial's
+	private EventThrottle m_oNewBestEvents = new EventThrottle();
+
+	/**
+	 * Constructs a new problem with a population size of 1.
+	 *
+	 * @param iInstanceId The instance ID of the problem being solved.
+	 * @param iSeconds The number of seconds that the maximum iterations should be equivalent to.
+	 * @param oRandom The random number generator to use in this trial.
+	 */
+	public IncrementalSAT(int iInstanceId, int iSeconds, Random oRandom) {
+
+		this(iInstanceId, iSeconds, oRandom, 1);
+	}
+
+	/**
+	 * @param iInstanceId The instance ID of the problem being solved.
+	 * @param iSeconds The number of seconds that the maximum iterations should be equivalent to.
+	 * @param oRandom The random number generator to use in this trial.
+	 * @param iPopulationSize The size of the population of solutions.
+	 */
+	public IncrementalSAT(int iInstanceId, int iSeconds, Random oRandom, int iPopulationSize) {
+
+		this(iInstanceId, iSeconds, oRandom, iPopulationSize, 0, null);
+	}
+
+	/**
+	 * @param iInstanceId The instance ID of the problem being solved.
+	 * @param iSeconds The number of seconds that the maximum iterations should be equivalent to.
+	 * @param oRandom The random number generator to use in this trial.
+	 * @param iPopulationSize The size of the population of solutions.
+	 * @param iNumberOfMemes The number of memes carried by each solution.
+	 * @param aiMemeStates The number of options of each meme.
+	 */
+	public IncrementalSAT(int iInstanceId, int iSeconds, Random oRandom, int iPopulationSize, int iNumberOfMemes, int[] aiMemeStates) {
+
+		// the super class parses the instance and consumes the random number generator exactly as a
+		// plain SAT would, the initial solutions are then taken over from it, and the clauses are
+		// shared with every other problem of the instance through the InstanceCache.
+		super(iInstanceId, iSeconds, oRandom, iPopulationSize, iNumberOfMemes, aiMemeStates);
+
+		this.m_oRandom = oRandom;
+		this.m_iNumberOfMemes = iNumberOfMemes;
+		this.m_aiMemeStates = aiMemeStates;
+		this.m_oClauses = InstanceCache.getClauseDatabase(iInstanceId);
+		this.m_lMaxEvaluations = super.getMaxTime();
+		this.m_lTotalEvaluations = super.getNumberOfEvaluationsUsed();
+		this.m_iBestEverObjectiveFunction = super.getBestSolutionValue();
+		this.m_alBestEverSolution = BitString.parse(super.getBestSolutionAsString());
+		this.m_abSolutionChangedSinceEvaluated = new boolean[iPopulationSize << 1];
+
+		this.m_aoSolutionMemory = new IncrementalSolution[iPopulationSize];
+		for (int i = 0; i < iPopulationSize; i++) {
+
+			int[] aiMemeOptions = new int[iNumberOfMemes];
+			for (int m = 0; m < iNumberOfMemes; m++) {
+				aiMemeOptions[m] = super.getMeme(i, m).getMemeOption();
+			}
+
+			m_aoSolutionMemory[i] = new IncrementalSolution(m_oClauses, BitString.parse(super.getSolutionAsString(i)), createMemes(aiMemeOptions));
+		}
+	}
+
+	/**
+	 * Creates a problem for the given clauses without parsing an instance. The initial solutions are
+	 * generated from the random number generator in the same way as by the {@code SAT} constructors.
+	 *
+	 * @param oClauses The clauses of the instance to solve.
+	 * @param lMaxEvaluations The number of evaluations allowed for the termination criterion.
+	 * @param oRandom The random number generator to use in this trial.
+	 * @param iPopulationSize The size of the population of solutions.
+	 * @return A new problem.
+	 */
+	public static IncrementalSAT create(ClauseDatabase oClauses, long lMaxEvaluations, Random oRandom, int iPopulationSize) {
+
+		return create(oClauses, lMaxEvaluations, oRandom, iPopulationSize, 0, null);
+	}
+
+	/**
+	 * Creates a problem for the given clauses whose solutions carry memes, without parsing an
+	 * instance. The initial solutions and their memes are generated from the random number generator
+	 * in the same way as by the {@code SAT} constructors.
+	 *
+	 * @param oClauses The clauses of the instance to solve.
+	 * @param lMaxEvaluations The number of evaluations allowed for the termination criterion.
+	 * @param oRandom The random number generator to use in this trial.
+	 * @param iPopulationSize The size of the population of solutions.
+	 * @param iNumberOfMemes The number of memes carried by each solution.
+	 * @param aiMemeStates The number of options of each meme.
+	 * @return A new problem.
+	 */
+	public static IncrementalSAT create(ClauseDatabase oClauses, long lMaxEvaluations, Random oRandom, int iPopulationSize,
+			int iNumberOfMemes, int[] aiMemeStates) {
+
+		IncrementalSAT oProblem = getPrototype().clone();
+		oProblem.initialise(oClauses, lMaxEvaluations, oRandom, iPopulationSize, iNumberOfMemes, aiMemeStates);
+
+		return oProblem;
+	}
+
+	private static synchronized IncrementalSAT getPrototype() {
+
+		if (s_oPrototype == null) {
+			s_oPrototype = new IncrementalSAT(PROTOTYPE_INSTANCE_ID, 0, new Random(0L));
+		}
+
+		return s_oPrototype;
+	}
+
+	@Override
+	protected IncrementalSAT clone() {
+
+		try {
+
+			return (IncrementalSAT) super.clone();
+
+		} catch (CloneNotSupportedException e) {
+
+			throw new AssertionError(e);
+		}
+	}
+
+	private void initialise(ClauseDatabase oClauses, long lMaxEvaluations, Random oRandom, int iPopulationSize,
+			int iNumberOfMemes, int[] aiMemeStates) {
+
+		this.m_oRandom = oRandom;
+		this.m_iNumberOfMemes = iNumberOfMemes;
+		this.m_aiMemeStates = aiMemeStates;
+		this.m_oClauses = oClauses;
+		this.m_lMaxEvaluations = lMaxEvaluations;
+		this.m_lTotalEvaluations = 0L;
+		this.m_bScoreTracking = false;
+		this.m_iTargetObjectiveValue = -1;
+		this.m_lEvaluationsToTarget = -1L;
+		this.m_lCpuTimeToTarget = -1L;
+		this.m_oImprovementTrace = null;
+		this.m_oOperationCounters = null;
+		this.m_oNewBestEvents = new EventThrottle();
+		this.m_iBestEverObjectiveFunction = Integer.MAX_VALUE;
+		this.m_alBestEverSolution = new long[BitString.words(oClauses.getNumberOfVariables())];
+		this.m_abSolutionChangedSinceEvaluated = new boolean[iPopulationSize << 1];
+		this.m_aoSolutionMemory = new IncrementalSolution[iPopulationSize];
+
+		// SAT initialises every solution once while loading the instance and then once more
+		for (int i = 0; i < iPopulationSize; i++) {
+			createRandomSolution(i);
+		}
+
+		for (int i = 0; i < iPopulationSize; i++) {
+			createRandomSolution(i);
+		}
+	}
+
+	@Override
+	public long getMaxTime() {
+
+		return this.m_lMaxEvaluations;
+	}
+
+	@Override
+	public long getNumberOfEvaluationsUsed() {
+
+		return this.m_lTotalEvaluations;
+	}
+
+	@Override
+	public void setPopulationSize(int iPopulationSize) {
+
+		if (iPopulationSize != this.m_aoSolutionMemory.length) {
+
+			IncrementalSolution[] aoNewPopulation = new IncrementalSolution[iPopulationSize];
+			System.arraycopy(m_aoSolutionMemory, 0, aoNewPopulation, 0, Math.min(iPopulationSize, m_aoSolutionMemory.length));
+			this.m_aoSolutionMemory = aoNewPopulation;
+		}
+
+		// unlike SAT, make sure every index of the memory can be flagged as modified
+		if (iPopulationSize > m_abSolutionChangedSinceEvaluated.length) {
+
+			boolean[] abFlags = new boolean[iPopulationSize];
+			System.arraycopy(m_abSolutionChangedSinceEvaluated, 0, abFlags, 0, m_abSolutionChangedSinceEvaluated.length);
+			this.m_abSolutionChangedSinceEvaluated = abFlags;
+		}
+	}
+
+	@Override
+	public boolean hasEvaluationLimitExpired() {
+
+		return this.m_lTotalEvaluations >= m_lMaxEvaluations || this.m_lEvaluationsToTarget >= 0L;
+	}
+
+	/**
+	 * Stops the search once the best-ever solution reaches a target objective value: from then on
+	 * the evaluation limit has expired. The CPU time to reach the target is measured on the calling
+	 * thread from this call, so it should be made by the thread running the trial before the search
+	 * starts.
+	 *
+	 * @param iTargetObjectiveValue The target number of broken clauses, or a negative value to run
+	 *                              until the evaluation limit expires.
+	 */
+	public void setTargetObjectiveValue(int iTargetObjectiveValue) {
+
+		this.m_iTargetObjectiveValue = iTargetObjectiveValue;
+		this.m_lEvaluationsToTarget = -1L;
+		this.m_lCpuTimeToTarget = -1L;
+		this.m_lStartCpuTime = getCurrentThreadCpuTime();
+		checkTargetReached();
+	}
+
+	/**
+	 * Records every subsequent improvement of the best-ever solution in a trace, starting with the
+	 * current best-ever solution. Forks do not share the trace; the improvements they find are
+	 * recorded when they are joined.
+	 *
+	 * @param oImprovementTrace The trace, or null to stop recording.
+	 */
+	public void setImprovementTrace(ImprovementTrace oImprovementTrace) {
+
+		this.m_oImprovementTrace = oImprovementTrace;
+		if (oImprovementTrace != null && this.m_iBestEverObjectiveFunction != Integer.MAX_VALUE) {
+			oImprovementTrace.recordNewBest(this.m_lTotalEvaluations, this.m_iBestEverObjectiveFunction);
+		}
+	}
+
+	public ImprovementTrace getImprovementTrace() {
+
+		return this.m_oImprovementTrace;
+	}
+
+	/**
+	 * Counts the subsequent operations performed on this problem, if {@link Instrumentation} is
+	 * enabled. Forks count into their own counters, which are transferred to these when they are joined.
+	 *
+	 * @param oOperationCounters The counters, or null to stop counting.
+	 */
+	public void setOperationCounters(OperationCounters oOperationCounters) {
+
+		this.m_oOperationCounters = oOperationCounters;
+	}
+
+	public OperationCounters getOperationCounters() {
+
+		return this.m_oOperationCounters;
+	}
+
+	public int getTargetObjectiveValue() {
+
+		return this.m_iTargetObjectiveValue;
+	}
+
+	/**
+	 * @return The number of evaluations used when the best-ever solution reached the target objective
+	 *         value, or -1 if no target is set or it has not been reached.
+	 */
+	public long getEvaluationsToTarget() {
+
+		return this.m_lEvaluationsToTarget;
+	}
+
+	/**
+	 * @return The CPU time in nanoseconds of the thread which set the target until the target was
+	 *         reached, or -1 if no target is set, it has not been reached, or the JVM does not
+	 *         support measuring it.
+	 */
+	public long getCpuTimeToTarget() {
+
+		return this.m_lCpuTimeToTarget;
+	}
+
+	/**
+	 * Records the evaluations and CPU time used the first time the best-ever solution reaches the target.
+	 */
+	private void checkTargetReached() {
+
+		if (this.m_iTargetObjectiveValue >= 0 && this.m_lEvaluationsToTarget < 0L && this.m_iBestEverObjectiveFunction <= this.m_iTargetObjectiveValue) {
+
+			this.m_lEvaluationsToTarget = this.m_lTotalEvaluations;
+			long lCpuTime = getCurrentThreadCpuTime();
+			this.m_lCpuTimeToTarget = lCpuTime < 0L || this.m_lStartCpuTime < 0L ? -1L : lCpuTime - this.m_lStartCpuTime;
+		}
+	}
+
+	/**
+	 * Reports an improvement of the best-ever solution to the improvement trace, if there is one, and
+	 * to Java Flight Recorder as a throttled {@link NewBestSolutionEvent}, unless this is a fork.
+	 */
+	private void recordNewBest() {
+
+		if (this.m_oImprovementTrace != null) {
+			this.m_oImprovementTrace.recordNewBest(this.m_lTotalEvaluations, this.m_iBestEverObjectiveFunction);
+		}
+
+		if (this.m_oNewBestEvents != null) {
+			NewBestSolutionEvent.commit(this.m_oNewBestEvents, this.m_lTotalEvaluations, this.m_iBestEverObjectiveFunction);
+		}
+	}
+
+	private static long getCurrentThreadCpuTime() {
+
+		return s_oThreadMXBean.isCurrentThreadCpuTimeSupported() ? s_oThreadMXBean.getCurrentThreadCpuTime() : -1L;
+	}
+
+	@Override
+	public String getBestSolutionAsString() {
+
+		return BitString.toString(m_alBestEverSolution, getNumberOfVariables());
+	}
+
+	@Override
+	public String getSolutionAsString(int iSolutionIndex) {
+
+		return this.m_aoSolutionMemory[iSolutionIndex].getSolutionAsString();
+	}
+
+	@Override
+	public void copySolution(int iOriginIndex, int iDestinationIndex) {
+
+		if (iOriginIndex < 0 || iOriginIndex >= this.m_aoSolutionMemory.length) {
+
+			fatal("Origin Index [" + iOriginIndex + "] does not exist.");
+
+		} else if (iDestinationIndex < 0 || iDestinationIndex >= this.m_aoSolutionMemory.length) {
+
+			fatal("Destination Index [" + iDestinationIndex + "]  does not exist.");
+
+		} else {
+
+			if (Instrumentation.ENABLED && m_oOperationCounters != null) {
+				m_oOperationCounters.count(OperationCounters.SOLUTION_COPIES);
+			}
+
+			IncrementalSolution oOrigin = this.m_aoSolutionMemory[iOriginIndex];
+			IncrementalSolution oDestination = this.m_aoSolutionMemory[iDestinationIndex];
+
+			// reuse the memory of the destination where possible rather than allocating a new solution
+			if (oDestination == null || oDestination == oOrigin) {
+				this.m_aoSolutionMemory[iDestinationIndex] = oOrigin.deepCopy();
+			} else {
+				oDestination.copyFrom(oOrigin);
+			}
+
+			// as in SAT, evaluating a copied solution counts towards the termination criterion
+			this.m_abSolutionChangedSinceEvaluated[iDestinationIndex] = true;
+		}
+	}
+
+	@Override
+	public void setSolutionModifiedFlag(int iSolutionIndex) {
+
+		this.m_abSolutionChangedSinceEvaluated[iSolutionIndex] = true;
+	}
+
+	@Override
+	public int getNumberOfVariables() {
+
+		return this.m_oClauses.getNumberOfVariables();
+	}
+
+	@Override
+	public void bitFlip(int iBitIndex, int iMemoryIndex) {
+
+		if (!hasEvaluationLimitExpired() && iMemoryIndex < this.m_aoSolutionMemory.length && this.m_aoSolutionMemory[iMemoryIndex] != null) {
+
+			this.m_aoSolutionMemory[iMemoryIndex].flip(iBitIndex);
+			setSolutionModifiedFlag(iMemoryIndex);
+
+			if (Instrumentation.ENABLED && m_oOperationCounters != null) {
+				m_oOperationCounters.count(OperationCounters.BIT_FLIPS);
+			}
+
+		} else if (iMemoryIndex >= this.m_aoSolutionMemory.length) {
+
+			fatal("Memory location [" + iMemoryIndex + "] exceeds memory size [" + this.m_aoSolutionMemory.length + "]");
+
+		} else if (this.m_aoSolutionMemory[iMemoryIndex] == null) {
+
+			fatal("No solution initialised in memory index " + iMemoryIndex);
+		}
+	}
+
+	@Override
+	public void exchangeBits(int iSolutionMemoryIndexA, int iSolutionMemoryIndexB, int iVariableIndex) {
+
+		// check first to see if time has ran out
+		if (!hasEvaluationLimitExpired()) {
+
+			if (iSolutionMemoryIndexA < 0 || iSolutionMemoryIndexA >= this.m_aoSolutionMemory.length) {
+
+				fatal("Origin Index [" + iSolutionMemoryIndexA + "] does not exist.");
+
+			} else if (iSolutionMemoryIndexB < 0 || iSolutionMemoryIndexB >= this.m_aoSolutionMemory.length) {
+
+				fatal("DestinationIndex [" + iSolutionMemoryIndexB + "] does not exist.");
+
+			} else if (this.m_aoSolutionMemory[iSolutionMemoryIndexA] == null || this.m_aoSolutionMemory[iSolutionMemoryIndexB] == null) {
+
+				boolean bOrigin = this.m_aoSolutionMemory[iSolutionMemoryIndexA] == null;
+				fatal("No solution initialised at " + (bOrigin ? "origin index." : "destination index."));
+
+			} else if (iVariableIndex < 0 || iVariableIndex >= getNumberOfVariables()) {
+
+				fatal(iVariableIndex < 0 ? "Variable cannot be negative." : "Variable " + iVariableIndex + " exceeds the number of variables.");
+
+			} else {
+
+				IncrementalSolution oA = this.m_aoSolutionMemory[iSolutionMemoryIndexA];
+				IncrementalSolution oB = this.m_aoSolutionMemory[iSolutionMemoryIndexB];
+
+				// exchanging differing bits is the same as flipping both
+				if (oA != oB && oA.getValue(iVariableIndex) != oB.getValue(iVariableIndex)) {
+					oA.flip(iVariableIndex);
+					oB.flip(iVariableIndex);
+				}
+
+				setSolutionModifiedFlag(iSolutionMemoryIndexA);
+				setSolutionModifiedFlag(iSolutionMemoryIndexB);
+			}
+		}
+	}
+
+	private void fatal(String errorMessage) {
+
+		System.err.println(errorMessage);
+		System.exit(0);
+	}
+
+	@Override
+	public int getObjectiveFunctionValue(int iSolutionIndex) {
+
+		// the super class evaluates its own solutions while it is being constructed
+		if (m_aoSolutionMemory == null) {
+			return super.getObjectiveFunctionValue(iSolutionIndex);
+		}
+
+		IncrementalSolution oSolution = this.m_aoSolutionMemory[iSolutionIndex];
+		int iObjectiveValue = oSolution.getNumberOfBrokenClauses();
+
+		//update record for best solution
+		boolean bNewBest = this.m_iBestEverObjectiveFunction > iObjectiveValue;
+		if (bNewBest) {
+
+			this.m_iBestEverObjectiveFunction = iObjectiveValue;
+			oSolution.copyValuesInto(this.m_alBestEverSolution);
+		}
+
+		boolean bCharged = this.m_abSolutionChangedSinceEvaluated[iSolutionIndex];
+		if (bCharged) {
+
+			this.m_abSolutionChangedSinceEvaluated[iSolutionIndex] = false;
+			this.m_lTotalEvaluations++;
+		}
+
+		if (Instrumentation.ENABLED && m_oOperationCounters != null) {
+
+			m_oOperationCounters.count(OperationCounters.OBJECTIVE_FUNCTION_CALLS);
+			if (bCharged) {
+				m_oOperationCounters.count(OperationCounters.CHARGED_EVALUATIONS);
+			}
+
+			if (bNewBest) {
+				m_oOperationCounters.count(OperationCounters.NEW_BEST_COPIES);
+			}
+		}
+
+		if (bNewBest) {
+			recordNewBest();
+		}
+
+		if (iObjectiveValue <= this.m_iTargetObjectiveValue) {
+			checkTargetReached();
+		}
+
+		return iObjectiveValue;
+	}
+
+	@Override
+	public int getBestSolutionValue() {
+
+		return this.m_iBestEverObjectiveFunction;
+	}
+
+	@Override
+	public void createRandomSolution(int iSolutionIndexToStore) {
+
+		// as in SAT, the memes are drawn before the truth assignment
+		int[] aiMemeOptions = new int[m_iNumberOfMemes];
+		for (int m = 0; m < m_iNumberOfMemes; m++) {
+			aiMemeOptions[m] = m_oRandom.nextInt(m_aiMemeStates[m]);
+		}
+
+		int iNumberOfVariables = getNumberOfVariables();
+		long[] alValues = new long[BitString.words(iNumberOfVariables)];
+		for (int i = 0; i < iNumberOfVariables; i++) {
+			if (m_oRandom.nextBoolean()) {
+				BitString.set(alValues, i);
+			}
+		}
+
+		m_aoSolutionMemory[iSolutionIndexToStore] = new IncrementalSolution(m_oClauses, alValues, createMemes(aiMemeOptions));
+		if (m_bScoreTracking) {
+			m_aoSolutionMemory[iSolutionIndexToStore].enableScores();
+		}
+
+		this.m_iBestEverObjectiveFunction = Math.min(m_iBestEverObjectiveFunction, getObjectiveFunctionValue(iSolutionIndexToStore));
+	}
+
+	/**
+	 * Creates an independent copy of this problem for use on another thread. The copy shares the
+	 * clause database but has its own solution memory and best-ever solution, initially equal to
+	 * those of this problem, and uses the given random number generator. It has no evaluations to
+	 * spend until they are granted with {@link #grantEvaluations(long)}.
+	 *
+	 * @param oRandom The random number generator to be used by the copy.
+	 * @return The fork.
+	 */
+	public IncrementalSAT fork(Random oRandom) {
+
+		IncrementalSAT oFork = clone();
+		oFork.m_oRandom = oRandom;
+		oFork.m_lMaxEvaluations = 0L;
+		oFork.m_lTotalEvaluations = 0L;
+		oFork.m_lEvaluationsToTarget = -1L;
+		oFork.m_lCpuTimeToTarget = -1L;
+		oFork.m_lStartCpuTime = -1L;
+		oFork.m_oImprovementTrace = null;
+		oFork.m_oOperationCounters = m_oOperationCounters == null ? null : new OperationCounters();
+		oFork.m_oNewBestEvents = null;
+		oFork.m_alBestEverSolution = m_alBestEverSolution.clone();
+		oFork.m_abSolutionChangedSinceEvaluated = m_abSolutionChangedSinceEvaluated.clone();
+		oFork.m_aoSolutionMemory = new IncrementalSolution[m_aoSolutionMemory.length];
+		for (int i = 0; i < m_aoSolutionMemory.length; i++) {
+			if (m_aoSolutionMemory[i] != null) {
+				oFork.m_aoSolutionMemory[i] = m_aoSolutionMemory[i].deepCopy();
+			}
+		}
+
+		return oFork;
+	}
+
+	/**
+	 * Creates an independent copy of this problem for use on another thread, as {@link #fork(Random)},
+	 * whose memory holds only a copy of one solution, at index 0. The copy of the solution is in the
+	 * same evaluated or modified state as the original.
+	 *
+	 * @param oRandom The random number generator to be used by the copy.
+	 * @param iSolutionIndex The index of the solution in memory to copy.
+	 * @return The fork.
+	 */
+	public IncrementalSAT fork(Random oRandom, int iSolutionIndex) {
+
+		IncrementalSAT oFork = clone();
+		oFork.m_oRandom = oRandom;
+		oFork.m_lMaxEvaluations = 0L;
+		oFork.m_lTotalEvaluations = 0L;
+		oFork.m_lEvaluationsToTarget = -1L;
+		oFork.m_lCpuTimeToTarget = -1L;
+		oFork.m_lStartCpuTime = -1L;
+		oFork.m_oImprovementTrace = null;
+		oFork.m_oOperationCounters = m_oOperationCounters == null ? null : new OperationCounters();
+		oFork.m_oNewBestEvents = null;
+		oFork.m_alBestEverSolution = m_alBestEverSolution.clone();
+		oFork.m_abSolutionChangedSinceEvaluated = new boolean[2];
+		oFork.m_abSolutionChangedSinceEvaluated[0] = m_abSolutionChangedSinceEvaluated[iSolutionIndex];
+		oFork.m_aoSolutionMemory = new IncrementalSolution[] { m_aoSolutionMemory[iSolutionIndex].deepCopy() };
+
+		return oFork;
+	}
+
+	/**
+	 * Allows a further number of evaluations to be used before the evaluation limit expires.
+	 *
+	 * @param lEvaluations The number of evaluations to add to the remaining budget.
+	 */
+	public void grantEvaluations(long lEvaluations) {
+
+		this.m_lMaxEvaluations += lEvaluations;
+	}
+
+	/**
+	 * Transfers the evaluations used by a fork since it was last joined into this problem, and adopts
+	 * the best-ever solution of the fork if it is better. The fork keeps its remaining budget. A fork
+	 * shares the target objective value of this problem and stops once it reaches it; the target is
+	 * then recorded as reached by this problem when the fork is joined, with all of the evaluations
+	 * joined so far.
+	 *
+	 * @param oFork A problem created by {@link #fork(Random)}.
+	 */
+	public void join(IncrementalSAT oFork) {
+
+		this.m_lTotalEvaluations += oFork.m_lTotalEvaluations;
+		oFork.m_lMaxEvaluations -= oFork.m_lTotalEvaluations;
+		oFork.m_lTotalEvaluations = 0L;
+
+		if (this.m_oOperationCounters != null && oFork.m_oOperationCounters != null) {
+			this.m_oOperationCounters.transferFrom(oFork.m_oOperationCounters);
+		}
+
+		if (oFork.m_iBestEverObjectiveFunction < this.m_iBestEverObjectiveFunction) {
+
+			this.m_iBestEverObjectiveFunction = oFork.m_iBestEverObjectiveFunction;
+			System.arraycopy(oFork.m_alBestEverSolution, 0, this.m_alBestEverSolution, 0, m_alBestEverSolution.length);
+			checkTargetReached();
+			recordNewBest();
+		}
+	}
+
+	/**
+	 * Joins a fork as {@link #join(IncrementalSAT)} and copies one of its solutions into the memory of
+	 * this problem. Unlike {@link #restore(SolutionSnapshot, int)}, the copy is in the same evaluated
+	 * or modified state as the solution of the fork, so a solution evaluated by the fork is not
+	 * counted again when it is evaluated here.
+	 *
+	 * @param oFork A problem created by {@link #fork(Random)} or {@link #fork(Random, int)}.
+	 * @param iForkSolutionIndex The index of the solution in the memory of the fork.
+	 * @param iSolutionIndex The index of the solution in memory to overwrite.
+	 */
+	public void join(IncrementalSAT oFork, int iForkSolutionIndex, int iSolutionIndex) {
+
+		join(oFork);
+
+		IncrementalSolution oOrigin = oFork.m_aoSolutionMemory[iForkSolutionIndex];
+		IncrementalSolution oDestination = this.m_aoSolutionMemory[iSolutionIndex];
+		if (oDestination == null) {
+			this.m_aoSolutionMemory[iSolutionIndex] = oDestination = oOrigin.deepCopy();
+		} else {
+			oDestination.copyFrom(oOrigin);
+		}
+
+		if (m_bScoreTracking) {
+			oDestination.enableScores();
+		}
+
+		this.m_abSolutionChangedSinceEvaluated[iSolutionIndex] = oFork.m_abSolutionChangedSinceEvaluated[iForkSolutionIndex];
+	}
+
+	/**
+	 * Recombines two parents into two children a word of 64 variables at a time. The first child
+	 * takes the value of each variable from the first parent where the mask is 0 and from the second
+	 * parent where it is 1, and the second child the other way around. This gives the same children
+	 * as copying the parents into the children and exchanging the masked bits with
+	 * {@link #exchangeBits(int, int, int)}, including that nothing happens once the evaluation limit
+	 * has expired and that each child inherits the memes of the parent it was copied from, and each
+	 * child is then recounted once rather than once per exchanged bit.
+	 *
+	 * @param iParent1Index The index of the first parent in memory.
+	 * @param iParent2Index The index of the second parent in memory.
+	 * @param iChild1Index The index in memory to store the first child.
+	 * @param iChild2Index The index in memory to store the second child.
+	 * @param alMask The packed mask of the variables to exchange, with at least {@code (n + 63) / 64} words.
+	 */
+	public void recombine(int iParent1Index, int iParent2Index, int iChild1Index, int iChild2Index, long[] alMask) {
+
+		if (hasEvaluationLimitExpired()) {
+			return;
+		}
+
+		int iWords = BitString.words(getNumberOfVariables());
+		long[] alParent1 = new long[iWords], alParent2 = new long[iWords];
+		m_aoSolutionMemory[iParent1Index].copyValuesInto(alParent1);
+		m_aoSolutionMemory[iParent2Index].copyValuesInto(alParent2);
+		int[] aiMemeOptions1 = m_aoSolutionMemory[iParent1Index].getMemeOptions();
+		int[] aiMemeOptions2 = m_aoSolutionMemory[iParent2Index].getMemeOptions();
+
+		// both parents are read before either child is written, in case a child replaces a parent
+		for (int w = 0; w < iWords; w++) {
+
+			long lSwap = (alParent1[w] ^ alParent2[w]) & alMask[w];
+			alParent1[w] ^= lSwap;
+			alParent2[w] ^= lSwap;
+		}
+
+		assign(iChild1Index, alParent1, aiMemeOptions1);
+		assign(iChild2Index, alParent2, aiMemeOptions2);
+	}
+
+	private void assign(int iSolutionIndex, long[] alValues, int[] aiMemeOptions) {
+
+		if (m_aoSolutionMemory[iSolutionIndex] == null) {
+
+			m_aoSolutionMemory[iSolutionIndex] = new IncrementalSolution(m_oClauses, alValues, createMemes(aiMemeOptions));
+			if (m_bScoreTracking) {
+				m_aoSolutionMemory[iSolutionIndex].enableScores();
+			}
+
+		} else {
+
+			m_aoSolutionMemory[iSolutionIndex].assign(alValues);
+			m_aoSolutionMemory[iSolutionIndex].setMemeOptions(aiMemeOptions);
+		}
+
+		setSolutionModifiedFlag(iSolutionIndex);
+	}
+
+	/**
+	 * Takes a copy of a solution in memory. This does not count towards the termination criterion.
+	 *
+	 * @param iSolutionIndex The index of the solution in memory.
+	 * @return An immutable copy of the solution.
+	 */
+	public SolutionSnapshot snapshot(int iSolutionIndex) {
+
+		return new SolutionSnapshot(m_aoSolutionMemory[iSolutionIndex].deepCopy());
+	}
+
+	/**
+	 * Overwrites a solution in memory with a snapshot taken from this problem or another problem of
+	 * the same clauses. As with {@link #copySolution(int, int)}, evaluating the restored solution
+	 * counts towards the termination criterion.
+	 *
+	 * @param oSnapshot The snapshot to restore.
+	 * @param iSolutionIndex The index of the solution in memory to overwrite.
+	 */
+	public void restore(SolutionSnapshot oSnapshot, int iSolutionIndex) {
+
+		IncrementalSolution oDestination = this.m_aoSolutionMemory[iSolutionIndex];
+		if (oDestination == null) {
+			this.m_aoSolutionMemory[iSolutionIndex] = oDestination = oSnapshot.getSolution().deepCopy();
+		} else {
+			oDestination.copyFrom(oSnapshot.getSolution());
+		}
+
+		// the snapshot may have been taken from a problem that was not tracking scores
+		if (m_bScoreTracking) {
+			oDestination.enableScores();
+		}
+
+		setSolutionModifiedFlag(iSolutionIndex);
+	}
+
+	/**
+	 * Starts maintaining the make and break counts of every variable for all solutions in memory.
+	 * Once enabled, each bit flip additionally updates the scores of the variables sharing a clause
+	 * with the flipped variable whenever that clause changes between broken, critical (a single true
+	 * literal) and otherwise satisfied.
+	 */
+	public void enableScoreTracking() {
+
+		if (!m_bScoreTracking) {
+
+			m_bScoreTracking = true;
+			for (IncrementalSolution oSolution : m_aoSolutionMemory) {
+				if (oSolution != null) {
+					oSolution.enableScores();
+				}
+			}
+		}
+	}
+
+	/**
+	 * Gets the decrease in the objective function value that flipping a variable would cause,
+	 * without modifying the solution or counting towards the termination criterion.
+	 *
+	 * @param iSolutionIndex The index of the solution in memory.
+	 * @param iVariable The index of the variable.
+	 * @return The number of broken clauses the flip would fix minus the number it would break.
+	 */
+	public int getFlipScore(int iSolutionIndex, int iVariable) {
+
+		enableScoreTracking();
+		return m_aoSolutionMemory[iSolutionIndex].getScores().getScore(iVariable);
+	}
+
+	/**
+	 * Selects a variable whose flip would decrease the objective function value the most, without
+	 * modifying the solution or counting towards the termination criterion.
+	 *
+	 * @param iSolutionIndex The index of the solution in memory.
+	 * @param oRandom The random number generator used to choose between variables with equal scores.
+	 * @return The index of the variable with the highest score.
+	 */
+	public int getBestFlip(int iSolutionIndex, Random oRandom) {
+
+		enableScoreTracking();
+		return m_aoSolutionMemory[iSolutionIndex].getScores().getBestVariable(oRandom);
+	}
+
+	/**
+	 * Gets the number of clauses that would become broken if a variable were flipped, without
+	 * modifying the solution or counting towards the termination criterion.
+	 *
+	 * @param iSolutionIndex The index of the solution in memory.
+	 * @param iVariable The index of the variable.
+	 * @return The break count of the variable.
+	 */
+	public int getBreakCount(int iSolutionIndex, int iVariable) {
+
+		enableScoreTracking();
+		return m_aoSolutionMemory[iSolutionIndex].getScores().getBreak(iVariable);
+	}
+
+	/**
+	 * Selects one of the clauses broken by a solution uniformly at random, without modifying the
+	 * solution or counting towards the termination criterion. The variables of the clause can be
+	 * read from {@link #getClauseDatabase()}.
+	 *
+	 * @param iSolutionIndex The index of the solution in memory.
+	 * @param oRandom The random number generator.
+	 * @return The index of the selected clause, or -1 if the solution breaks no clauses.
+	 */
+	public int getRandomBrokenClause(int iSolutionIndex, Random oRandom) {
+
+		enableScoreTracking();
+		return m_aoSolutionMemory[iSolutionIndex].getScores().getRandomBrokenClause(oRandom);
+	}
+
+	private Meme[] createMemes(int[] aiMemeOptions) {
+
+		Meme[] aoMemes = new Meme[m_iNumberOfMemes];
+		for (int m = 0; m < m_iNumberOfMemes; m++) {
+			aoMemes[m] = new Meme(aiMemeOptions[m], m_aiMemeStates[m]);
+		}
+
+		return aoMemes;
+	}
+
+	@Override
+	public int getNumberOfMemes() {
+
+		return this.m_iNumberOfMemes;
+	}
+
+	@Override
+	public Meme getMeme(int iSolutionIndex, int iMemeNumber) {
+
+		if (iSolutionIndex < this.m_aoSolutionMemory.length && iMemeNumber < getNumberOfMemes()) {
+
+			return this.m_aoSolutionMemory[iSolutionIndex].getMeme(iMemeNumber);
+
+		} else {
+
+			fatal("solution index or meme number exceeded the total number of solutions or memes!");
+			return null;
+		}
+	}
+
+	IncrementalSolution getSolution(int iSolutionIndex) {
+
+		return m_aoSolutionMemory[iSolutionIndex];
+	}
+
+	/**
+	 * @return The clauses of the instance being solved.
+	 */
+	public ClauseDatabase getClauseDatabase() {
+
+		return this.m_oClauses;
+	}
+}
@@ -0,0 +1,240 @@
+package com.aim.sat;
+
+import uk.ac.nott.cs.aim.domains.chesc2014_SAT.Meme;
+
+/**
+ * A solution stored in the memory of an {@link IncrementalSAT}. The truth assignment is packed into
+ * a {@code long[]} bitset so that copying a solution is a pair of array copies and never allocates.
+ * Alongside the truth assignment, the number of true literals in every clause is maintained so that
+ * the number of broken clauses can be kept up to date in time proportional to the occurrences of a
+ * flipped variable. Optionally, the make and break counts of every variable can also be
+ * maintained in a {@link ScoreTable}.
+ * <p>
+ * As with the solutions of {@code SAT}, a solution also carries the memes of a multimeme search,
+ * which are copied along with the truth assignment.
+ */
+class IncrementalSolution {
+
+	private final ClauseDatabase m_oClauses;
+
+	// the arrays of the clause database, held directly for the inner loops
+	private final int[] m_aiLiterals, m_aiClauseOffsets, m_aiOccurrences, m_aiOccurrenceOffsets;
+
+	private final int m_iNumberOfVariables;
+
+	private final long[] m_alValues;
+
+	private final int[] m_aiTrueLiteralCounts;
+
+	private int m_iBrokenClauses;
+
+	private final Meme[] m_aoMemes;
+
+	// null unless score tracking has been enabled
+	private ScoreTable m_oScores;
+
+	IncrementalSolution(ClauseDatabase oClauses, long[] alValues, Meme[] aoMemes) {
+
+		this.m_oClauses = oClauses;
+		this.m_aiLiterals = oClauses.getLiterals();
+		this.m_aiClauseOffsets = oClauses.getClauseOffsets();
+		this.m_aiOccurrences = oClauses.getOccurrences();
+		this.m_aiOccurrenceOffsets = oClauses.getOccurrenceOffsets();
+		this.m_iNumberOfVariables = oClauses.getNumberOfVariables();
+		this.m_alValues = alValues;
+		this.m_aiTrueLiteralCounts = new int[oClauses.getNumberOfClauses()];
+		this.m_aoMemes = aoMemes;
+
+		recount();
+	}
+
+	private IncrementalSolution(IncrementalSolution oOther) {
+
+		this.m_oClauses = oOther.m_oClauses;
+		this.m_aiLiterals = oOther.m_aiLiterals;
+		this.m_aiClauseOffsets = oOther.m_aiClauseOffsets;
+		this.m_aiOccurrences = oOther.m_aiOccurrences;
+		this.m_aiOccurrenceOffsets = oOther.m_aiOccurrenceOffsets;
+		this.m_iNumberOfVariables = oOther.m_iNumberOfVariables;
+		this.m_alValues = oOther.m_alValues.clone();
+		this.m_aiTrueLiteralCounts = oOther.m_aiTrueLiteralCounts.clone();
+		this.m_iBrokenClauses = oOther.m_iBrokenClauses;
+		this.m_oScores = oOther.m_oScores == null ? null : oOther.m_oScores.deepCopy();
+
+		this.m_aoMemes = new Meme[oOther.m_aoMemes.length];
+		for (int i = 0; i < m_aoMemes.length; i++) {
+			m_aoMemes[i] = new Meme(oOther.m_aoMemes[i].getMemeOption(), oOther.m_aoMemes[i].getTotalOptions());
+		}
+	}
+
+	/**
+	 * Recomputes the true literal counts and the number of broken clauses from scratch.
+	 */
+	private void recount() {
+
+		m_iBrokenClauses = 0;
+		for (int c = 0; c < m_aiTrueLiteralCounts.length; c++) {
+
+			int iTrue = 0;
+			for (int l = m_aiClauseOffsets[c]; l < m_aiClauseOffsets[c + 1]; l++) {
+				int iLiteral = m_aiLiterals[l];
+				if ((iLiteral > 0) == BitString.get(m_alValues, Math.abs(iLiteral) - 1)) {
+					iTrue++;
+				}
+			}
+
+			m_aiTrueLiteralCounts[c] = iTrue;
+			if (iTrue == 0) {
+				m_iBrokenClauses++;
+			}
+		}
+	}
+
+	/**
+	 * Flips the variable and updates the clauses it occurs in.
+	 *
+	 * @param iVariable The index of the variable to flip.
+	 */
+	void flip(int iVariable) {
+
+		BitString.flip(m_alValues, iVariable);
+
+		int iTrueSign = (int) (m_alValues[iVariable >>> 6] >>> iVariable) & 1;
+		if (m_oScores != null) {
+
+			m_iBrokenClauses += m_oScores.flip(iVariable, iTrueSign, m_aiTrueLiteralCounts);
+			return;
+		}
+
+		for (int o = m_aiOccurrenceOffsets[iVariable]; o < m_aiOccurrenceOffsets[iVariable + 1]; o++) {
+
+			int iOccurrence = m_aiOccurrences[o];
+			int iClause = iOccurrence >>> 1;
+			if ((iOccurrence & 1) == iTrueSign) {
+
+				// the literal has become true
+				if (m_aiTrueLiteralCounts[iClause]++ == 0) {
+					m_iBrokenClauses--;
+				}
+
+			} else if (--m_aiTrueLiteralCounts[iClause] == 0) {
+
+				// the last true literal has become false
+				m_iBrokenClauses++;
+			}
+		}
+	}
+
+	/**
+	 * Overwrites this solution with the contents of another solution of the same instance.
+	 */
+	void copyFrom(IncrementalSolution oOther) {
+
+		System.arraycopy(oOther.m_alValues, 0, m_alValues, 0, m_alValues.length);
+		System.arraycopy(oOther.m_aiTrueLiteralCounts, 0, m_aiTrueLiteralCounts, 0, m_aiTrueLiteralCounts.length);
+		m_iBrokenClauses = oOther.m_iBrokenClauses;
+		for (int i = 0; i < m_aoMemes.length; i++) {
+			m_aoMemes[i].setMemeOption(oOther.m_aoMemes[i].getMemeOption());
+		}
+
+		if (oOther.m_oScores == null) {
+			m_oScores = null;
+		} else if (m_oScores == null) {
+			m_oScores = oOther.m_oScores.deepCopy();
+		} else {
+			m_oScores.copyFrom(oOther.m_oScores);
+		}
+	}
+
+	/**
+	 * Overwrites the truth assignment of this solution and recomputes its clause counts, and its
+	 * make and break counts if they are being maintained.
+	 *
+	 * @param alValues The packed truth assignment, which is copied.
+	 */
+	void assign(long[] alValues) {
+
+		System.arraycopy(alValues, 0, m_alValues, 0, m_alValues.length);
+		recount();
+
+		if (m_oScores != null) {
+			m_oScores = new ScoreTable(m_oClauses, m_alValues, m_aiTrueLiteralCounts);
+		}
+	}
+
+	/**
+	 * Starts maintaining the make and break counts of the variables of this solution.
+	 */
+	void enableScores() {
+
+		if (m_oScores == null) {
+			m_oScores = new ScoreTable(m_oClauses, m_alValues, m_aiTrueLiteralCounts);
+		}
+	}
+
+	/**
+	 * @return The make and break counts of this solution, or null if they are not being maintained.
+	 */
+	ScoreTable getScores() {
+
+		return m_oScores;
+	}
+
+	IncrementalSolution deepCopy() {
+
+		return new IncrementalSolution(this);
+	}
+
+	Meme getMeme(int iMemeNumber) {
+
+		return m_aoMemes[iMemeNumber];
+	}
+
+	/**
+	 * @return The option of every meme of this solution.
+	 */
+	int[] getMemeOptions() {
+
+		int[] aiOptions = new int[m_aoMemes.length];
+		for (int i = 0; i < m_aoMemes.length; i++) {
+			aiOptions[i] = m_aoMemes[i].getMemeOption();
+		}
+
+		return aiOptions;
+	}
+
+	/**
+	 * @param aiOptions The option of every meme of this solution.
+	 */
+	void setMemeOptions(int[] aiOptions) {
+
+		for (int i = 0; i < m_aoMemes.length; i++) {
+			m_aoMemes[i].setMemeOption(aiOptions[i]);
+		}
+	}
+
+	boolean getValue(int iVariable) {
+
+		return BitString.get(m_alValues, iVariable);
+	}
+
+	int getNumberOfBrokenClauses() {
+
+		return m_iBrokenClauses;
+	}
+
+	/**
+	 * Copies the packed truth assignment into the given array, e.g. to snapshot a best solution.
+	 *
+	 * @param alDestination An array of at least {@code BitString.words(n)} words.
+	 */
+	void copyValuesInto(long[] alDestination) {
+
+		System.arraycopy(m_alValues, 0, alDestination, 0, m_alValues.length);
+	}
+
+	String getSolutionAsString() {
+
+		return BitString.toString(m_alValues, m_iNumberOfVariables);
+	}
+}
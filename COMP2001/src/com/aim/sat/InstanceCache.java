@@ -0,0 +1,178 @@
+package com.aim.sat;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.aim.events.InstanceLoadEvent;
+
+/**
+ * A process-wide cache of the clause databases of the framework's instances. Each instance is
+ * parsed at most once per JVM, however many trials use it and however many threads request it at
+ * the same time; since a {@link ClauseDatabase} is immutable, the trials share it, and each trial
+ * only allocates the memory for its own solutions.
+ * <p>
+ * On a miss, the instance is loaded from its precompiled {@link ClauseImage} in the image directory if
+ * there is one, and parsed from its DIMACS file otherwise. The image directory is given by the system
+ * property {@value #IMAGE_DIRECTORY_PROPERTY}, and is {@value #DEFAULT_IMAGE_DIRECTORY} by default.
+ * <p>
+ * The number of cache hits and misses, how many misses were loaded from images, and the total time
+ * spent loading are recorded, and each load is recorded by Java Flight Recorder as an
+ * {@link InstanceLoadEvent}.
+ */
+public final class InstanceCache {
+
+	public static final String IMAGE_DIRECTORY_PROPERTY = "com.aim.sat.imageDirectory";
+
+	public static final String DEFAULT_IMAGE_DIRECTORY = "sat-images";
+
+	private static final Map<Integer, ClauseDatabase> s_oDatabases = new ConcurrentHashMap<>();
+
+	private static final AtomicLong s_lHits = new AtomicLong(), s_lMisses = new AtomicLong(), s_lImages = new AtomicLong(), s_lParseTime = new AtomicLong();
+
+	private InstanceCache() {
+
+	}
+
+	/**
+	 * Gets the clause database of an instance, loading it if this is the first request for it.
+	 *
+	 * @param iInstanceId The instance ID of the problem.
+	 * @return The shared clause database of the instance.
+	 */
+	public static ClauseDatabase getClauseDatabase(int iInstanceId) {
+
+		ClauseDatabase oClauses = s_oDatabases.get(iInstanceId);
+		if (oClauses != null) {
+
+			s_lHits.incrementAndGet();
+			return oClauses;
+		}
+
+		// requests for an instance being loaded wait for the load rather than loading it again
+		boolean[] abParsed = { false };
+		oClauses = s_oDatabases.computeIfAbsent(iInstanceId, id -> {
+
+			InstanceLoadEvent oEvent = new InstanceLoadEvent();
+			oEvent.begin();
+			long lStartTime = System.nanoTime();
+			String strFileName = SATInstances.getInstancePath(id);
+			ClauseDatabase oParsed = ClauseImage.mapIfPresent(strFileName, getImageDirectory());
+			oEvent.fromImage = oParsed != null;
+			if (oParsed != null) {
+				s_lImages.incrementAndGet();
+			} else {
+				oParsed = ClauseDatabase.load(strFileName);
+			}
+
+			s_lParseTime.addAndGet(System.nanoTime() - lStartTime);
+			if (oEvent.shouldCommit()) {
+
+				oEvent.instance = id;
+				oEvent.path = strFileName;
+				oEvent.variables = oParsed.getNumberOfVariables();
+				oEvent.clauses = oParsed.getNumberOfClauses();
+				oEvent.commit();
+			}
+
+			abParsed[0] = true;
+			return oParsed;
+		});
+
+		(abParsed[0] ? s_lMisses : s_lHits).incrementAndGet();
+		return oClauses;
+	}
+
+	/**
+	 * @return The directory searched for precompiled images of the instances.
+	 */
+	public static Path getImageDirectory() {
+
+		return Paths.get(System.getProperty(IMAGE_DIRECTORY_PROPERTY, DEFAULT_IMAGE_DIRECTORY));
+	}
+
+	/**
+	 * Creates a problem for an instance with a population size of 1, equivalent to
+	 * {@code new SAT(iInstanceId, iSeconds, oRandom)} but without parsing the instance again.
+	 *
+	 * @param iInstanceId The instance ID of the problem being solved.
+	 * @param iSeconds The number of seconds that the maximum iterations should be equivalent to.
+	 * @param oRandom The random number generator to use in this trial.
+	 * @return A new problem sharing the cached clause database.
+	 */
+	public static IncrementalSAT createProblem(int iInstanceId, int iSeconds, Random oRandom) {
+
+		return createProblem(iInstanceId, iSeconds, oRandom, 1);
+	}
+
+	/**
+	 * Creates a problem for an instance, equivalent to {@code new SAT(iInstanceId, iSeconds, oRandom, iPopulationSize)}
+	 * but without parsing the instance again.
+	 *
+	 * @param iInstanceId The instance ID of the problem being solved.
+	 * @param iSeconds The number of seconds that the maximum iterations should be equivalent to.
+	 * @param oRandom The random number generator to use in this trial.
+	 * @param iPopulationSize The size of the population of solutions.
+	 * @return A new problem sharing the cached clause database.
+	 */
+	public static IncrementalSAT createProblem(int iInstanceId, int iSeconds, Random oRandom, int iPopulationSize) {
+
+		return IncrementalSAT.create(getClauseDatabase(iInstanceId), SATInstances.getMaxEvaluations(iInstanceId, iSeconds), oRandom, iPopulationSize);
+	}
+
+	/**
+	 * Creates a problem whose solutions carry memes, equivalent to
+	 * {@code new SAT(iInstanceId, iSeconds, oRandom, iPopulationSize, iNumberOfMemes, aiMemeStates)}
+	 * but without parsing the instance again.
+	 *
+	 * @param iInstanceId The instance ID of the problem being solved.
+	 * @param iSeconds The number of seconds that the maximum iterations should be equivalent to.
+	 * @param oRandom The random number generator to use in this trial.
+	 * @param iPopulationSize The size of the population of solutions.
+	 * @param iNumberOfMemes The number of memes carried by each solution.
+	 * @param aiMemeStates The number of options of each meme.
+	 * @return A new problem sharing the cached clause database.
+	 */
+	public static IncrementalSAT createProblem(int iInstanceId, int iSeconds, Random oRandom, int iPopulationSize, int iNumberOfMemes, int[] aiMemeStates) {
+
+		return IncrementalSAT.create(getClauseDatabase(iInstanceId), SATInstances.getMaxEvaluations(iInstanceId, iSeconds), oRandom, iPopulationSize,
+				iNumberOfMemes, aiMemeStates);
+	}
+
+	public static long getHits() {
+
+		return s_lHits.get();
+	}
+
+	public static long getMisses() {
+
+		return s_lMisses.get();
+	}
+
+	/**
+	 * @return The number of misses that were loaded from a precompiled image rather than parsed.
+	 */
+	public static long getImageLoads() {
+
+		return s_lImages.get();
+	}
+
+	/**
+	 * @return The total time spent loading instances in nanoseconds.
+	 */
+	public static long getParseTime() {
+
+		return s_lParseTime.get();
+	}
+
+	/**
+	 * @return A summary of the hits, misses and load time of the cache.
+	 */
+	public static String getStatistics() {
+
+		return String.format("Instance cache: %d hits, %d misses (%d from images), %.3f seconds loading", getHits(), getMisses(), getImageLoads(), getParseTime() / 1e9);
+	}
+}
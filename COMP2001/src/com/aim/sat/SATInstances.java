@@ -0,0 +1,82 @@
+package com.aim.sat;
+
+/**
+ * The MAX-SAT instances that the framework's {@code SAT} class loads, indexed by the same
+ * instance IDs that are used throughout the test frame configurations. The paths are resolved
+ * first on the file system and then as resources of the framework library.
+ */
+public final class SATInstances {
+
+	private static final String[] m_astrInstances = new String[] { //instances from CHeSC 2011
+		"/data/sat/sat07/crafted/Difficult/contest-02-03-04/contest02-Mat26.sat05-457.reshuffled-07.txt",
+		"/data/sat/sat07/crafted/Hard/contest03/looksrandom/hidden-k3-s0-r5-n700-01-S2069048075.sat05-488.reshuffled-07.txt",
+		"/data/sat/sat07/crafted/Hard/contest03/looksrandom/hidden-k3-s0-r5-n700-02-S350203913.sat05-486.reshuffled-07.txt",
+		"/data/sat/sat09/crafted/parity-games/instance_n3_i3_pp.txt",
+		"/data/sat/sat09/crafted/parity-games/instance_n3_i3_pp_ci_ce.txt",
+		"/data/sat/sat09/crafted/parity-games/instance_n3_i4_pp_ci_ce.txt",
+		"/data/sat/ms_random/highgirth/3SAT/HG-3SAT-V250-C1000-1.txt",
+		"/data/sat/ms_random/highgirth/3SAT/HG-3SAT-V250-C1000-2.txt",
+		"/data/sat/ms_random/highgirth/3SAT/HG-3SAT-V300-C1200-2.txt",
+		"/data/sat/ms_crafted/MAXCUT/SPINGLASS/t7pm3-9999.spn.txt",
+		"/data/sat/sat07/industrial/jarvisalo/eq.atree.braun.8.unsat.txt",
+		"/data/sat/ms_random/highgirth/3SAT/HG-3SAT-V300-C1200-4.txt"
+	};
+
+	/**
+	 * The number of evaluations each instance is allowed in a nominal sixty seconds, as in {@code SAT}.
+	 */
+	private static final long[] SIXTY_SECONDS_EVALUATIONS_PER_INSTANCE = {
+		1873579,
+		1201680,
+		1068678,
+		2171053,
+		1862364,
+		1660721,
+		5666442,
+		5155633,
+		3994215,
+		2889132,
+		2534306,
+		4284292
+	};
+
+	private SATInstances() {
+
+	}
+
+	/**
+	 * @return The number of instances that can be loaded by ID.
+	 */
+	public static int getNumberOfInstances() {
+
+		return m_astrInstances.length;
+	}
+
+	/**
+	 * Gets the path of the DIMACS file for the given instance ID.
+	 *
+	 * @param iInstanceId The instance ID of the problem.
+	 * @return The path of the instance file.
+	 */
+	public static String getInstancePath(int iInstanceId) {
+
+		if (iInstanceId < 0 || iInstanceId >= m_astrInstances.length) {
+			throw new IllegalArgumentException("Instance ID [" + iInstanceId + "] does not exist.");
+		}
+
+		return m_astrInstances[iInstanceId];
+	}
+
+	/**
+	 * Gets the number of evaluations allowed for the termination criterion, computed as by {@code SAT}.
+	 *
+	 * @param iInstanceId The instance ID of the problem.
+	 * @param iSeconds The number of seconds that the maximum evaluations should be equivalent to.
+	 * @return The maximum number of evaluations.
+	 */
+	public static long getMaxEvaluations(int iInstanceId, int iSeconds) {
+
+		getInstancePath(iInstanceId);
+		return (long) (SIXTY_SECONDS_EVALUATIONS_PER_INSTANCE[iInstanceId] * ((double) iSeconds / 60.0d));
+	}
+}
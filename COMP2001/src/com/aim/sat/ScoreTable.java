@@ -0,0 +1,330 @@
+package com.aim.sat;
+
+import java.util.Random;
+
+/**
+ * Maintains the make and break counts of every variable of a solution, and keeps the variables
+ * ordered by their score (make minus break), i.e. the decrease in the number of broken clauses
+ * that flipping the variable would cause.
+ * <p>
+ * The variables are held in a single array sorted by score where each score owns a contiguous
+ * bucket. Every change to a make or break count moves a variable to an adjacent bucket by one swap
+ * with the bucket boundary, so the variables with the best score are always at the end of the
+ * array and can be found, and a tie broken at random, in constant time.
+ * <p>
+ * A clause with exactly one true literal is critical; the variable of that literal is recovered
+ * from the sum of the variables of the true literals of each clause. This requires that clauses
+ * contain no repeated variables, which {@link ClauseDatabase} guarantees.
+ * <p>
+ * The broken clauses are kept in an indexed set, i.e. a dense array of clauses together with the
+ * position of each clause in it, so that a broken clause can be sampled uniformly at random, and
+ * added or removed when a flip changes whether it is broken, in constant time.
+ */
+class ScoreTable {
+
+	private final int[] m_aiLiterals, m_aiClauseOffsets, m_aiOccurrences, m_aiOccurrenceOffsets;
+
+	private final int[] m_aiMake;
+
+	private final int[] m_aiBreak;
+
+	// sum of the variables of the true literals of each clause
+	private final int[] m_aiTrueVariableSums;
+
+	// variables sorted by score, the position of each variable, and the first position of each score
+	private final int[] m_aiOrder, m_aiPositions, m_aiBucketStarts;
+
+	// the bucket index of score 0
+	private final int m_iScoreOffset;
+
+	// the broken clauses, and the position of each clause in them or -1 if the clause is satisfied
+	private final int[] m_aiBrokenClauses, m_aiBrokenClausePositions;
+
+	private int m_iNumberOfBrokenClauses;
+
+	ScoreTable(ClauseDatabase oClauses, long[] alValues, int[] aiTrueLiteralCounts) {
+
+		this.m_aiLiterals = oClauses.getLiterals();
+		this.m_aiClauseOffsets = oClauses.getClauseOffsets();
+		this.m_aiOccurrences = oClauses.getOccurrences();
+		this.m_aiOccurrenceOffsets = oClauses.getOccurrenceOffsets();
+
+		int iNumberOfVariables = oClauses.getNumberOfVariables();
+		this.m_aiMake = new int[iNumberOfVariables];
+		this.m_aiBreak = new int[iNumberOfVariables];
+		this.m_aiTrueVariableSums = new int[oClauses.getNumberOfClauses()];
+		this.m_aiBrokenClauses = new int[oClauses.getNumberOfClauses()];
+		this.m_aiBrokenClausePositions = new int[oClauses.getNumberOfClauses()];
+
+		for (int c = 0; c < m_aiTrueVariableSums.length; c++) {
+
+			int iSum = 0;
+			for (int l = m_aiClauseOffsets[c]; l < m_aiClauseOffsets[c + 1]; l++) {
+				int iLiteral = m_aiLiterals[l];
+				int iVariable = Math.abs(iLiteral) - 1;
+				if ((iLiteral > 0) == BitString.get(alValues, iVariable)) {
+					iSum += iVariable;
+				} else if (aiTrueLiteralCounts[c] == 0) {
+					m_aiMake[iVariable]++;
+				}
+			}
+
+			m_aiTrueVariableSums[c] = iSum;
+			if (aiTrueLiteralCounts[c] == 1) {
+				m_aiBreak[iSum]++;
+			}
+
+			m_aiBrokenClausePositions[c] = -1;
+			if (aiTrueLiteralCounts[c] == 0) {
+				addBrokenClause(c);
+			}
+		}
+
+		// a score can be no larger in magnitude than the number of occurrences of a variable
+		int iMaxOccurrences = 0;
+		for (int v = 0; v < iNumberOfVariables; v++) {
+			iMaxOccurrences = Math.max(iMaxOccurrences, m_aiOccurrenceOffsets[v + 1] - m_aiOccurrenceOffsets[v]);
+		}
+
+		this.m_iScoreOffset = iMaxOccurrences;
+		this.m_aiBucketStarts = new int[(iMaxOccurrences << 1) + 2];
+		this.m_aiOrder = new int[iNumberOfVariables];
+		this.m_aiPositions = new int[iNumberOfVariables];
+
+		// counting sort of the variables by score
+		for (int v = 0; v < iNumberOfVariables; v++) {
+			m_aiBucketStarts[bucket(v) + 1]++;
+		}
+
+		for (int b = 1; b < m_aiBucketStarts.length; b++) {
+			m_aiBucketStarts[b] += m_aiBucketStarts[b - 1];
+		}
+
+		int[] aiNext = m_aiBucketStarts.clone();
+		for (int v = 0; v < iNumberOfVariables; v++) {
+			int iPosition = aiNext[bucket(v)]++;
+			m_aiOrder[iPosition] = v;
+			m_aiPositions[v] = iPosition;
+		}
+	}
+
+	private ScoreTable(ScoreTable oOther) {
+
+		this.m_aiLiterals = oOther.m_aiLiterals;
+		this.m_aiClauseOffsets = oOther.m_aiClauseOffsets;
+		this.m_aiOccurrences = oOther.m_aiOccurrences;
+		this.m_aiOccurrenceOffsets = oOther.m_aiOccurrenceOffsets;
+		this.m_iScoreOffset = oOther.m_iScoreOffset;
+		this.m_aiMake = oOther.m_aiMake.clone();
+		this.m_aiBreak = oOther.m_aiBreak.clone();
+		this.m_aiTrueVariableSums = oOther.m_aiTrueVariableSums.clone();
+		this.m_aiOrder = oOther.m_aiOrder.clone();
+		this.m_aiPositions = oOther.m_aiPositions.clone();
+		this.m_aiBucketStarts = oOther.m_aiBucketStarts.clone();
+		this.m_aiBrokenClauses = oOther.m_aiBrokenClauses.clone();
+		this.m_aiBrokenClausePositions = oOther.m_aiBrokenClausePositions.clone();
+		this.m_iNumberOfBrokenClauses = oOther.m_iNumberOfBrokenClauses;
+	}
+
+	ScoreTable deepCopy() {
+
+		return new ScoreTable(this);
+	}
+
+	void copyFrom(ScoreTable oOther) {
+
+		System.arraycopy(oOther.m_aiMake, 0, m_aiMake, 0, m_aiMake.length);
+		System.arraycopy(oOther.m_aiBreak, 0, m_aiBreak, 0, m_aiBreak.length);
+		System.arraycopy(oOther.m_aiTrueVariableSums, 0, m_aiTrueVariableSums, 0, m_aiTrueVariableSums.length);
+		System.arraycopy(oOther.m_aiOrder, 0, m_aiOrder, 0, m_aiOrder.length);
+		System.arraycopy(oOther.m_aiPositions, 0, m_aiPositions, 0, m_aiPositions.length);
+		System.arraycopy(oOther.m_aiBucketStarts, 0, m_aiBucketStarts, 0, m_aiBucketStarts.length);
+		System.arraycopy(oOther.m_aiBrokenClauses, 0, m_aiBrokenClauses, 0, oOther.m_iNumberOfBrokenClauses);
+		System.arraycopy(oOther.m_aiBrokenClausePositions, 0, m_aiBrokenClausePositions, 0, m_aiBrokenClausePositions.length);
+		m_iNumberOfBrokenClauses = oOther.m_iNumberOfBrokenClauses;
+	}
+
+	private int bucket(int iVariable) {
+
+		return m_aiMake[iVariable] - m_aiBreak[iVariable] + m_iScoreOffset;
+	}
+
+	/**
+	 * Moves the variable from the end of its bucket to the start of the next bucket up.
+	 */
+	private void increaseScore(int iVariable) {
+
+		int iLast = --m_aiBucketStarts[bucket(iVariable) + 1];
+		swap(iVariable, iLast);
+	}
+
+	/**
+	 * Moves the variable from the start of its bucket to the end of the next bucket down.
+	 */
+	private void decreaseScore(int iVariable) {
+
+		int iFirst = m_aiBucketStarts[bucket(iVariable)]++;
+		swap(iVariable, iFirst);
+	}
+
+	private void swap(int iVariable, int iPosition) {
+
+		int iOther = m_aiOrder[iPosition];
+		int iOldPosition = m_aiPositions[iVariable];
+
+		m_aiOrder[iOldPosition] = iOther;
+		m_aiPositions[iOther] = iOldPosition;
+		m_aiOrder[iPosition] = iVariable;
+		m_aiPositions[iVariable] = iPosition;
+	}
+
+	private void addBrokenClause(int iClause) {
+
+		m_aiBrokenClausePositions[iClause] = m_iNumberOfBrokenClauses;
+		m_aiBrokenClauses[m_iNumberOfBrokenClauses++] = iClause;
+	}
+
+	/**
+	 * Removes the clause by moving the last broken clause into its position.
+	 */
+	private void removeBrokenClause(int iClause) {
+
+		int iPosition = m_aiBrokenClausePositions[iClause];
+		int iLast = m_aiBrokenClauses[--m_iNumberOfBrokenClauses];
+
+		m_aiBrokenClauses[iPosition] = iLast;
+		m_aiBrokenClausePositions[iLast] = iPosition;
+		m_aiBrokenClausePositions[iClause] = -1;
+	}
+
+	private void incrementMake(int iVariable) {
+
+		increaseScore(iVariable);
+		m_aiMake[iVariable]++;
+	}
+
+	private void decrementMake(int iVariable) {
+
+		decreaseScore(iVariable);
+		m_aiMake[iVariable]--;
+	}
+
+	private void incrementBreak(int iVariable) {
+
+		decreaseScore(iVariable);
+		m_aiBreak[iVariable]++;
+	}
+
+	private void decrementBreak(int iVariable) {
+
+		increaseScore(iVariable);
+		m_aiBreak[iVariable]--;
+	}
+
+	/**
+	 * Updates the true literal counts, the make and break counts, and the buckets after a variable
+	 * has been flipped.
+	 *
+	 * @param iVariable The variable that was flipped.
+	 * @param iTrueSign 1 if the variable is now true, otherwise 0.
+	 * @param aiTrueLiteralCounts The true literal counts of the solution, which are updated.
+	 * @return The change in the number of broken clauses.
+	 */
+	int flip(int iVariable, int iTrueSign, int[] aiTrueLiteralCounts) {
+
+		int iDelta = 0;
+		for (int o = m_aiOccurrenceOffsets[iVariable]; o < m_aiOccurrenceOffsets[iVariable + 1]; o++) {
+
+			int iOccurrence = m_aiOccurrences[o];
+			int iClause = iOccurrence >>> 1;
+			if ((iOccurrence & 1) == iTrueSign) {
+
+				int iTrue = aiTrueLiteralCounts[iClause]++;
+				if (iTrue == 0) {
+
+					// the clause is no longer broken and the flipped variable is now critical
+					iDelta--;
+					removeBrokenClause(iClause);
+					for (int l = m_aiClauseOffsets[iClause]; l < m_aiClauseOffsets[iClause + 1]; l++) {
+						decrementMake(Math.abs(m_aiLiterals[l]) - 1);
+					}
+					incrementBreak(iVariable);
+
+				} else if (iTrue == 1) {
+
+					// the previously critical variable can now be flipped without breaking the clause
+					decrementBreak(m_aiTrueVariableSums[iClause]);
+				}
+
+				m_aiTrueVariableSums[iClause] += iVariable;
+
+			} else {
+
+				int iTrue = --aiTrueLiteralCounts[iClause];
+				m_aiTrueVariableSums[iClause] -= iVariable;
+
+				if (iTrue == 0) {
+
+					// the clause is now broken, flipping any of its variables would fix it
+					iDelta++;
+					addBrokenClause(iClause);
+					decrementBreak(iVariable);
+					for (int l = m_aiClauseOffsets[iClause]; l < m_aiClauseOffsets[iClause + 1]; l++) {
+						incrementMake(Math.abs(m_aiLiterals[l]) - 1);
+					}
+
+				} else if (iTrue == 1) {
+
+					// the remaining true literal is now critical
+					incrementBreak(m_aiTrueVariableSums[iClause]);
+				}
+			}
+		}
+
+		return iDelta;
+	}
+
+	/**
+	 * @param iVariable The index of the variable.
+	 * @return The decrease in the number of broken clauses if the variable is flipped.
+	 */
+	int getScore(int iVariable) {
+
+		return m_aiMake[iVariable] - m_aiBreak[iVariable];
+	}
+
+	int getMake(int iVariable) {
+
+		return m_aiMake[iVariable];
+	}
+
+	int getBreak(int iVariable) {
+
+		return m_aiBreak[iVariable];
+	}
+
+	/**
+	 * Selects uniformly at random one of the variables with the highest score.
+	 *
+	 * @param oRandom The random number generator used to break ties.
+	 * @return The index of the selected variable.
+	 */
+	int getBestVariable(Random oRandom) {
+
+		int iLast = m_aiOrder.length - 1;
+		int iFirst = m_aiBucketStarts[bucket(m_aiOrder[iLast])];
+
+		return m_aiOrder[iFirst + oRandom.nextInt(m_aiOrder.length - iFirst)];
+	}
+
+	/**
+	 * Selects one of the broken clauses uniformly at random.
+	 *
+	 * @param oRandom The random number generator.
+	 * @return The index of the selected clause, or -1 if no clause is broken.
+	 */
+	int getRandomBrokenClause(Random oRandom) {
+
+		return m_iNumberOfBrokenClauses == 0 ? -1 : m_aiBrokenClauses[oRandom.nextInt(m_iNumberOfBrokenClauses)];
+	}
+}
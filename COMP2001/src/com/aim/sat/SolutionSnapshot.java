@@ -0,0 +1,34 @@
+package com.aim.sat;
+
+/**
+ * An immutable copy of a solution of an {@link IncrementalSAT} together with its objective function
+ * value, which can be published to other threads and restored into the memory of any problem
+ * created for the same clauses, e.g. a fork.
+ */
+public final class SolutionSnapshot {
+
+	private final IncrementalSolution m_oSolution;
+
+	SolutionSnapshot(IncrementalSolution oSolution) {
+
+		this.m_oSolution = oSolution;
+	}
+
+	IncrementalSolution getSolution() {
+
+		return m_oSolution;
+	}
+
+	/**
+	 * @return The number of broken clauses of the solution.
+	 */
+	public int getObjectiveFunctionValue() {
+
+		return m_oSolution.getNumberOfBrokenClauses();
+	}
+
+	public String getSolutionAsString() {
+
+		return m_oSolution.getSolutionAsString();
+	}
+}